@@ -28,10 +28,12 @@ import io.micronaut.http.ssl.ClientAuthentication;
 import io.micronaut.http.ssl.SslConfiguration;
 import io.micronaut.servlet.engine.DefaultMicronautServlet;
 import io.micronaut.servlet.engine.MicronautServletConfiguration;
+import io.micronaut.servlet.engine.compression.ServletCompressionConfiguration;
 import io.micronaut.servlet.engine.server.ServletServerFactory;
 import io.micronaut.servlet.engine.server.ServletStaticResourceConfiguration;
 import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.server.*;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
 import org.eclipse.jetty.servlet.*;
 import org.eclipse.jetty.util.resource.Resource;
 import org.eclipse.jetty.util.resource.ResourceCollection;
@@ -206,7 +208,17 @@ public class JettyFactory extends ServletServerFactory {
             }
 
         }
-        server.setHandler(contextHandler);
+        final ServletCompressionConfiguration compression = getContainerCompressionConfiguration().orElse(null);
+        if (compression != null) {
+            GzipHandler gzipHandler = new GzipHandler();
+            gzipHandler.setMinGzipSize(compression.getThreshold());
+            gzipHandler.setCompressionLevel(compression.getLevel());
+            gzipHandler.setIncludedMimeTypes(compression.getMimeTypes().toArray(new String[0]));
+            gzipHandler.setHandler(contextHandler);
+            server.setHandler(gzipHandler);
+        } else {
+            server.setHandler(contextHandler);
+        }
 
         final SslConfiguration sslConfiguration = getSslConfiguration();
         if (sslConfiguration.isEnabled()) {
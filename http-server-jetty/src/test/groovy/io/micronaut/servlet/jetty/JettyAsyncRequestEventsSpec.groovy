@@ -0,0 +1,70 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.context.event.ApplicationEventListener
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.context.event.HttpRequestTerminatedEvent
+import io.micronaut.servlet.http.ServletHttpRequest
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import javax.inject.Inject
+import javax.inject.Singleton
+import java.util.concurrent.CopyOnWriteArrayList
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyAsyncRequestEventsSpec')
+@Property(name = 'micronaut.servlet.async-request-events', value = 'true')
+class JettyAsyncRequestEventsSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Inject
+    TerminatedListener terminatedListener
+
+    void 'test listeners notified asynchronously receive a copy of the request'() {
+        when:
+        (1..5).each {
+            client.retrieve(HttpRequest.GET("/async-request-events?n=$it").header('X-Request', "request-$it")).blockingFirst()
+        }
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            terminatedListener.requests.size() == 5
+        }
+        terminatedListener.requests.sort() == (1..5).collect { "/async-request-events?n=$it request-$it false".toString() }.sort()
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyAsyncRequestEventsSpec')
+    @Controller('/async-request-events')
+    static class AsyncRequestEventsController {
+
+        @Get
+        String index() {
+            return 'ok'
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyAsyncRequestEventsSpec')
+    @Singleton
+    static class TerminatedListener implements ApplicationEventListener<HttpRequestTerminatedEvent> {
+
+        final List<String> requests = new CopyOnWriteArrayList<>()
+
+        @Override
+        void onApplicationEvent(HttpRequestTerminatedEvent event) {
+            HttpRequest<?> request = event.source
+            // wait for the container to complete the request before reading it
+            Thread.sleep(50)
+            requests.add("${request.uri} ${request.headers.get('X-Request')} ${request instanceof ServletHttpRequest}".toString())
+        }
+    }
+}
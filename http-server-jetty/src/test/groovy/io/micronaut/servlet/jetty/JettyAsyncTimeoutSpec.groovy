@@ -0,0 +1,103 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Filter
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Single
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+import spock.lang.Unroll
+import spock.util.concurrent.PollingConditions
+
+import javax.inject.Inject
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyAsyncTimeoutSpec')
+@Property(name = 'micronaut.servlet.async-timeout', value = '300ms')
+class JettyAsyncTimeoutSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Inject
+    AsyncTimeoutController controller
+
+    @Unroll
+    void 'test a #description route timed out by the container is cancelled and responds with service unavailable'() {
+        when:
+        client.exchange(HttpRequest.GET(uri), String).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.SERVICE_UNAVAILABLE
+        new PollingConditions(timeout: 5).eventually {
+            cancelled.call(controller)
+        }
+
+        where:
+        description        | uri                              | cancelled
+        'reactive'         | '/async-timeout/single'          | { AsyncTimeoutController c -> c.singleCancelled }
+        'completion stage' | '/async-timeout/future'          | { AsyncTimeoutController c -> c.future?.isCancelled() }
+        'filtered stage'   | '/async-timeout/filtered/future' | { AsyncTimeoutController c -> c.filteredFuture?.isCancelled() }
+        'filtered future'  | '/async-timeout/filtered/plain'  | { AsyncTimeoutController c -> c.plainFuture?.isCancelled() }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyAsyncTimeoutSpec')
+    @Controller('/async-timeout')
+    static class AsyncTimeoutController {
+
+        volatile boolean singleCancelled
+        volatile CompletableFuture<String> future
+        volatile CompletableFuture<String> filteredFuture
+        volatile FutureTask<String> plainFuture
+
+        @Get('/single')
+        Single<String> single() {
+            return Single.<String>never().doOnDispose({ singleCancelled = true })
+        }
+
+        @Get('/future')
+        CompletableFuture<String> future() {
+            future = new CompletableFuture<>()
+            return future
+        }
+
+        @Get('/filtered/future')
+        CompletableFuture<String> filteredFuture() {
+            filteredFuture = new CompletableFuture<>()
+            return filteredFuture
+        }
+
+        @Get('/filtered/plain')
+        Future<String> plainFuture() {
+            // never run, so it only completes when it is cancelled
+            plainFuture = new FutureTask<>({ 'never' })
+            return plainFuture
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyAsyncTimeoutSpec')
+    @Filter('/async-timeout/filtered/**')
+    static class PassThroughFilter implements HttpServerFilter {
+
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            return chain.proceed(request)
+        }
+    }
+}
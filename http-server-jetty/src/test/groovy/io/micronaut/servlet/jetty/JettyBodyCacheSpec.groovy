@@ -0,0 +1,107 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Introspected
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.MediaType
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Filter
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyBodyCacheSpec')
+@Property(name = 'micronaut.servlet.max-cached-body-size', value = '1024')
+class JettyBodyCacheSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test a body read by a filter can be bound as another type'() {
+        when:
+        String result = client.retrieve(HttpRequest.POST('/body-cache/pojo', '{"name":"Fred","age":42}')
+                .contentType(MediaType.APPLICATION_JSON)).blockingFirst()
+
+        then:
+        result == 'Fred:42:{"name":"Fred","age":42}'
+    }
+
+    void 'test a body read by a filter as text can be bound as JSON'() {
+        when:
+        String result = client.retrieve(HttpRequest.POST('/body-cache/map', '{"name":"Wilma"}')
+                .contentType(MediaType.APPLICATION_JSON)).blockingFirst()
+
+        then:
+        result == 'Wilma:{"name":"Wilma"}'
+    }
+
+    void 'test bodies larger than the cache are bound as the type read by the filter'() {
+        given:
+        String name = 'x' * 2048
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/body-cache/large', "{\"name\":\"$name\"}")
+                .contentType(MediaType.APPLICATION_JSON)).blockingFirst()
+
+        then:
+        result == String.valueOf(name.length())
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyBodyCacheSpec')
+    @Controller('/body-cache')
+    static class BodyCacheController {
+
+        @Post(value = '/pojo', produces = MediaType.TEXT_PLAIN)
+        String pojo(@Body Person person, HttpRequest<?> request) {
+            return "$person.name:$person.age:${request.getAttribute('audit', String).orElse(null)}"
+        }
+
+        @Post(value = '/map', produces = MediaType.TEXT_PLAIN)
+        String map(@Body Map<String, Object> body, HttpRequest<?> request) {
+            return "$body.name:${request.getAttribute('audit', String).orElse(null)}"
+        }
+
+        @Post(value = '/large', produces = MediaType.TEXT_PLAIN)
+        String large(@Body Map<String, Object> body) {
+            return String.valueOf(body.name.toString().length())
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyBodyCacheSpec')
+    @Filter('/body-cache/**')
+    static class AuditFilter implements HttpServerFilter {
+
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            if (request.path.endsWith('/large')) {
+                request.getBody(Map).orElseThrow({ new IllegalStateException('no body') })
+            } else if (request.path.endsWith('/map')) {
+                request.setAttribute('audit', request.getBody(String).orElse(null))
+            } else {
+                Map body = request.getBody(Map).orElse(null)
+                request.setAttribute('audit', request.getBody(String).orElse(null))
+                assert body.name == 'Fred'
+            }
+            return Flowable.fromPublisher(chain.proceed(request))
+        }
+    }
+
+    @Introspected
+    static class Person {
+        String name
+        int age
+    }
+}
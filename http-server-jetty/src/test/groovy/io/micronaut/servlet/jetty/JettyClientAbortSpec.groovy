@@ -0,0 +1,56 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import javax.inject.Inject
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyClientAbortSpec')
+class JettyClientAbortSpec extends Specification {
+
+    @Inject
+    EmbeddedServer embeddedServer
+
+    @Inject
+    AbortController controller
+
+    void 'test streaming is cancelled when the client disconnects'() {
+        given:
+        HttpURLConnection connection = (HttpURLConnection) new URL(embeddedServer.URL, '/client-abort/stream').openConnection()
+
+        when:
+        InputStream input = connection.inputStream
+        input.read(new byte[1024])
+        connection.disconnect()
+
+        then:
+        new PollingConditions(timeout: 10).eventually {
+            controller.cancelled.get()
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyClientAbortSpec')
+    @Controller('/client-abort')
+    static class AbortController {
+
+        final AtomicBoolean cancelled = new AtomicBoolean()
+
+        @Get(value = '/stream', produces = MediaType.APPLICATION_OCTET_STREAM)
+        Flowable<byte[]> stream() {
+            return Flowable.interval(10, TimeUnit.MILLISECONDS)
+                    .map({ Long i -> new byte[1024] })
+                    .doOnCancel({ cancelled.set(true) })
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.multipart.MultipartBody
+import io.micronaut.http.multipart.CompletedFileUpload
+import io.micronaut.servlet.engine.ServletCompletedFileUpload
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.inject.Inject
+import java.nio.file.Files
+import java.nio.file.Path
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyCompletedFileUploadSpec')
+@Property(name = 'micronaut.server.multipart.enabled', value = 'true')
+@Property(name = 'micronaut.server.multipart.threshold', value = '1024')
+class JettyCompletedFileUploadSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Unroll
+    void 'test a completed upload of #size bytes is transferred to a file'() {
+        given:
+        byte[] content = new byte[size]
+        new Random(size).nextBytes(content)
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/completed-upload/transfer', body(content))
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        result == content.encodeHex().toString()
+
+        where:
+        size << [100, 200000]
+    }
+
+    void 'test the bytes of a completed upload are read'() {
+        given:
+        byte[] content = ('bytes ' * 1000).bytes
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/completed-upload/bytes', body(content))
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        result == String.valueOf(content.length)
+    }
+
+    private static MultipartBody body(byte[] content) {
+        return MultipartBody.builder()
+                .addPart('file', 'data.bin', MediaType.APPLICATION_OCTET_STREAM_TYPE, content)
+                .build()
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyCompletedFileUploadSpec')
+    @Controller('/completed-upload')
+    static class CompletedUploadController {
+
+        @Post(value = '/transfer', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        String transfer(CompletedFileUpload file) {
+            Path destination = Files.createTempFile('upload', '.bin')
+            try {
+                ((ServletCompletedFileUpload) file).transferTo(destination)
+                return Files.readAllBytes(destination).encodeHex().toString()
+            } finally {
+                Files.deleteIfExists(destination)
+            }
+        }
+
+        @Post(value = '/bytes', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        String bytes(CompletedFileUpload file) {
+            return String.valueOf(file.bytes.length)
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Error
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Single
+import spock.lang.Specification
+
+import javax.inject.Inject
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.Executor
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
+import java.util.concurrent.TimeUnit
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyCompletionStageSpec')
+class JettyCompletionStageSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test completion stages completed later are written'() {
+        expect:
+        client.retrieve(HttpRequest.GET('/completion-stage/delayed'), Map).blockingFirst() == [name: 'Fred']
+    }
+
+    void 'test completion stages completing with a response keep its status'() {
+        when:
+        HttpResponse<String> response = client.exchange(HttpRequest.GET('/completion-stage/created'), String).blockingFirst()
+
+        then:
+        response.status() == HttpStatus.CREATED
+        response.body() == 'created'
+    }
+
+    void 'test completion stages completing with #description respond with #status'() {
+        when:
+        client.exchange(HttpRequest.GET(uri), String).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == status
+
+        where:
+        description   | uri                            | status
+        'null'        | '/completion-stage/empty'      | HttpStatus.NOT_FOUND
+        'an error'    | '/completion-stage/failed'     | HttpStatus.INTERNAL_SERVER_ERROR
+    }
+
+    void 'test completion stages failing are handled by a reactive error route before the request completes'() {
+        when:
+        client.exchange(HttpRequest.GET('/completion-stage/failed-reactive'), String).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.CONFLICT
+        e.response.getBody(String).get() == 'conflict ' + ('x' * 10000)
+    }
+
+    void 'test futures accepting listeners are written when they complete'() {
+        expect:
+        client.retrieve(HttpRequest.GET('/completion-stage/listenable')).blockingFirst() == 'listenable'
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyCompletionStageSpec')
+    @Controller('/completion-stage')
+    static class CompletionStageController {
+
+        @Get('/delayed')
+        CompletionStage<Map<String, String>> delayed() {
+            return CompletableFuture.supplyAsync({
+                sleep(50)
+                return [name: 'Fred']
+            })
+        }
+
+        @Get('/created')
+        CompletableFuture<HttpResponse<String>> created() {
+            return CompletableFuture.supplyAsync({ HttpResponse.created('created') })
+        }
+
+        @Get('/empty')
+        CompletableFuture<String> empty() {
+            return CompletableFuture.completedFuture(null)
+        }
+
+        @Get('/failed')
+        CompletableFuture<String> failed() {
+            CompletableFuture<String> future = new CompletableFuture<>()
+            future.completeExceptionally(new IllegalStateException('failed'))
+            return future
+        }
+
+        @Get('/failed-reactive')
+        CompletableFuture<String> failedReactive() {
+            return CompletableFuture.supplyAsync({ throw new ConflictException() })
+        }
+
+        @Error(ConflictException)
+        Single<HttpResponse<String>> conflict() {
+            // completes on another thread after the failed stage has been handled
+            return Single.timer(100, TimeUnit.MILLISECONDS)
+                    .map({ HttpResponse.status(HttpStatus.CONFLICT).body('conflict ' + ('x' * 10000)) })
+        }
+
+        @Get('/listenable')
+        Future<String> listenable() {
+            ListenableTask task = new ListenableTask({ 'listenable' })
+            new Thread(task).start()
+            return task
+        }
+    }
+
+    static class ConflictException extends RuntimeException {
+    }
+
+    static class ListenableTask extends FutureTask<String> {
+
+        private final List<Runnable> listeners = []
+
+        ListenableTask(Callable<String> callable) {
+            super(callable)
+        }
+
+        synchronized void addListener(Runnable listener, Executor executor) {
+            if (isDone()) {
+                executor.execute(listener)
+            } else {
+                listeners.add({ executor.execute(listener) } as Runnable)
+            }
+        }
+
+        @Override
+        protected synchronized void done() {
+            listeners.each { it.run() }
+        }
+    }
+}
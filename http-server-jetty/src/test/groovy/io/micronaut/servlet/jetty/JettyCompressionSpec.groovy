@@ -0,0 +1,202 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Produces
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.servlet.engine.compression.CompressingServletOutputStream
+import io.micronaut.servlet.engine.compression.GzipContentEncoder
+import io.micronaut.servlet.engine.compression.ServletCompressionConfiguration
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.inject.Inject
+import javax.servlet.ServletOutputStream
+import javax.servlet.WriteListener
+import javax.servlet.http.HttpServletResponse
+import java.util.zip.GZIPInputStream
+import java.util.zip.InflaterInputStream
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyCompressionSpec')
+@Property(name = 'micronaut.server.compression.enabled', value = 'true')
+@Property(name = 'micronaut.server.compression.threshold', value = '512')
+class JettyCompressionSpec extends Specification {
+
+    static final String LARGE = 'micronaut ' * 200
+
+    @Inject
+    EmbeddedServer embeddedServer
+
+    @Inject
+    ServletCompressionConfiguration configuration
+
+    @Inject
+    GzipContentEncoder encoder
+
+    @Unroll
+    void 'test response is compressed with #encoding'() {
+        when:
+        HttpURLConnection connection = open('/compression/large', encoding)
+
+        then:
+        connection.responseCode == 200
+        connection.getHeaderField('Content-Encoding') == encoding
+        connection.getHeaderField('Vary').contains('Accept-Encoding')
+        decoder(connection.inputStream).text == LARGE
+
+        where:
+        encoding  | decoder
+        'gzip'    | { InputStream i -> new GZIPInputStream(i) }
+        'deflate' | { InputStream i -> new InflaterInputStream(i) }
+    }
+
+    void 'test JSON responses are compressed'() {
+        when:
+        HttpURLConnection connection = open('/compression/json', 'gzip')
+
+        then:
+        connection.getHeaderField('Content-Encoding') == 'gzip'
+        new GZIPInputStream(connection.inputStream).text.contains(LARGE)
+    }
+
+    void 'test streamed responses are compressed completely'() {
+        when:
+        HttpURLConnection connection = open('/compression/stream', 'gzip')
+
+        then:
+        connection.getHeaderField('Content-Encoding') == 'gzip'
+        new GZIPInputStream(connection.inputStream).text == (0..<500).collect { "item-\$it " }.join('')
+    }
+
+    void 'test responses below the threshold are not compressed'() {
+        when:
+        HttpURLConnection connection = open('/compression/small', 'gzip')
+
+        then:
+        connection.getHeaderField('Content-Encoding') == null
+        connection.inputStream.text == 'small'
+    }
+
+    void 'test responses are not compressed without Accept-Encoding'() {
+        when:
+        HttpURLConnection connection = open('/compression/large', null)
+
+        then:
+        connection.getHeaderField('Content-Encoding') == null
+        connection.inputStream.text == LARGE
+    }
+
+    void 'test media types that are not configured are not compressed'() {
+        when:
+        HttpURLConnection connection = open('/compression/binary', 'gzip')
+
+        then:
+        connection.getHeaderField('Content-Encoding') == null
+        connection.inputStream.bytes.length == 2048
+    }
+
+    void 'test non-blocking output that is not compressed is written in order once the container is ready'() {
+        given:
+        NotReadyOutputStream target = new NotReadyOutputStream()
+        HttpServletResponse response = Stub(HttpServletResponse) {
+            getContentType() >> MediaType.APPLICATION_OCTET_STREAM
+        }
+        CompressingServletOutputStream stream = new CompressingServletOutputStream(response, target, encoder, configuration, false)
+        stream.setWriteListener(Mock(WriteListener))
+
+        when: 'the threshold is reached while the container is not ready'
+        stream.write(('a' * 100).bytes)
+        target.ready = false
+        stream.write(('b' * 600).bytes)
+
+        then: 'the buffered output is pending'
+        !stream.isReady()
+        target.written.size() == 0
+
+        when: 'more output is written and flushed before the container is ready'
+        stream.write(('c' * 10).bytes)
+        stream.flush()
+
+        then: 'it is kept behind the pending output'
+        !stream.isReady()
+        target.written.size() == 0
+
+        when:
+        target.ready = true
+        target.listener.onWritePossible()
+
+        then:
+        stream.isReady()
+        new String(target.written.toByteArray()) == ('a' * 100) + ('b' * 600) + ('c' * 10)
+    }
+
+    private HttpURLConnection open(String path, String encoding) {
+        HttpURLConnection connection = (HttpURLConnection) new URL(embeddedServer.URL, path).openConnection()
+        if (encoding != null) {
+            connection.setRequestProperty('Accept-Encoding', encoding)
+        }
+        return connection
+    }
+
+    static class NotReadyOutputStream extends ServletOutputStream {
+        final ByteArrayOutputStream written = new ByteArrayOutputStream()
+        WriteListener listener
+        boolean ready = true
+
+        @Override
+        boolean isReady() {
+            return ready
+        }
+
+        @Override
+        void setWriteListener(WriteListener writeListener) {
+            listener = writeListener
+        }
+
+        @Override
+        void write(int b) throws IOException {
+            assert ready
+            written.write(b)
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyCompressionSpec')
+    @Controller('/compression')
+    static class CompressionController {
+
+        @Get('/large')
+        @Produces(MediaType.TEXT_PLAIN)
+        String large() {
+            return LARGE
+        }
+
+        @Get('/small')
+        @Produces(MediaType.TEXT_PLAIN)
+        String small() {
+            return 'small'
+        }
+
+        @Get('/json')
+        Map<String, String> json() {
+            return [value: LARGE]
+        }
+
+        @Get('/stream')
+        @Produces(MediaType.TEXT_PLAIN)
+        Flowable<String> stream() {
+            return Flowable.range(0, 500).map({ Integer i -> "item-\$i ".toString() })
+        }
+
+        @Get('/binary')
+        @Produces(MediaType.APPLICATION_OCTET_STREAM)
+        byte[] binary() {
+            return new byte[2048]
+        }
+    }
+}
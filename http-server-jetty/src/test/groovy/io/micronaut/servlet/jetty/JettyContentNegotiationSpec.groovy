@@ -0,0 +1,60 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Produces
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyContentNegotiationSpec')
+class JettyContentNegotiationSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Unroll
+    void 'test content type #expected is selected for accept header #accept'() {
+        when:
+        HttpResponse<String> response = client.exchange(
+                HttpRequest.GET('/negotiate').header(HttpHeaders.ACCEPT, accept),
+                String
+        ).blockingFirst()
+
+        then:
+        response.contentType.get().name == expected
+        response.header(HttpHeaders.VARY) == HttpHeaders.ACCEPT
+
+        where:
+        accept                               | expected
+        'text/plain'                         | MediaType.TEXT_PLAIN
+        'text/html'                          | MediaType.TEXT_HTML
+        'text/html;q=0.5, text/plain'        | MediaType.TEXT_PLAIN
+        'text/plain;q=0.1, text/html;q=0.9'  | MediaType.TEXT_HTML
+        'text/*'                             | MediaType.TEXT_PLAIN
+        '*/*'                                | MediaType.TEXT_PLAIN
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyContentNegotiationSpec')
+    @Controller('/negotiate')
+    static class NegotiationController {
+
+        @Get
+        @Produces([MediaType.TEXT_PLAIN, MediaType.TEXT_HTML])
+        String index() {
+            return 'negotiated'
+        }
+    }
+}
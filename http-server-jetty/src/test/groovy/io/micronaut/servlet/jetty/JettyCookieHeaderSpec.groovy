@@ -0,0 +1,66 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.CookieValue
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.cookie.Cookie
+import io.micronaut.http.cookie.Cookies
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyCookieHeaderSpec')
+@Property(name = 'micronaut.servlet.parse-cookie-header', value = 'true')
+class JettyCookieHeaderSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test cookies are parsed from the cookie header'() {
+        given:
+        HttpRequest request = HttpRequest.GET('/cookie-header')
+                .cookie(Cookie.of("one", "foo"))
+                .cookie(Cookie.of("two", "bar"))
+
+        expect:
+        client.retrieve(request).blockingFirst() == 'foo bar 2'
+    }
+
+    void 'test cookies sent in separate cookie headers are all parsed'() {
+        given:
+        HttpRequest request = HttpRequest.GET('/cookie-header')
+                .header('Cookie', 'one=foo')
+                .header('Cookie', 'two=bar')
+
+        expect:
+        client.retrieve(request).blockingFirst() == 'foo bar 2'
+    }
+
+    void 'test no cookies present with cookie header parsing'() {
+        expect:
+        client.retrieve(HttpRequest.GET('/cookie-header/none')).blockingFirst() == 'true'
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyCookieHeaderSpec')
+    @Controller('/cookie-header')
+    static class CookieController {
+
+        @Get
+        String index(@CookieValue String one, @CookieValue String two, Cookies cookies) {
+            return "$one $two ${cookies.all.size()}"
+        }
+
+        @Get('/none')
+        String none(Cookies cookies) {
+            return String.valueOf(cookies.isEmpty())
+        }
+    }
+}
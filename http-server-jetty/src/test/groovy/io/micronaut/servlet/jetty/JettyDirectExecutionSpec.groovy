@@ -0,0 +1,109 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Nullable
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Single
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyDirectExecutionSpec')
+class JettyDirectExecutionSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test blocking routes returning objects are encoded'() {
+        expect:
+        client.retrieve(HttpRequest.GET('/direct/pojo'), Map).blockingFirst() == [name: 'Fred']
+        client.retrieve(HttpRequest.GET('/direct/text')).blockingFirst() == 'text'
+        client.retrieve(HttpRequest.POST('/direct/echo', [name: 'Bob']), Map).blockingFirst() == [name: 'Bob']
+    }
+
+    void 'test blocking routes returning responses keep their status'() {
+        when:
+        HttpResponse<String> response = client.exchange(HttpRequest.GET('/direct/created'), String).blockingFirst()
+
+        then:
+        response.status() == HttpStatus.CREATED
+        response.body() == 'created'
+    }
+
+    void 'test blocking routes returning null respond with not found'() {
+        when:
+        client.exchange(HttpRequest.GET('/direct/missing'), String).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.NOT_FOUND
+    }
+
+    void 'test routes declaring object that return reactive types are subscribed to'() {
+        expect:
+        client.retrieve(HttpRequest.GET('/direct/reactive')).blockingFirst() == 'reactive'
+    }
+
+    void 'test errors thrown by blocking routes are handled'() {
+        when:
+        client.exchange(HttpRequest.GET('/direct/error'), String).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.INTERNAL_SERVER_ERROR
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyDirectExecutionSpec')
+    @Controller('/direct')
+    static class DirectController {
+
+        @Get('/pojo')
+        Map<String, String> pojo() {
+            return [name: 'Fred']
+        }
+
+        @Get('/text')
+        String text() {
+            return 'text'
+        }
+
+        @Post('/echo')
+        Map<String, String> echo(@Body Map<String, String> body) {
+            return body
+        }
+
+        @Get('/created')
+        HttpResponse<String> created() {
+            return HttpResponse.created('created')
+        }
+
+        @Get('/missing')
+        @Nullable
+        String missing() {
+            return null
+        }
+
+        @Get('/reactive')
+        Object reactive() {
+            return Single.just('reactive')
+        }
+
+        @Get('/error')
+        String error() {
+            throw new IllegalStateException('failed')
+        }
+    }
+}
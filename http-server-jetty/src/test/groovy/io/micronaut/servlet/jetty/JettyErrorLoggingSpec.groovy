@@ -0,0 +1,127 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.servlet.http.ServletHttpHandler
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import org.slf4j.LoggerFactory
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyErrorLoggingSpec')
+@Property(name = 'micronaut.servlet.error-logging.max-per-second', value = '1')
+@Property(name = 'micronaut.servlet.error-logging.max-stack-frames', value = '5')
+class JettyErrorLoggingSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    // logback is only on the runtime classpath, so the list appender is used dynamically
+    def logger = LoggerFactory.getLogger(ServletHttpHandler)
+    def appender = Class.forName('ch.qos.logback.core.read.ListAppender').newInstance()
+
+    void setup() {
+        appender.start()
+        logger.addAppender(appender)
+    }
+
+    void cleanup() {
+        logger.detachAppender(appender)
+        appender.stop()
+    }
+
+    void 'test errors are still returned when error logging is limited'() {
+        when:
+        List<HttpClientResponseException> errors = (1..5).collect { request('/error-logging') }
+
+        then:
+        errors.every { it != null && it.status == HttpStatus.INTERNAL_SERVER_ERROR }
+        errors.every { it.response.getBody(String).orElse('').contains('failed') }
+    }
+
+    void 'test errors of the same type are suppressed and counted in the next logged entry'() {
+        when:
+        (1..5).each { request('/error-logging/suppressed') }
+
+        then: 'only the first error of the burst is logged'
+        new PollingConditions(timeout: 5).eventually {
+            assert entries(UnsupportedOperationException).size() == 1
+        }
+        entries(UnsupportedOperationException)[0].formattedMessage.endsWith(': suppressed')
+
+        when: 'the bucket has refilled'
+        Thread.sleep(1100)
+        request('/error-logging/suppressed')
+
+        then: 'the next entry reports the errors suppressed in between'
+        new PollingConditions(timeout: 5).eventually {
+            assert entries(UnsupportedOperationException).size() == 2
+        }
+        entries(UnsupportedOperationException)[1].formattedMessage.endsWith(': suppressed (4 similar errors were suppressed)')
+    }
+
+    void 'test stack traces are truncated but still logged as a throwable'() {
+        when:
+        request('/error-logging/nested')
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert entries(IllegalArgumentException).size() == 1
+        }
+
+        when:
+        def error = entries(IllegalArgumentException)[0].throwableProxy
+
+        then: 'the error and its cause keep their class names and messages'
+        error.message == 'java.lang.IllegalArgumentException: nested'
+        error.cause.message == 'java.lang.ArithmeticException: cause'
+
+        and: 'each stack trace has at most the configured number of frames'
+        error.stackTraceElementProxyArray.length == 5
+        error.cause.stackTraceElementProxyArray.length == 5
+    }
+
+    private HttpClientResponseException request(String uri) {
+        try {
+            client.exchange(HttpRequest.GET(uri), String).blockingFirst()
+            return null
+        } catch (HttpClientResponseException e) {
+            return e
+        }
+    }
+
+    private List entries(Class<? extends Throwable> type) {
+        appender.list.findAll { it.throwableProxy?.message?.startsWith(type.name + ':') }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyErrorLoggingSpec')
+    @Controller('/error-logging')
+    static class ErrorLoggingController {
+
+        @Get
+        String index() {
+            throw new IllegalStateException('failed')
+        }
+
+        @Get('/suppressed')
+        String suppressed() {
+            throw new UnsupportedOperationException('suppressed')
+        }
+
+        @Get('/nested')
+        String nested() {
+            throw new IllegalArgumentException('nested', new ArithmeticException('cause'))
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Prototype
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Error
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.server.exceptions.ExceptionHandler
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.inject.Inject
+import javax.inject.Singleton
+import java.util.concurrent.atomic.AtomicInteger
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyErrorRouteCacheSpec')
+class JettyErrorRouteCacheSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Unroll
+    void 'test repeated errors from #uri are handled consistently'() {
+        when:
+        List<HttpClientResponseException> errors = (1..3).collect {
+            try {
+                client.exchange(HttpRequest.GET(uri), String).blockingFirst()
+                return null
+            } catch (HttpClientResponseException e) {
+                return e
+            }
+        }
+
+        then:
+        errors.every { it != null && it.status == status }
+        errors.every { it.response.getBody(String).orElse('').contains(body) }
+
+        where:
+        uri                         | status                           | body
+        '/error-cache/local'        | HttpStatus.CONFLICT              | 'local'
+        '/error-cache/handled'      | HttpStatus.NOT_ACCEPTABLE        | 'handled'
+        '/error-cache/unhandled'    | HttpStatus.INTERNAL_SERVER_ERROR | 'unhandled'
+    }
+
+    void 'test a cached error route is invoked with the error of each request'() {
+        when:
+        List<String> bodies = (1..3).collect { client.retrieve("/error-cache/message/${it}").blockingFirst() }
+
+        then:
+        bodies == ['message 1', 'message 2', 'message 3']
+    }
+
+    void 'test a non-singleton exception handler is instantiated for every failing request'() {
+        given:
+        int created = PrototypeExceptionHandler.CREATED.get()
+
+        when:
+        List<HttpClientResponseException> errors = (1..3).collect {
+            try {
+                client.exchange(HttpRequest.GET('/error-cache/prototype'), String).blockingFirst()
+                return null
+            } catch (HttpClientResponseException e) {
+                return e
+            }
+        }
+
+        then:
+        errors.every { it != null && it.status == HttpStatus.PRECONDITION_FAILED }
+        PrototypeExceptionHandler.CREATED.get() - created == 3
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyErrorRouteCacheSpec')
+    @Controller('/error-cache')
+    static class ErrorCacheController {
+
+        @Get('/local')
+        String local() {
+            throw new LocalException()
+        }
+
+        @Get('/handled')
+        String handled() {
+            throw new HandledException()
+        }
+
+        @Get('/unhandled')
+        String unhandled() {
+            throw new IllegalStateException('unhandled')
+        }
+
+        @Get('/message/{id}')
+        String message(int id) {
+            throw new MessageException("message ${id}")
+        }
+
+        @Get('/prototype')
+        String prototype() {
+            throw new PrototypeHandledException()
+        }
+
+        @Error(LocalException)
+        HttpResponse<String> onLocal() {
+            return HttpResponse.status(HttpStatus.CONFLICT).body('local')
+        }
+
+        @Error(MessageException)
+        String onMessage(MessageException e) {
+            return e.message
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyErrorRouteCacheSpec')
+    @Singleton
+    static class HandledExceptionHandler implements ExceptionHandler<HandledException, HttpResponse<String>> {
+
+        @Override
+        HttpResponse<String> handle(HttpRequest request, HandledException exception) {
+            return HttpResponse.status(HttpStatus.NOT_ACCEPTABLE).body('handled')
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyErrorRouteCacheSpec')
+    @Prototype
+    static class PrototypeExceptionHandler implements ExceptionHandler<PrototypeHandledException, HttpResponse<String>> {
+
+        static final AtomicInteger CREATED = new AtomicInteger()
+
+        PrototypeExceptionHandler() {
+            CREATED.incrementAndGet()
+        }
+
+        @Override
+        HttpResponse<String> handle(HttpRequest request, PrototypeHandledException exception) {
+            return HttpResponse.status(HttpStatus.PRECONDITION_FAILED).body('prototype')
+        }
+    }
+
+    static class LocalException extends RuntimeException {
+    }
+
+    static class MessageException extends RuntimeException {
+        MessageException(String message) {
+            super(message)
+        }
+    }
+
+    static class PrototypeHandledException extends RuntimeException {
+    }
+
+    static class HandledException extends RuntimeException {
+    }
+}
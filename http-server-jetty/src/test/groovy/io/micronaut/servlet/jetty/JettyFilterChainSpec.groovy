@@ -0,0 +1,200 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Error
+import io.micronaut.http.annotation.Filter
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.OncePerRequestHttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyFilterChainSpec')
+class JettyFilterChainSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Unroll
+    void 'test repeated requests to #uri apply filters #expected'() {
+        when:
+        List<HttpResponse<String>> responses = (1..3).collect {
+            client.exchange(HttpRequest.GET(uri), String).blockingFirst()
+        }
+
+        then:
+        responses.every { it.body() == 'ok' }
+        responses.every { it.headers.get('X-Filters') == expected }
+
+        where:
+        uri                       | expected
+        '/filter-chain/first'     | 'all,first'
+        '/filter-chain/second'    | 'all'
+    }
+
+    void 'test filters of a route with a path variable apply to every path of the route'() {
+        when:
+        List<HttpResponse<String>> responses = (1..5).collect {
+            client.exchange(HttpRequest.GET("/filter-chain/users/${it}"), String).blockingFirst()
+        }
+
+        then:
+        responses*.body() == ['1', '2', '3', '4', '5']
+        responses.every { it.headers.get('X-Filters') == 'all' }
+        responses.every { it.headers.get('X-Once') == 'once' }
+    }
+
+    void 'test a filter matching one path of a route with a path variable only applies to that path'() {
+        when:
+        List<HttpResponse<String>> responses = ['1', 'special', '2', 'special'].collect {
+            client.exchange(HttpRequest.GET("/filter-chain/items/${it}"), String).blockingFirst()
+        }
+
+        then:
+        responses*.body() == ['1', 'special', '2', 'special']
+        responses*.header('X-Filters') == ['all', 'all,special', 'all', 'all,special']
+    }
+
+    void 'test error routes of a route with a path variable skip once per request filters'() {
+        when:
+        List<HttpClientResponseException> errors = (1..3).collect {
+            try {
+                client.exchange(HttpRequest.GET("/filter-chain/fail/${it}"), String).blockingFirst()
+                return null
+            } catch (HttpClientResponseException e) {
+                return e
+            }
+        }
+
+        then:
+        errors.every { it != null && it.status == HttpStatus.CONFLICT }
+        errors.every { it.response.getBody(String).orElse(null) == 'failed' }
+        errors.every { it.response.header('X-Filters') == 'all' }
+        errors.every { it.response.header('X-Once') == null }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyFilterChainSpec')
+    @Controller('/filter-chain')
+    static class FilterChainController {
+
+        @Get('/first')
+        String first() {
+            return 'ok'
+        }
+
+        @Get('/second')
+        String second() {
+            return 'ok'
+        }
+
+        @Get('/users/{id}')
+        String user(String id) {
+            return id
+        }
+
+        @Get('/items/{id}')
+        String item(String id) {
+            return id
+        }
+
+        @Get('/fail/{id}')
+        String fail(String id) {
+            throw new IllegalStateException(id)
+        }
+
+        @Error(IllegalStateException)
+        HttpResponse<String> onFail() {
+            return HttpResponse.status(HttpStatus.CONFLICT).body('failed')
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyFilterChainSpec')
+    @Filter('/filter-chain/**')
+    static class AllFilter implements HttpServerFilter {
+
+        @Override
+        int getOrder() {
+            return 0
+        }
+
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            return Flowable.fromPublisher(chain.proceed(request)).map({ MutableHttpResponse<?> response ->
+                String existing = response.headers.get('X-Filters')
+                response.headers.set('X-Filters', existing == null ? 'all' : 'all,' + existing)
+                return response
+            })
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyFilterChainSpec')
+    @Filter('/filter-chain/first')
+    static class FirstFilter implements HttpServerFilter {
+
+        @Override
+        int getOrder() {
+            return 1
+        }
+
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            return Flowable.fromPublisher(chain.proceed(request)).map({ MutableHttpResponse<?> response ->
+                response.headers.set('X-Filters', 'first')
+                return response
+            })
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyFilterChainSpec')
+    @Filter('/filter-chain/items/special')
+    static class SpecialFilter implements HttpServerFilter {
+
+        @Override
+        int getOrder() {
+            return 1
+        }
+
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            return Flowable.fromPublisher(chain.proceed(request)).map({ MutableHttpResponse<?> response ->
+                response.headers.set('X-Filters', 'special')
+                return response
+            })
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyFilterChainSpec')
+    @Filter('/filter-chain/**')
+    static class OnceFilter extends OncePerRequestHttpServerFilter {
+
+        @Override
+        int getOrder() {
+            return 2
+        }
+
+        @Override
+        protected Publisher<MutableHttpResponse<?>> doFilterOnce(HttpRequest<?> request, ServerFilterChain chain) {
+            return Flowable.fromPublisher(chain.proceed(request)).map({ MutableHttpResponse<?> response ->
+                response.headers.set('X-Once', 'once')
+                return response
+            })
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.context.event.BeanCreatedEvent
+import io.micronaut.context.event.BeanCreatedEventListener
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Filter
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import org.eclipse.jetty.server.Server
+import org.eclipse.jetty.servlet.FilterHolder
+import org.eclipse.jetty.servlet.ServletContextHandler
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+
+import javax.inject.Inject
+import javax.inject.Singleton
+import javax.servlet.DispatcherType
+import javax.servlet.Filter
+import javax.servlet.FilterChain
+import javax.servlet.FilterConfig
+import javax.servlet.ServletException
+import javax.servlet.ServletRequest
+import javax.servlet.ServletResponse
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyFormBodySpec')
+@Property(name = 'micronaut.servlet.max-form-fields', value = '100')
+@Property(name = 'micronaut.servlet.max-form-field-size', value = '1048576')
+class JettyFormBodySpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test form fields are bound to the route arguments'() {
+        given:
+        String form = 'name=Fred+Flintstone&age=42&tags=a%26b&tags=c&' + (1..50).collect { "unused$it=${'x' * 1000}" }.join('&')
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/form-body/fields?source=query', form)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)).blockingFirst()
+
+        then:
+        result == 'Fred Flintstone:42:a&b,c:query'
+    }
+
+    void 'test all form fields are decoded for routes binding the whole body'() {
+        when:
+        Map result = client.retrieve(HttpRequest.POST('/form-body/all', 'first=1&second=%C3%A9')
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED), Map).blockingFirst()
+
+        then:
+        result == [first: '1', second: 'é']
+    }
+
+    void 'test filters can read form fields the route does not bind'() {
+        when:
+        String result = client.retrieve(HttpRequest.POST('/form-body/guarded', 'name=Fred&csrf=secret')
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)).blockingFirst()
+
+        then:
+        result == 'Fred'
+
+        when:
+        client.retrieve(HttpRequest.POST('/form-body/guarded', 'name=Fred&csrf=wrong')
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.FORBIDDEN
+    }
+
+    void 'test forms with too many fields are rejected'() {
+        when:
+        client.retrieve(HttpRequest.POST('/form-body/fields', (1..101).collect { "field$it=v" }.join('&'))
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+    }
+
+    void 'test the fields of the query string count towards the limit'() {
+        given:
+        String query = (1..60).collect { "query$it=v" }.join('&')
+        String form = (1..50).collect { "field$it=v" }.join('&')
+
+        when:
+        client.retrieve(HttpRequest.POST("/form-body/fields?${query}", "name=Fred&age=1&tags=a&${form}")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+    }
+
+    void 'test the parameters of the container are used once a servlet filter has read the form'() {
+        when:
+        String result = client.retrieve(HttpRequest.POST('/form-body/container/fields', 'name=Fred&age=42&tags=a&tags=b')
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)).blockingFirst()
+
+        then:
+        result == 'Fred:42:a,b:Fred'
+    }
+
+    void 'test forms with too large fields are rejected'() {
+        when:
+        client.retrieve(HttpRequest.POST('/form-body/fields', 'name=' + ('x' * 1048577))
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+    }
+
+    void 'test malformed forms are rejected'() {
+        when:
+        client.retrieve(HttpRequest.POST('/form-body/fields', 'name=%zz&age=1')
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.BAD_REQUEST
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyFormBodySpec')
+    @Controller('/form-body')
+    static class FormBodyController {
+
+        @Post(value = '/fields', consumes = MediaType.APPLICATION_FORM_URLENCODED, produces = MediaType.TEXT_PLAIN)
+        String fields(String name, int age, List<String> tags, Optional<String> source) {
+            return "$name:$age:${tags.join(',')}:${source.orElse('none')}"
+        }
+
+        @Post(value = '/container/fields', consumes = MediaType.APPLICATION_FORM_URLENCODED, produces = MediaType.TEXT_PLAIN)
+        String containerFields(String name, int age, List<String> tags, HttpRequest<?> request) {
+            return "$name:$age:${tags.join(',')}:${request.getAttribute('servlet.filter.name').orElse('none')}"
+        }
+
+        @Post(value = '/all', consumes = MediaType.APPLICATION_FORM_URLENCODED)
+        Map<String, String> all(@Body Map<String, String> form) {
+            return form
+        }
+
+        @Post(value = '/guarded', consumes = MediaType.APPLICATION_FORM_URLENCODED, produces = MediaType.TEXT_PLAIN)
+        String guarded(String name) {
+            return name
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyFormBodySpec')
+    @Filter('/form-body/guarded')
+    static class CsrfFilter implements HttpServerFilter {
+
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            if (request.parameters.get('csrf') == 'secret') {
+                return chain.proceed(request)
+            }
+            return Flowable.just(HttpResponse.status(HttpStatus.FORBIDDEN))
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyFormBodySpec')
+    @Singleton
+    static class ParameterReadingFilterRegistrar implements BeanCreatedEventListener<Server> {
+
+        @Override
+        Server onCreated(BeanCreatedEvent<Server> event) {
+            Server server = event.bean
+            server.getChildHandlerByClass(ServletContextHandler).addFilter(
+                    new FilterHolder(new ParameterReadingFilter()),
+                    '/form-body/container/*',
+                    EnumSet.of(DispatcherType.REQUEST)
+            )
+            return server
+        }
+    }
+
+    static class ParameterReadingFilter implements Filter {
+
+        @Override
+        void init(FilterConfig filterConfig) throws ServletException {
+        }
+
+        @Override
+        void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+            request.setAttribute('servlet.filter.name', request.getParameter('name'))
+            chain.doFilter(request, response)
+        }
+
+        @Override
+        void destroy() {
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.servlet.http.annotation.MaxRequestSize
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import io.reactivex.Single
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyMaxRequestSizeSpec')
+@Property(name = 'micronaut.server.max-request-size', value = '1024')
+class JettyMaxRequestSizeSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Inject
+    EmbeddedServer embeddedServer
+
+    @Unroll
+    void 'test bodies declaring a length above the limit are rejected by #uri'() {
+        when:
+        client.retrieve(HttpRequest.POST(uri, 'x' * 4096).contentType(MediaType.TEXT_PLAIN)).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+
+        where:
+        uri << ['/max-request-size/text', '/max-request-size/stream']
+    }
+
+    void 'test bodies within the limit are read'() {
+        expect:
+        client.retrieve(HttpRequest.POST('/max-request-size/text', 'x' * 512).contentType(MediaType.TEXT_PLAIN)).blockingFirst() == '512'
+    }
+
+    void 'test a route can raise the limit'() {
+        expect:
+        client.retrieve(HttpRequest.POST('/max-request-size/large', 'x' * 4096).contentType(MediaType.TEXT_PLAIN)).blockingFirst() == '4096'
+    }
+
+    @Unroll
+    void 'test chunked bodies above the limit are rejected by #uri'() {
+        when:
+        HttpURLConnection connection = (HttpURLConnection) new URL(embeddedServer.URL, uri).openConnection()
+        connection.requestMethod = 'POST'
+        connection.doOutput = true
+        connection.setChunkedStreamingMode(256)
+        connection.setRequestProperty('Content-Type', MediaType.TEXT_PLAIN)
+        try {
+            connection.outputStream.withCloseable { it.write(('x' * 4096).bytes) }
+        } catch (IOException ignored) {
+            // the server may stop reading once the limit is reached
+        }
+
+        then:
+        connection.responseCode == HttpStatus.REQUEST_ENTITY_TOO_LARGE.code
+
+        where:
+        uri << ['/max-request-size/text', '/max-request-size/stream']
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyMaxRequestSizeSpec')
+    @Controller('/max-request-size')
+    static class MaxRequestSizeController {
+
+        @Post(value = '/text', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        String text(@Body String body) {
+            return String.valueOf(body.length())
+        }
+
+        @Post(value = '/large', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        @MaxRequestSize(8192L)
+        String large(@Body String body) {
+            return String.valueOf(body.length())
+        }
+
+        @Post(value = '/stream', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        Single<String> stream(@Body Flowable<byte[]> body) {
+            return body.reduce(0, { Integer count, byte[] bytes -> count + bytes.length })
+                    .map({ Integer count -> String.valueOf(count) })
+        }
+    }
+}
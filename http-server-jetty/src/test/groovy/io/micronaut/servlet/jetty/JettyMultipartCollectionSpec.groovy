@@ -0,0 +1,95 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Part
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.multipart.MultipartBody
+import io.micronaut.http.multipart.CompletedFileUpload
+import io.micronaut.http.multipart.CompletedPart
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyMultipartCollectionSpec')
+@Property(name = 'micronaut.server.multipart.enabled', value = 'true')
+class JettyMultipartCollectionSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test all the parts of a large form are bound to a list'() {
+        given:
+        MultipartBody.Builder builder = MultipartBody.builder()
+        (1..250).each { builder.addPart("field$it", "value$it") }
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/multipart-collection/list', builder.build())
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        result == '250:field1=value1:field250=value250'
+    }
+
+    void 'test file uploads are bound to a map by name'() {
+        given:
+        MultipartBody body = MultipartBody.builder()
+                .addPart('title', 'files')
+                .addPart('one', 'one.txt', MediaType.TEXT_PLAIN_TYPE, 'first'.bytes)
+                .addPart('two', 'two.txt', MediaType.TEXT_PLAIN_TYPE, 'second'.bytes)
+                .build()
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/multipart-collection/map', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        result == 'one=one.txt,two=two.txt'
+    }
+
+    void 'test repeated parts are bound to a list by name'() {
+        given:
+        MultipartBody body = MultipartBody.builder()
+                .addPart('files', 'a.txt', MediaType.TEXT_PLAIN_TYPE, 'a'.bytes)
+                .addPart('other', 'other')
+                .addPart('files', 'b.txt', MediaType.TEXT_PLAIN_TYPE, 'b'.bytes)
+                .build()
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/multipart-collection/named', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        result == 'a.txt,b.txt'
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyMultipartCollectionSpec')
+    @Controller('/multipart-collection')
+    static class MultipartCollectionController {
+
+        @Post(value = '/list', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        String list(@Part List<CompletedPart> parts) {
+            CompletedPart first = parts.first()
+            CompletedPart last = parts.last()
+            return "${parts.size()}:${first.name}=${new String(first.bytes)}:${last.name}=${new String(last.bytes)}"
+        }
+
+        @Post(value = '/map', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        String map(@Part Map<String, CompletedFileUpload> files) {
+            return files.collect { name, file -> "$name=${file.filename}" }.join(',')
+        }
+
+        @Post(value = '/named', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        String named(@Part('files') List<CompletedFileUpload> files) {
+            return files*.filename.join(',')
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Part
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.client.multipart.MultipartBody
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import io.reactivex.Single
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyMultipartJsonSpec')
+@Property(name = 'micronaut.server.multipart.enabled', value = 'true')
+@Property(name = 'micronaut.servlet.max-in-memory-part-size', value = '4096')
+class JettyMultipartJsonSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test the elements of a JSON array part are decoded incrementally'() {
+        given:
+        String manifest = '[' + (1..2000).collect { "{\"id\":$it,\"name\":\"entry$it\"}" }.join(',') + ']'
+        MultipartBody body = MultipartBody.builder()
+                .addPart('manifest', 'manifest.json', MediaType.APPLICATION_JSON_TYPE, manifest.bytes)
+                .build()
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/multipart-json/manifest', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        result == '2000:2001000'
+    }
+
+    void 'test parts larger than the in-memory limit cannot be bound as bytes'() {
+        given:
+        MultipartBody body = MultipartBody.builder()
+                .addPart('data', 'data.bin', MediaType.APPLICATION_OCTET_STREAM_TYPE, new byte[8192])
+                .build()
+
+        when:
+        client.retrieve(HttpRequest.POST('/multipart-json/bytes', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+    }
+
+    void 'test parts within the in-memory limit are bound as bytes'() {
+        given:
+        MultipartBody body = MultipartBody.builder()
+                .addPart('data', 'data.bin', MediaType.APPLICATION_OCTET_STREAM_TYPE, new byte[1024])
+                .build()
+
+        expect:
+        client.retrieve(HttpRequest.POST('/multipart-json/bytes', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst() == '1024'
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyMultipartJsonSpec')
+    @Controller('/multipart-json')
+    static class MultipartJsonController {
+
+        @Post(value = '/manifest', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        Single<String> manifest(@Part('manifest') Flowable<Map<String, Object>> entries) {
+            return entries.toList().map({ List<Map<String, Object>> list ->
+                "${list.size()}:${list.sum { it.id as long }}".toString()
+            })
+        }
+
+        @Post(value = '/bytes', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        String bytes(@Part('data') byte[] data) {
+            return String.valueOf(data.length)
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.client.multipart.MultipartBody
+import io.micronaut.http.multipart.CompletedFileUpload
+import io.micronaut.servlet.http.annotation.MultipartLimits
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyMultipartLimitsSpec')
+@Property(name = 'micronaut.server.multipart.enabled', value = 'true')
+@Property(name = 'micronaut.server.multipart.max-file-size', value = '1024')
+class JettyMultipartLimitsSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test the global limit applies to routes without limits'() {
+        when:
+        upload('/multipart-limits/global', 4096)
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+    }
+
+    void 'test a route can raise the limit and spill parts to disk'() {
+        expect:
+        upload('/multipart-limits/large', 65536) == '65536'
+    }
+
+    void 'test a route can lower the limit'() {
+        when:
+        upload('/multipart-limits/small', 512)
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+    }
+
+    private String upload(String uri, int size) {
+        MultipartBody body = MultipartBody.builder()
+                .addPart('file', 'data.bin', MediaType.APPLICATION_OCTET_STREAM_TYPE, new byte[size])
+                .build()
+        return client.retrieve(HttpRequest.POST(uri, body).contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyMultipartLimitsSpec')
+    @Controller('/multipart-limits')
+    static class MultipartLimitsController {
+
+        @Post(value = '/global', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        String global(CompletedFileUpload file) {
+            return String.valueOf(file.bytes.length)
+        }
+
+        @Post(value = '/large', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        @MultipartLimits(maxFileSize = 1048576L, threshold = 4096L)
+        String large(CompletedFileUpload file) {
+            return String.valueOf(file.bytes.length)
+        }
+
+        @Post(value = '/small', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        @MultipartLimits(maxFileSize = 256L)
+        String small(CompletedFileUpload file) {
+            return String.valueOf(file.bytes.length)
+        }
+    }
+}
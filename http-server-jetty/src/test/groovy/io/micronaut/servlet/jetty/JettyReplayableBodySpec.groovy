@@ -0,0 +1,204 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Filter
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.servlet.engine.buffer.ReplayableBody
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import io.reactivex.Single
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+import spock.lang.Unroll
+import spock.util.concurrent.PollingConditions
+
+import javax.crypto.Mac
+import javax.crypto.spec.SecretKeySpec
+import javax.inject.Inject
+import java.nio.ByteBuffer
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyReplayableBodySpec')
+@Property(name = 'micronaut.servlet.body-buffer.enabled', value = 'true')
+@Property(name = 'micronaut.servlet.body-buffer.threshold', value = '1024')
+@Property(name = 'micronaut.servlet.body-buffer.chunk-size', value = '256')
+@Property(name = 'micronaut.servlet.body-buffer.max-size', value = '65536')
+class JettyReplayableBodySpec extends Specification {
+
+    private static final String SECRET = 'webhook-secret'
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Unroll
+    void 'test a signed body of #size bytes is verified by a filter and bound by the route'() {
+        given:
+        String json = '{"event":"push","payload":"' + ('x' * size) + '"}'
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/replayable/json', json)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header('X-Signature', sign(json.bytes))).blockingFirst()
+
+        then:
+        result == "push:$size"
+
+        where:
+        size << [10, 500, 5000]
+    }
+
+    void 'test a buffered body can be streamed by the route'() {
+        given:
+        String text = 'chunk' * 2000
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/replayable/stream', text)
+                .contentType(MediaType.TEXT_PLAIN)
+                .header('X-Signature', sign(text.bytes))).blockingFirst()
+
+        then:
+        result == String.valueOf(text.length())
+    }
+
+    void 'test bodies with an invalid signature are rejected'() {
+        when:
+        client.retrieve(HttpRequest.POST('/replayable/json', '{"event":"push","payload":""}')
+                .contentType(MediaType.APPLICATION_JSON)
+                .header('X-Signature', 'invalid')).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.UNAUTHORIZED
+    }
+
+    void 'test bodies larger than the buffer are rejected'() {
+        given:
+        String text = 'x' * 70000
+
+        when:
+        client.retrieve(HttpRequest.POST('/replayable/stream', text)
+                .contentType(MediaType.TEXT_PLAIN)
+                .header('X-Signature', sign(text.bytes))).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+    }
+
+    void 'test buffers stay valid and streams fail once the body has been released'() {
+        given:
+        String first = 'first body'
+        String second = 'other body'
+
+        when:
+        client.retrieve(HttpRequest.POST('/replayable/retained', first)
+                .contentType(MediaType.TEXT_PLAIN)
+                .header('X-Signature', sign(first.bytes))).blockingFirst()
+        client.retrieve(HttpRequest.POST('/replayable/stream', second)
+                .contentType(MediaType.TEXT_PLAIN)
+                .header('X-Signature', sign(second.bytes))).blockingFirst()
+        ByteBuffer buffer = SignatureFilter.retainedBuffer.duplicate()
+        byte[] bytes = new byte[buffer.remaining()]
+        buffer.get(bytes)
+
+        then: 'the pooled chunk was not reused by the second request'
+        new String(bytes) == first
+        new PollingConditions(timeout: 5).eventually {
+            assert failsToRead(SignatureFilter.retainedStream)
+        }
+    }
+
+    void 'test the chunks of a body are exposed without copying'() {
+        given:
+        String text = 'c' * 600
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/replayable/chunks', text)
+                .contentType(MediaType.TEXT_PLAIN)
+                .header('X-Signature', sign(text.bytes))).blockingFirst()
+
+        then:
+        result == '256,256,88'
+    }
+
+    private static boolean failsToRead(InputStream stream) {
+        try {
+            stream.read()
+            return false
+        } catch (IOException ignored) {
+            return true
+        }
+    }
+
+    private static String sign(byte[] bytes) {
+        return sign(ByteBuffer.wrap(bytes))
+    }
+
+    private static String sign(ByteBuffer buffer) {
+        Mac mac = Mac.getInstance('HmacSHA256')
+        mac.init(new SecretKeySpec(SECRET.bytes, 'HmacSHA256'))
+        mac.update(buffer)
+        return mac.doFinal().encodeHex().toString()
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyReplayableBodySpec')
+    @Controller('/replayable')
+    static class ReplayableController {
+
+        @Post(value = '/json', produces = MediaType.TEXT_PLAIN)
+        String json(@Body Map<String, String> body) {
+            return "$body.event:${body.payload.length()}"
+        }
+
+        @Post(value = '/retained', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        String retained(@Body String body) {
+            return body
+        }
+
+        @Post(value = '/chunks', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        String chunks(HttpRequest<?> request) {
+            return ReplayableBody.of(request).get().chunks.collect { it.remaining() }.join(',')
+        }
+
+        @Post(value = '/stream', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        Single<String> stream(@Body Flowable<byte[]> body) {
+            return body.reduce(0, { Integer count, byte[] bytes -> count + bytes.length })
+                    .map({ Integer count -> String.valueOf(count) })
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyReplayableBodySpec')
+    @Filter('/replayable/**')
+    static class SignatureFilter implements HttpServerFilter {
+
+        static volatile ByteBuffer retainedBuffer
+        static volatile InputStream retainedStream
+
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            ReplayableBody body = ReplayableBody.of(request).orElseThrow({ new IllegalStateException('not buffered') })
+            if (request.path.endsWith('/retained')) {
+                retainedBuffer = body.byteBuffer
+                retainedStream = body.inputStream
+            }
+            if (sign(body.byteBuffer) != request.headers.get('X-Signature')) {
+                return Flowable.just(HttpResponse.unauthorized())
+            }
+            return chain.proceed(request)
+        }
+    }
+}
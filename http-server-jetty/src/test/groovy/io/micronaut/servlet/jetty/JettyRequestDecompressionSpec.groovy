@@ -0,0 +1,112 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import io.reactivex.Single
+import spock.lang.Specification
+
+import javax.inject.Inject
+import java.util.zip.DeflaterOutputStream
+import java.util.zip.GZIPOutputStream
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyRequestDecompressionSpec')
+@Property(name = 'micronaut.servlet.decompress-requests', value = 'true')
+@Property(name = 'micronaut.servlet.max-decompressed-size', value = '1048576')
+class JettyRequestDecompressionSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test gzip request bodies are decompressed'() {
+        given:
+        String text = 'telemetry ' * 1000
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/decompression/text', gzip(text.bytes))
+                .contentType(MediaType.TEXT_PLAIN)
+                .header('Content-Encoding', 'gzip')).blockingFirst()
+
+        then:
+        result == text
+    }
+
+    void 'test deflate request bodies are decompressed'() {
+        when:
+        Map result = client.retrieve(HttpRequest.POST('/decompression/json', deflate('{"name":"Fred"}'.bytes))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header('Content-Encoding', 'deflate'), Map).blockingFirst()
+
+        then:
+        result.name == 'Fred'
+    }
+
+    void 'test streamed request bodies are decompressed'() {
+        given:
+        String text = 'batch ' * 5000
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/decompression/stream', gzip(text.bytes))
+                .contentType(MediaType.TEXT_PLAIN)
+                .header('Content-Encoding', 'gzip')).blockingFirst()
+
+        then:
+        result == String.valueOf(text.length())
+    }
+
+    void 'test request bodies exceeding the decompressed size limit are rejected'() {
+        when:
+        client.retrieve(HttpRequest.POST('/decompression/text', gzip(new byte[2 * 1048576]))
+                .contentType(MediaType.TEXT_PLAIN)
+                .header('Content-Encoding', 'gzip')).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        new GZIPOutputStream(out).withCloseable { it.write(bytes) }
+        return out.toByteArray()
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream()
+        new DeflaterOutputStream(out).withCloseable { it.write(bytes) }
+        return out.toByteArray()
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyRequestDecompressionSpec')
+    @Controller('/decompression')
+    static class DecompressionController {
+
+        @Post(value = '/text', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        String text(@Body String body) {
+            return body
+        }
+
+        @Post('/json')
+        Map<String, Object> json(@Body Map<String, Object> body) {
+            return body
+        }
+
+        @Post(value = '/stream', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        Single<String> stream(@Body Flowable<byte[]> body) {
+            return body.reduce(0, { Integer count, byte[] bytes -> count + bytes.length })
+                    .map({ Integer count -> String.valueOf(count) })
+        }
+    }
+}
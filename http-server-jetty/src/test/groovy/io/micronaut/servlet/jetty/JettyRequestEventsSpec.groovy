@@ -0,0 +1,109 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Prototype
+import io.micronaut.context.annotation.Requires
+import io.micronaut.context.event.ApplicationEventListener
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.context.event.HttpRequestReceivedEvent
+import io.micronaut.http.context.event.HttpRequestTerminatedEvent
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import javax.inject.Inject
+import javax.inject.Singleton
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicInteger
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyRequestEventsSpec')
+class JettyRequestEventsSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Inject
+    ReceivedListener receivedListener
+
+    @Inject
+    TerminatedListener terminatedListener
+
+    void 'test listeners that are not singletons are looked up for every event'() {
+        given:
+        int created = PrototypeListener.CREATED.get()
+
+        when:
+        client.retrieve(HttpRequest.GET('/request-events')).blockingFirst()
+        client.retrieve(HttpRequest.GET('/request-events')).blockingFirst()
+
+        then:
+        PrototypeListener.CREATED.get() >= created + 2
+    }
+
+    void 'test request events are published to listeners'() {
+        when:
+        String result = client.retrieve(HttpRequest.GET('/request-events')).blockingFirst()
+
+        then:
+        result == 'ok'
+        new PollingConditions(timeout: 5).eventually {
+            receivedListener.paths.contains('/request-events')
+            terminatedListener.paths.contains('/request-events')
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyRequestEventsSpec')
+    @Controller('/request-events')
+    static class RequestEventsController {
+
+        @Get
+        String index() {
+            return 'ok'
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyRequestEventsSpec')
+    @Singleton
+    static class ReceivedListener implements ApplicationEventListener<HttpRequestReceivedEvent> {
+
+        final List<String> paths = new CopyOnWriteArrayList<>()
+
+        @Override
+        void onApplicationEvent(HttpRequestReceivedEvent event) {
+            paths.add(event.source.path)
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyRequestEventsSpec')
+    @Prototype
+    static class PrototypeListener implements ApplicationEventListener<HttpRequestReceivedEvent> {
+
+        static final AtomicInteger CREATED = new AtomicInteger()
+
+        PrototypeListener() {
+            CREATED.incrementAndGet()
+        }
+
+        @Override
+        void onApplicationEvent(HttpRequestReceivedEvent event) {
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyRequestEventsSpec')
+    @Singleton
+    static class TerminatedListener implements ApplicationEventListener<HttpRequestTerminatedEvent> {
+
+        final List<String> paths = new CopyOnWriteArrayList<>()
+
+        @Override
+        void onApplicationEvent(HttpRequestTerminatedEvent event) {
+            paths.add(event.source.path)
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Nullable
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.servlet.http.RequestDeadline
+import io.micronaut.servlet.http.annotation.RequestTimeout
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import spock.lang.Specification
+
+import javax.inject.Inject
+import java.util.concurrent.TimeUnit
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyRequestTimeoutSpec')
+@Property(name = 'micronaut.servlet.request-timeout', value = '2s')
+class JettyRequestTimeoutSpec extends Specification {
+
+    static final String LATE = 'late ' * 2000
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test routes exceeding their timeout respond with service unavailable'() {
+        when:
+        client.exchange(HttpRequest.GET('/request-timeout/hung'), String).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.SERVICE_UNAVAILABLE
+    }
+
+    void 'test routes finishing right after their deadline respond once'() {
+        when:
+        List<HttpResponse<String>> responses = (1..20).collect {
+            try {
+                return client.exchange(HttpRequest.GET('/request-timeout/late'), String).blockingFirst()
+            } catch (HttpClientResponseException e) {
+                return (HttpResponse<String>) e.response
+            }
+        }
+
+        then:
+        responses.every {
+            (it.status == HttpStatus.OK && it.getBody(String).orElse(null) == LATE) ||
+                    (it.status == HttpStatus.SERVICE_UNAVAILABLE && it.getBody(String).orElse('').contains('timeout'))
+        }
+    }
+
+    void 'test routes completing within their timeout respond normally'() {
+        expect:
+        client.retrieve(HttpRequest.GET('/request-timeout/fast')).blockingFirst() == 'fast'
+    }
+
+    void 'test the remaining deadline is exposed to routes'() {
+        when:
+        long remaining = client.retrieve(HttpRequest.GET('/request-timeout/remaining'), Long).blockingFirst()
+
+        then:
+        remaining > 0
+        remaining <= 2000
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyRequestTimeoutSpec')
+    @Controller('/request-timeout')
+    static class RequestTimeoutController {
+
+        @Get('/hung')
+        @RequestTimeout('200ms')
+        Single<String> hung() {
+            return Single.never()
+        }
+
+        @Get('/late')
+        @RequestTimeout('100ms')
+        Single<String> late() {
+            // the blocking work is not interrupted when the deadline passes and completes just after it
+            return Single.fromCallable({
+                sleep(100)
+                return LATE
+            }).subscribeOn(Schedulers.io())
+        }
+
+        @Get('/fast')
+        Single<String> fast() {
+            return Single.just('fast').delay(10, TimeUnit.MILLISECONDS)
+        }
+
+        @Get('/remaining')
+        Long remaining(@Nullable RequestDeadline deadline) {
+            return deadline.remaining.toMillis()
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Filter
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Header
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyResponseHeadersSpec')
+class JettyResponseHeadersSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test static headers declared on the route are applied'() {
+        when:
+        HttpResponse<String> response = client.exchange(HttpRequest.GET('/response-headers'), String).blockingFirst()
+
+        then:
+        response.body() == 'ok'
+        response.header('X-One') == 'one'
+        response.header('X-Two') == 'two'
+    }
+
+    void 'test response headers can be removed by a filter'() {
+        when:
+        HttpResponse<String> response = client.exchange(HttpRequest.GET('/response-headers/removed'), String).blockingFirst()
+
+        then:
+        response.body() == 'ok'
+        !response.headers.contains('X-Remove-Me')
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyResponseHeadersSpec')
+    @Controller('/response-headers')
+    static class HeadersController {
+
+        @Get
+        @Header(name = 'X-One', value = 'one')
+        @Header(name = 'X-Two', value = 'two')
+        String index() {
+            return 'ok'
+        }
+
+        @Get('/removed')
+        HttpResponse<String> removed() {
+            return HttpResponse.ok('ok').header('X-Remove-Me', 'value')
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyResponseHeadersSpec')
+    @Filter('/response-headers/removed')
+    static class RemoveHeaderFilter implements HttpServerFilter {
+
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            return Flowable.fromPublisher(chain.proceed(request)).map({ MutableHttpResponse<?> response ->
+                response.headers.remove('X-Remove-Me')
+                return response
+            })
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.servlet.engine.DefaultServletHttpHandler
+import io.micronaut.servlet.http.ServletHttpHandler
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.inject.Inject
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyRouteMissSpec')
+class JettyRouteMissSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    @Inject
+    DefaultServletHttpHandler handler
+
+    @Inject
+    EmbeddedServer embeddedServer
+
+    @Unroll
+    void 'test repeated unmatched requests to #uri with #method result in #status'() {
+        when:
+        List<HttpClientResponseException> errors = (1..3).collect {
+            try {
+                client.exchange(request.call(), String).blockingFirst()
+                return null
+            } catch (HttpClientResponseException e) {
+                return e
+            }
+        }
+
+        then:
+        errors.every { it != null && it.status == status }
+        errors.every { allow == null || it.response.headers.getAll('Allow').join(',').contains(allow) }
+
+        where:
+        method | uri                    | status                               | allow  | request
+        'GET'  | '/route-miss/missing'  | HttpStatus.NOT_FOUND                 | null   | { HttpRequest.GET('/route-miss/missing') }
+        'POST' | '/route-miss'          | HttpStatus.METHOD_NOT_ALLOWED        | 'GET'  | { HttpRequest.POST('/route-miss', 'body') }
+        'POST' | '/route-miss/json'     | HttpStatus.UNSUPPORTED_MEDIA_TYPE    | null   | { HttpRequest.POST('/route-miss/json', 'body').contentType(MediaType.TEXT_PLAIN) }
+    }
+
+    void 'test unmatched requests with different query strings result in the same status'() {
+        when:
+        List<HttpStatus> statuses = (1..5).collect {
+            try {
+                client.exchange(HttpRequest.POST("/route-miss?q=$it", 'body'), String).blockingFirst()
+                return HttpStatus.OK
+            } catch (HttpClientResponseException e) {
+                return e.status
+            }
+        }
+
+        then:
+        statuses.every { it == HttpStatus.METHOD_NOT_ALLOWED }
+        client.retrieve(HttpRequest.GET('/route-miss?q=1')).blockingFirst() == 'ok'
+    }
+
+    void 'test unmatched requests differing only in content type parameters share one cached miss'() {
+        when:
+        // sent without the client, which only accepts multipart bodies for the multipart content type
+        List<Integer> statuses = (1..5).collect { int i ->
+            HttpURLConnection connection = (HttpURLConnection) new URL(embeddedServer.URL, '/route-miss/json').openConnection()
+            connection.requestMethod = 'POST'
+            connection.doOutput = true
+            connection.setRequestProperty('Content-Type', "multipart/form-data; boundary=boundary-${i}")
+            connection.outputStream.withCloseable { OutputStream out -> out.write("--boundary-${i}--\r\n".bytes) }
+            return connection.responseCode
+        }
+
+        then:
+        statuses.every { it == HttpStatus.UNSUPPORTED_MEDIA_TYPE.code }
+        routeMisses().keySet().findAll { it.startsWith('POST /route-miss/json ') && it.contains('multipart') } ==
+                ['POST /route-miss/json multipart/form-data'] as Set
+    }
+
+    void 'test matched requests are unaffected by earlier misses'() {
+        given:
+        try {
+            client.exchange(HttpRequest.POST('/route-miss/json', 'body').contentType(MediaType.TEXT_PLAIN), String).blockingFirst()
+        } catch (HttpClientResponseException ignored) {
+        }
+
+        expect:
+        client.retrieve(HttpRequest.POST('/route-miss/json', '{"name":"Fred"}').contentType(MediaType.APPLICATION_JSON)).blockingFirst() == 'Fred'
+        client.retrieve(HttpRequest.GET('/route-miss')).blockingFirst() == 'ok'
+    }
+
+    private Map<String, ?> routeMisses() {
+        def field = ServletHttpHandler.getDeclaredField('routeMisses')
+        field.accessible = true
+        return (Map<String, ?>) field.get(handler)
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyRouteMissSpec')
+    @Controller('/route-miss')
+    static class RouteMissController {
+
+        @Get(produces = MediaType.TEXT_PLAIN)
+        String index() {
+            return 'ok'
+        }
+
+        @Post(value = '/json', consumes = MediaType.APPLICATION_JSON, produces = MediaType.TEXT_PLAIN)
+        String json(@Body Map<String, String> body) {
+            return body.name
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.multipart.PartData
+import io.micronaut.http.multipart.StreamingFileUpload
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.micronaut.test.support.TestPropertyProvider
+import io.reactivex.Flowable
+import io.reactivex.Single
+import io.reactivex.SingleEmitter
+import io.reactivex.SingleOnSubscribe
+import io.reactivex.schedulers.Schedulers
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import javax.inject.Inject
+import java.nio.file.Files
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyStreamingMultipartMemorySpec')
+@Property(name = 'micronaut.server.multipart.enabled', value = 'true')
+@Property(name = 'micronaut.server.multipart.max-file-size', value = '1073741824')
+@Property(name = 'micronaut.server.multipart.threshold', value = '1024')
+@Property(name = 'micronaut.server.max-request-size', value = '1073741824')
+class JettyStreamingMultipartMemorySpec extends Specification implements TestPropertyProvider {
+
+    private static final String BOUNDARY = 'memory-spec-boundary'
+    private static final File SPOOL = Files.createTempDirectory('streaming-multipart').toFile()
+
+    @Inject
+    EmbeddedServer embeddedServer
+
+    @Override
+    Map<String, String> getProperties() {
+        ['micronaut.server.multipart.location': SPOOL.absolutePath]
+    }
+
+    void cleanupSpec() {
+        SPOOL.deleteDir()
+    }
+
+    void 'test a body much larger than the heap budget is only buffered as far as a slow consumer reads'() {
+        given: 'a body that would exhaust the memory if it was buffered, generated as it is sent'
+        long length = 256L * 1024 * 1024
+
+        when:
+        String[] result = upload('/streaming-multipart-memory/slow', [file: length]).split(':')
+
+        then: 'every byte arrived'
+        result[0].toLong() == length
+
+        and: 'the server never held more than a few chunks the consumer had not read yet'
+        result[1].toLong() < 1024 * 1024
+    }
+
+    void 'test a part read ahead of a later bound part is spooled to disk and deleted once the request completes'() {
+        given:
+        long length = 4L * 1024 * 1024
+
+        when:
+        String result = upload('/streaming-multipart-memory/read-ahead', [first: length, second: 3])
+
+        then:
+        result == "1:${length}:3"
+        new PollingConditions(timeout: 5).eventually {
+            assert SPOOL.list().length == 0
+        }
+    }
+
+    private String upload(String uri, Map<String, Long> parts) {
+        HttpURLConnection connection = (HttpURLConnection) new URL(embeddedServer.URL, uri).openConnection()
+        connection.requestMethod = 'POST'
+        connection.doOutput = true
+        connection.setChunkedStreamingMode(64 * 1024)
+        connection.setRequestProperty('Content-Type', "${MediaType.MULTIPART_FORM_DATA}; boundary=${BOUNDARY}")
+        connection.outputStream.withCloseable { OutputStream out ->
+            byte[] chunk = new byte[64 * 1024]
+            parts.each { String name, Long length ->
+                out.write("--${BOUNDARY}\r\nContent-Disposition: form-data; name=\"${name}\"; filename=\"${name}.bin\"\r\nContent-Type: application/octet-stream\r\n\r\n".bytes)
+                long remaining = length
+                while (remaining > 0) {
+                    int size = (int) Math.min(chunk.length, remaining)
+                    out.write(chunk, 0, size)
+                    remaining -= size
+                }
+                out.write('\r\n'.bytes)
+            }
+            out.write("--${BOUNDARY}--\r\n".bytes)
+        }
+        assert connection.responseCode == 200
+        return connection.inputStream.text
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyStreamingMultipartMemorySpec')
+    @Controller('/streaming-multipart-memory')
+    static class StreamingMultipartMemoryController {
+
+        @Post(value = '/slow', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        Single<String> slow(StreamingFileUpload file) {
+            return Single.create({ SingleEmitter<String> emitter ->
+                file.subscribe(new Subscriber<PartData>() {
+                    Subscription subscription
+                    long received
+                    long maxUnread
+                    int chunks
+
+                    @Override
+                    void onSubscribe(Subscription s) {
+                        subscription = s
+                        s.request(1)
+                    }
+
+                    @Override
+                    void onNext(PartData partData) {
+                        received += partData.bytes.length
+                        maxUnread = Math.max(maxUnread, file.size - received)
+                        if (++chunks % 256 == 0) {
+                            Thread.sleep(1)
+                        }
+                        Schedulers.io().scheduleDirect({ subscription.request(1) })
+                    }
+
+                    @Override
+                    void onError(Throwable t) {
+                        emitter.onError(t)
+                    }
+
+                    @Override
+                    void onComplete() {
+                        emitter.onSuccess("${received}:${maxUnread}".toString())
+                    }
+                })
+            } as SingleOnSubscribe<String>)
+        }
+
+        @Post(value = '/read-ahead', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        Single<String> readAhead(StreamingFileUpload first, StreamingFileUpload second) {
+            int spooled = SPOOL.list().length
+            return Flowable.fromPublisher(first)
+                    .reduce(0L, { Long size, PartData part -> size + part.bytes.length })
+                    .flatMap({ Long firstSize ->
+                        Flowable.fromPublisher(second)
+                                .reduce(0L, { Long size, PartData part -> size + part.bytes.length })
+                                .map({ Long secondSize -> "${spooled}:${firstSize}:${secondSize}".toString() })
+                    })
+        }
+    }
+}
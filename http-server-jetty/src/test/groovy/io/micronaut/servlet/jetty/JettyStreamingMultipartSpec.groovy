@@ -0,0 +1,188 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Part
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.RxHttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.client.multipart.MultipartBody
+import io.micronaut.http.multipart.PartData
+import io.micronaut.http.multipart.StreamingFileUpload
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import io.reactivex.Single
+import io.reactivex.SingleEmitter
+import io.reactivex.SingleOnSubscribe
+import io.reactivex.schedulers.Schedulers
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+
+import javax.inject.Inject
+import java.nio.file.Files
+import java.util.concurrent.TimeUnit
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'JettyStreamingMultipartSpec')
+@Property(name = 'micronaut.server.multipart.enabled', value = 'true')
+@Property(name = 'micronaut.server.multipart.max-file-size', value = '1048576')
+class JettyStreamingMultipartSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    RxHttpClient client
+
+    void 'test a streaming file upload is transferred to a file'() {
+        given:
+        byte[] content = ('upload ' * 20000).bytes
+        MultipartBody body = MultipartBody.builder()
+                .addPart('title', 'report')
+                .addPart('file', 'report.txt', MediaType.TEXT_PLAIN_TYPE, content)
+                .build()
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/streaming-multipart/transfer', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        result == "report.txt:${content.length}"
+    }
+
+    void 'test the content of several parts is streamed as part data'() {
+        given:
+        MultipartBody body = MultipartBody.builder()
+                .addPart('data', 'one.txt', MediaType.TEXT_PLAIN_TYPE, 'one'.bytes)
+                .addPart('ignored', 'ignored')
+                .addPart('data', 'two.txt', MediaType.TEXT_PLAIN_TYPE, 'two'.bytes)
+                .build()
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/streaming-multipart/data', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        result == 'onetwo'
+    }
+
+    void 'test parts exceeding the maximum file size are rejected'() {
+        given:
+        MultipartBody body = MultipartBody.builder()
+                .addPart('file', 'large.bin', MediaType.APPLICATION_OCTET_STREAM_TYPE, new byte[2 * 1048576])
+                .build()
+
+        when:
+        client.retrieve(HttpRequest.POST('/streaming-multipart/transfer', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.REQUEST_ENTITY_TOO_LARGE
+    }
+
+    void 'test the body is only read as fast as a part is consumed'() {
+        given:
+        byte[] content = new byte[512 * 1024]
+        MultipartBody body = MultipartBody.builder()
+                .addPart('file', 'large.bin', MediaType.APPLICATION_OCTET_STREAM_TYPE, content)
+                .build()
+
+        when:
+        String[] result = client.retrieve(HttpRequest.POST('/streaming-multipart/slow', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst().split(':')
+
+        then: 'only a little more than the first chunk was read while the consumer paused'
+        result[0].toLong() < 64 * 1024
+        result[1].toLong() == content.length
+    }
+
+    void 'test the metadata of several streamed parts is available when the route executes'() {
+        given:
+        MultipartBody body = MultipartBody.builder()
+                .addPart('first', 'first.txt', MediaType.TEXT_PLAIN_TYPE, 'one'.bytes)
+                .addPart('second', 'second.txt', MediaType.TEXT_PLAIN_TYPE, 'two'.bytes)
+                .build()
+
+        when:
+        String result = client.retrieve(HttpRequest.POST('/streaming-multipart/metadata', body)
+                .contentType(MediaType.MULTIPART_FORM_DATA)).blockingFirst()
+
+        then:
+        result == 'first.txt,second.txt:onetwo'
+    }
+
+    @Requires(property = 'spec.name', value = 'JettyStreamingMultipartSpec')
+    @Controller('/streaming-multipart')
+    static class StreamingMultipartController {
+
+        @Post(value = '/transfer', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        Single<String> transfer(StreamingFileUpload file) {
+            File destination = Files.createTempFile('upload', '.txt').toFile()
+            destination.deleteOnExit()
+            return Single.fromPublisher(file.transferTo(destination))
+                    .map({ Boolean success -> "${file.filename}:${destination.length()}".toString() })
+        }
+
+        @Post(value = '/slow', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        Single<String> slow(StreamingFileUpload file) {
+            return Single.create({ SingleEmitter<String> emitter ->
+                file.subscribe(new Subscriber<PartData>() {
+                    Subscription subscription
+                    long received
+                    long readWhilePaused
+                    boolean paused
+
+                    @Override
+                    void onSubscribe(Subscription s) {
+                        subscription = s
+                        s.request(1)
+                    }
+
+                    @Override
+                    void onNext(PartData partData) {
+                        received += partData.bytes.length
+                        if (!paused) {
+                            paused = true
+                            Schedulers.io().scheduleDirect({
+                                readWhilePaused = file.size
+                                subscription.request(Long.MAX_VALUE)
+                            }, 200, TimeUnit.MILLISECONDS)
+                        }
+                    }
+
+                    @Override
+                    void onError(Throwable t) {
+                        emitter.onError(t)
+                    }
+
+                    @Override
+                    void onComplete() {
+                        emitter.onSuccess("${readWhilePaused}:${received}".toString())
+                    }
+                })
+            } as SingleOnSubscribe<String>)
+        }
+
+        @Post(value = '/metadata', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        Single<String> metadata(StreamingFileUpload first, StreamingFileUpload second) {
+            String names = "${first.filename},${second.filename}"
+            return Flowable.concat(first, second)
+                    .reduce(new StringBuilder(), { StringBuilder builder, PartData part ->
+                        builder.append(new String(part.bytes))
+                    })
+                    .map({ StringBuilder builder -> "${names}:${builder}".toString() })
+        }
+
+        @Post(value = '/data', consumes = MediaType.MULTIPART_FORM_DATA, produces = MediaType.TEXT_PLAIN)
+        Single<String> data(@Part('data') Flowable<PartData> data) {
+            return data.reduce(new StringBuilder(), { StringBuilder builder, PartData part ->
+                builder.append(new String(part.bytes))
+            }).map({ StringBuilder builder -> builder.toString() })
+        }
+    }
+}
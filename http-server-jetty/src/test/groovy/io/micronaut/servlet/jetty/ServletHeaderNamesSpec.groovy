@@ -0,0 +1,43 @@
+package io.micronaut.servlet.jetty
+
+import io.micronaut.http.HttpHeaders
+import io.micronaut.servlet.http.ServletHeaderNames
+import io.netty.handler.codec.http.HttpHeaderNames
+import io.netty.util.AsciiString
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ServletHeaderNamesSpec extends Specification {
+
+    @Unroll
+    void 'test #name resolves to the interned canonical header name'() {
+        when:
+        String resolved = ServletHeaderNames.of(name)
+
+        then:
+        resolved.is(canonical)
+
+        where:
+        name                                    | canonical
+        HttpHeaderNames.CONTENT_TYPE            | HttpHeaders.CONTENT_TYPE
+        HttpHeaderNames.CACHE_CONTROL           | HttpHeaders.CACHE_CONTROL
+        HttpHeaderNames.X_FORWARDED_FOR         | HttpHeaders.X_FORWARDED_FOR
+        new AsciiString('Content-Type')         | HttpHeaders.CONTENT_TYPE
+        new AsciiString('CONTENT-length')       | HttpHeaders.CONTENT_LENGTH
+        new StringBuilder('www-Authenticate')   | HttpHeaders.WWW_AUTHENTICATE
+    }
+
+    void 'test strings are returned as is'() {
+        given:
+        String name = new String('content-type')
+
+        expect:
+        ServletHeaderNames.of(name).is(name)
+    }
+
+    void 'test unknown header names fall back to their string form'() {
+        expect:
+        ServletHeaderNames.of(new AsciiString('X-Custom-Header')) == 'X-Custom-Header'
+        ServletHeaderNames.of(new AsciiString('Content-Typ')) == 'Content-Typ'
+    }
+}
@@ -55,6 +55,16 @@ import java.util.Optional;
 })
 public class TomcatConfiguration extends HttpServerConfiguration {
 
+    /**
+     * The connector property controlling when {@code 100 Continue} responses are sent.
+     */
+    static final String CONTINUE_RESPONSE_TIMING = "continueResponseTiming";
+
+    /**
+     * Sends {@code 100 Continue} when the application first reads the request body.
+     */
+    static final String CONTINUE_ON_READ = "onRead";
+
     @ConfigurationBuilder
     protected final Connector tomcatConnector;
     private final MultipartConfiguration multipartConfiguration;
@@ -73,6 +83,8 @@ public class TomcatConfiguration extends HttpServerConfiguration {
         this.tomcatConnector = new Connector(
                 protocol != null ? protocol : "org.apache.coyote.http11.Http11NioProtocol"
         );
+        // answer Expect: 100-continue when the body is read rather than before the request is dispatched
+        this.tomcatConnector.setProperty(CONTINUE_RESPONSE_TIMING, CONTINUE_ON_READ);
     }
 
     /**
@@ -113,6 +113,7 @@ public class TomcatFactory extends ServletServerFactory {
             httpsConnector.setProperty("clientAuth", "false");
             httpsConnector.setProperty("sslProtocol", protocol);
             httpsConnector.setProperty("SSLEnabled", "true");
+            httpsConnector.setProperty(TomcatConfiguration.CONTINUE_RESPONSE_TIMING, TomcatConfiguration.CONTINUE_ON_READ);
             sslConfiguration.getCiphers().ifPresent(cyphers -> httpsConnector.setAttribute("cyphers", cyphers));
             sslConfiguration.getClientAuthentication().ifPresent(ca -> {
                 switch (ca) {
@@ -161,6 +162,7 @@ public class TomcatFactory extends ServletServerFactory {
 
             keyConfig.getAlias().ifPresent(s -> httpsConnector.setProperty("keyAlias", s));
             keyConfig.getPassword().ifPresent(s -> httpsConnector.setProperty("keyPass", s));
+            configureCompression(httpsConnector);
 
             tomcat.getService().addConnector(httpsConnector);
         }
@@ -176,9 +178,18 @@ public class TomcatFactory extends ServletServerFactory {
     protected Connector tomcatConnector() {
         final Connector tomcatConnector = getServerConfiguration().getTomcatConnector();
         tomcatConnector.setPort(getConfiguredPort());
+        configureCompression(tomcatConnector);
         return tomcatConnector;
     }
 
+    private void configureCompression(Connector connector) {
+        getContainerCompressionConfiguration().ifPresent(compression -> {
+            connector.setProperty("compression", "on");
+            connector.setProperty("compressionMinSize", String.valueOf(compression.getThreshold()));
+            connector.setProperty("compressibleMimeType", String.join(",", compression.getMimeTypes()));
+        });
+    }
+
     private void setPathAttribute(Connector httpsConnector, String attributeName, String path) {
         if (path.startsWith(ServletStaticResourceConfiguration.CLASSPATH_PREFIX)) {
             String res = path.substring(ServletStaticResourceConfiguration.CLASSPATH_PREFIX.length());
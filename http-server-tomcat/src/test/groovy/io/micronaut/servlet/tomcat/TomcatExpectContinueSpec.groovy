@@ -0,0 +1,169 @@
+package io.micronaut.servlet.tomcat
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.MediaType
+import io.micronaut.http.MutableHttpResponse
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Filter
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.filter.HttpServerFilter
+import io.micronaut.http.filter.ServerFilterChain
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.servlet.http.annotation.MaxRequestSize
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.reactivex.Flowable
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.inject.Inject
+import java.nio.charset.StandardCharsets
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'TomcatExpectContinueSpec')
+class TomcatExpectContinueSpec extends Specification {
+
+    private static final int TIMEOUT = 5000
+
+    @Inject
+    EmbeddedServer embeddedServer
+
+    void 'test a body is requested with 100 Continue when the request is accepted'() {
+        given:
+        Socket socket = connect()
+        byte[] body = 'hello'.getBytes(StandardCharsets.UTF_8)
+
+        when:
+        sendHeaders(socket, '/expect-continue/echo', body.length, [:])
+        String interim = readStatusLine(socket)
+        socket.outputStream.write(body)
+        socket.outputStream.flush()
+        String status = readStatusLine(socket)
+
+        then:
+        interim.startsWith('HTTP/1.1 100')
+        status.startsWith('HTTP/1.1 200')
+
+        cleanup:
+        socket.close()
+    }
+
+    @Unroll
+    void 'test requests to #uri are rejected with #code before the body is sent'() {
+        given:
+        Socket socket = connect()
+
+        when:
+        sendHeaders(socket, uri, 1048576, headers)
+        String status = readStatusLine(socket)
+
+        then:
+        status.startsWith("HTTP/1.1 $code")
+
+        cleanup:
+        socket.close()
+
+        where:
+        uri                            | headers                         | code
+        '/expect-continue/limited'     | [:]                             | 413
+        '/expect-continue/secured'     | [:]                             | 401
+        '/expect-continue/echo'        | ['Content-Type': 'text/html']   | 415
+    }
+
+    void 'test unsupported expectations are rejected'() {
+        given:
+        Socket socket = connect()
+
+        when:
+        socket.outputStream.write(("POST /expect-continue/echo HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "Content-Length: 5\r\n" +
+                "Expect: unknown\r\n" +
+                "\r\n").getBytes(StandardCharsets.US_ASCII))
+        socket.outputStream.flush()
+        String status = readStatusLine(socket)
+
+        then:
+        status.startsWith('HTTP/1.1 417')
+
+        cleanup:
+        socket.close()
+    }
+
+    private Socket connect() {
+        Socket socket = new Socket(embeddedServer.host, embeddedServer.port)
+        socket.soTimeout = TIMEOUT
+        return socket
+    }
+
+    private static void sendHeaders(Socket socket, String uri, long length, Map<String, String> headers) {
+        Map<String, String> allHeaders = ['Content-Type': 'text/plain'] + headers
+        StringBuilder request = new StringBuilder("POST $uri HTTP/1.1\r\n")
+                .append('Host: localhost\r\n')
+                .append("Content-Length: $length\r\n")
+                .append('Expect: 100-continue\r\n')
+        allHeaders.each { name, value -> request.append("$name: $value\r\n") }
+        request.append('\r\n')
+        socket.outputStream.write(request.toString().getBytes(StandardCharsets.US_ASCII))
+        socket.outputStream.flush()
+    }
+
+    private static String readStatusLine(Socket socket) {
+        InputStream input = socket.inputStream
+        String statusLine = readLine(input)
+        while (readLine(input)) {
+            // skip the headers
+        }
+        return statusLine
+    }
+
+    private static String readLine(InputStream input) {
+        ByteArrayOutputStream line = new ByteArrayOutputStream()
+        int b
+        while ((b = input.read()) != -1 && b != '\n'.charAt(0) as int) {
+            if (b != '\r'.charAt(0) as int) {
+                line.write(b)
+            }
+        }
+        return line.toString(StandardCharsets.US_ASCII.name())
+    }
+
+    @Requires(property = 'spec.name', value = 'TomcatExpectContinueSpec')
+    @Controller('/expect-continue')
+    static class ExpectContinueController {
+
+        @Post(value = '/echo', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        String echo(@Body String body) {
+            return body
+        }
+
+        @Post(value = '/limited', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        @MaxRequestSize(1024L)
+        String limited(@Body String body) {
+            return body
+        }
+
+        @Post(value = '/secured', consumes = MediaType.TEXT_PLAIN, produces = MediaType.TEXT_PLAIN)
+        String secured(@Body String body) {
+            return body
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'TomcatExpectContinueSpec')
+    @Filter('/expect-continue/secured')
+    static class SecuredFilter implements HttpServerFilter {
+
+        @Override
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            if (request.headers.authorization.present) {
+                return chain.proceed(request)
+            }
+            return Flowable.just(HttpResponse.unauthorized())
+        }
+    }
+}
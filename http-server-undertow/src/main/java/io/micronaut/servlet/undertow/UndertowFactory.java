@@ -26,14 +26,22 @@ import io.micronaut.http.server.exceptions.ServerStartupException;
 import io.micronaut.http.ssl.SslConfiguration;
 import io.micronaut.servlet.engine.DefaultMicronautServlet;
 import io.micronaut.servlet.engine.MicronautServletConfiguration;
+import io.micronaut.servlet.engine.compression.ServletCompressionConfiguration;
 import io.micronaut.servlet.engine.server.ServletServerFactory;
 import io.micronaut.servlet.engine.server.ServletStaticResourceConfiguration;
 import io.undertow.Handlers;
 import io.undertow.Undertow;
 import io.undertow.UndertowOptions;
+import io.undertow.predicate.Predicate;
 import io.undertow.server.handlers.PathHandler;
+import io.undertow.server.handlers.encoding.ContentEncodingRepository;
+import io.undertow.server.handlers.encoding.DeflateEncodingProvider;
+import io.undertow.server.handlers.encoding.EncodingHandler;
+import io.undertow.server.handlers.encoding.GzipEncodingProvider;
 import io.undertow.servlet.Servlets;
 import io.undertow.servlet.api.*;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
 import org.xnio.Option;
 import org.xnio.Options;
 
@@ -52,6 +60,9 @@ import java.util.Map;
 @Factory
 public class UndertowFactory extends ServletServerFactory {
 
+    private static final int GZIP_PRIORITY = 100;
+    private static final int DEFLATE_PRIORITY = 10;
+
     private final UndertowConfiguration configuration;
 
     /**
@@ -102,7 +113,22 @@ public class UndertowFactory extends ServletServerFactory {
         } catch (ServletException e) {
             throw new ServerStartupException("Error starting Undertow server: " + e.getMessage(), e);
         }
-        builder.setHandler(path);
+        final ServletCompressionConfiguration compression = getContainerCompressionConfiguration().orElse(null);
+        if (compression != null) {
+            final long threshold = compression.getThreshold();
+            final Predicate compressible = exchange -> {
+                final HeaderMap headers = exchange.getResponseHeaders();
+                final long length = parseContentLength(headers.getFirst(Headers.CONTENT_LENGTH));
+                return compression.isCompressible(headers.getFirst(Headers.CONTENT_TYPE))
+                        && (length < 0 || length >= threshold);
+            };
+            final ContentEncodingRepository encodings = new ContentEncodingRepository()
+                    .addEncodingHandler("gzip", new GzipEncodingProvider(compression.getLevel()), GZIP_PRIORITY, compressible)
+                    .addEncodingHandler("deflate", new DeflateEncodingProvider(compression.getLevel()), DEFLATE_PRIORITY, compressible);
+            builder.setHandler(new EncodingHandler(path, encodings));
+        } else {
+            builder.setHandler(path);
+        }
 
         final SslConfiguration sslConfiguration = getSslConfiguration();
         if (sslConfiguration.isEnabled()) {
@@ -164,6 +190,24 @@ public class UndertowFactory extends ServletServerFactory {
         return builder;
     }
 
+    /**
+     * Parses the content length of a response. A missing or malformed value, which may have been set by the
+     * application, is treated as an unknown length.
+     *
+     * @param length The value of the content length header
+     * @return The content length or -1 if unknown
+     */
+    private static long parseContentLength(String length) {
+        if (length == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(length.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     private Object getOptionValue(String key) {
         return ReflectionUtils.findDeclaredField(Options.class, key)
                 .map(field -> {
@@ -0,0 +1,95 @@
+package io.micronaut.servlet.undertow
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Produces
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import spock.lang.Specification
+
+import javax.inject.Inject
+import java.util.zip.GZIPInputStream
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'UndertowCompressionSpec')
+@Property(name = 'micronaut.server.compression.enabled', value = 'true')
+@Property(name = 'micronaut.server.compression.container-managed', value = 'true')
+@Property(name = 'micronaut.server.compression.threshold', value = '512')
+class UndertowCompressionSpec extends Specification {
+
+    static final String LARGE = 'micronaut ' * 200
+
+    @Inject
+    EmbeddedServer embeddedServer
+
+    void 'test the container compresses the response'() {
+        when:
+        HttpURLConnection connection = open('/container-compression/large', 'gzip')
+
+        then:
+        connection.responseCode == 200
+        connection.getHeaderField('Content-Encoding') == 'gzip'
+        new GZIPInputStream(connection.inputStream).text == LARGE
+    }
+
+    void 'test the container does not compress responses below the threshold'() {
+        when:
+        HttpURLConnection connection = open('/container-compression/small', 'gzip')
+
+        then:
+        connection.getHeaderField('Content-Encoding') == null
+        connection.inputStream.text == 'small'
+    }
+
+    void 'test the container does not compress responses without Accept-Encoding'() {
+        when:
+        HttpURLConnection connection = open('/container-compression/large', null)
+
+        then:
+        connection.getHeaderField('Content-Encoding') == null
+        connection.inputStream.text == LARGE
+    }
+
+    void 'test the container does not compress media types that are not configured'() {
+        when:
+        HttpURLConnection connection = open('/container-compression/binary', 'gzip')
+
+        then:
+        connection.getHeaderField('Content-Encoding') == null
+        connection.inputStream.bytes.length == 2048
+    }
+
+    private HttpURLConnection open(String path, String encoding) {
+        HttpURLConnection connection = (HttpURLConnection) new URL(embeddedServer.URL, path).openConnection()
+        if (encoding != null) {
+            connection.setRequestProperty('Accept-Encoding', encoding)
+        }
+        return connection
+    }
+
+    @Requires(property = 'spec.name', value = 'UndertowCompressionSpec')
+    @Controller('/container-compression')
+    static class CompressionController {
+
+        @Get('/large')
+        @Produces(MediaType.TEXT_PLAIN)
+        String large() {
+            return LARGE
+        }
+
+        @Get('/small')
+        @Produces(MediaType.TEXT_PLAIN)
+        String small() {
+            return 'small'
+        }
+
+        @Get('/binary')
+        @Produces(MediaType.APPLICATION_OCTET_STREAM)
+        byte[] binary() {
+            return new byte[2048]
+        }
+    }
+}
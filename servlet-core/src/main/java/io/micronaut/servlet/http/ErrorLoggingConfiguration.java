@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.http;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+/**
+ * Configuration for logging errors that occur while handling requests.
+ *
+ * @since 2.2.0
+ */
+@ConfigurationProperties(ErrorLoggingConfiguration.PREFIX)
+public class ErrorLoggingConfiguration {
+
+    /**
+     * The prefix used for configuration.
+     */
+    public static final String PREFIX = "micronaut.servlet.error-logging";
+
+    /**
+     * The default maximum number of errors logged per second for each exception type.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MAX_PER_SECOND = 0;
+
+    /**
+     * The default maximum number of stack frames logged.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MAX_STACK_FRAMES = 0;
+
+    private int maxPerSecond = DEFAULT_MAX_PER_SECOND;
+    private int maxStackFrames = DEFAULT_MAX_STACK_FRAMES;
+
+    /**
+     * @return The maximum number of errors logged per second for each exception type
+     */
+    public int getMaxPerSecond() {
+        return maxPerSecond;
+    }
+
+    /**
+     * Sets the maximum number of errors logged per second for each exception type. Errors above the limit are counted
+     * and the count is reported with the next error that is logged. A value of zero or less logs every error. Default
+     * value ({@value #DEFAULT_MAX_PER_SECOND}).
+     *
+     * @param maxPerSecond The maximum number of errors per second
+     */
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * @return The maximum number of stack frames logged for an error
+     */
+    public int getMaxStackFrames() {
+        return maxStackFrames;
+    }
+
+    /**
+     * Sets the maximum number of stack frames logged for an error and each of its causes. A value of zero or less logs
+     * the full stack trace. Default value ({@value #DEFAULT_MAX_STACK_FRAMES}).
+     *
+     * <p>The error is still logged as a throwable, but as a copy with the truncated stack trace. Appenders that render
+     * the exception class report the class of the copy, and the class name of the original error is the start of its
+     * message.</p>
+     *
+     * @param maxStackFrames The maximum number of stack frames
+     */
+    public void setMaxStackFrames(int maxStackFrames) {
+        this.maxStackFrames = maxStackFrames;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.http;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.reactivex.Maybe;
+import io.reactivex.MaybeEmitter;
+import io.reactivex.schedulers.Schedulers;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * Adapts {@link Future} implementations that accept completion callbacks through an
+ * {@code addListener(Runnable, Executor)} method, such as Guava's {@code ListenableFuture}, to a {@link Maybe}
+ * without blocking a thread until the future completes. Disposing the {@link Maybe} cancels the future, so that
+ * work whose result can no longer be sent is stopped.
+ *
+ * @since 2.2.0
+ */
+@Internal
+final class ListenableFutureAdapter {
+
+    private static final String ADD_LISTENER = "addListener";
+    private static final Map<Class<?>, Optional<Method>> LISTENER_METHODS = new ConcurrentHashMap<>();
+
+    private ListenableFutureAdapter() {
+    }
+
+    /**
+     * Adapts the given future if it accepts completion callbacks.
+     *
+     * @param future The future
+     * @return The adapted future or null if the future does not accept completion callbacks
+     */
+    static @Nullable Maybe<Object> adapt(Future<?> future) {
+        final Method addListener = LISTENER_METHODS
+                .computeIfAbsent(future.getClass(), ListenableFutureAdapter::findListenerMethod)
+                .orElse(null);
+        if (addListener == null) {
+            return null;
+        }
+        return Maybe.create(emitter -> {
+            emitter.setCancellable(() -> future.cancel(true));
+            try {
+                addListener.invoke(future, (Runnable) () -> emit(future, emitter), (Executor) Runnable::run);
+            } catch (InvocationTargetException e) {
+                emitter.onError(e.getCause());
+            }
+        });
+    }
+
+    /**
+     * Adapts a future that does not accept completion callbacks by waiting for it on an I/O thread, so that the
+     * thread of the request is not blocked. Disposing the {@link Maybe} cancels the future, which also releases the
+     * waiting thread.
+     *
+     * @param future The future
+     * @return The adapted future
+     */
+    static Maybe<Object> await(Future<?> future) {
+        return Maybe.create(emitter -> {
+            emitter.setCancellable(() -> future.cancel(true));
+            emit(future, emitter);
+        }).subscribeOn(Schedulers.io());
+    }
+
+    private static void emit(Future<?> future, MaybeEmitter<Object> emitter) {
+        try {
+            final Object value = future.get();
+            if (value != null) {
+                emitter.onSuccess(value);
+            } else {
+                emitter.onComplete();
+            }
+        } catch (ExecutionException e) {
+            emitter.tryOnError(e.getCause() != null ? e.getCause() : e);
+        } catch (Throwable e) {
+            // the future was cancelled because the response was disposed, or the waiting thread was interrupted
+            emitter.tryOnError(e);
+        }
+    }
+
+    private static Optional<Method> findListenerMethod(Class<?> type) {
+        try {
+            final Method method = type.getMethod(ADD_LISTENER, Runnable.class, Executor.class);
+            if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            return Optional.of(method);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.http;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.http.HttpRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The deadline by which a request has to be processed. Routes can bind the deadline as an argument, or look it up with
+ * {@link #find(HttpRequest)}, to propagate the remaining time to the calls they make.
+ *
+ * @since 2.2.0
+ * @see io.micronaut.servlet.http.annotation.RequestTimeout
+ */
+public final class RequestDeadline {
+
+    /**
+     * The request attribute holding the deadline.
+     */
+    public static final String ATTRIBUTE = "micronaut.servlet.request.deadline";
+
+    private final Duration timeout;
+    private final long deadlineNanos;
+
+    private RequestDeadline(Duration timeout, long deadlineNanos) {
+        this.timeout = timeout;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline that expires after the given timeout, starting now.
+     *
+     * @param timeout The timeout
+     * @return The deadline
+     */
+    public static @NonNull RequestDeadline after(@NonNull Duration timeout) {
+        return new RequestDeadline(timeout, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Finds the deadline of the given request.
+     *
+     * @param request The request
+     * @return The deadline or empty if no timeout applies to the request
+     */
+    public static @NonNull Optional<RequestDeadline> find(@NonNull HttpRequest<?> request) {
+        return request.getAttribute(ATTRIBUTE, RequestDeadline.class);
+    }
+
+    /**
+     * @return The timeout the deadline was created with
+     */
+    public @NonNull Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return The time remaining until the deadline, or {@link Duration#ZERO} if it has passed
+     */
+    public @NonNull Duration getRemaining() {
+        final long remaining = deadlineNanos - System.nanoTime();
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * @return Whether the deadline has passed
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestDeadline{timeout=" + timeout + ", remaining=" + getRemaining() + '}';
+    }
+}
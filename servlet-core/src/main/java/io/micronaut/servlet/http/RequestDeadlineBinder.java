@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.http;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.convert.ArgumentConversionContext;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.bind.binders.TypedRequestArgumentBinder;
+
+/**
+ * A binder for the {@link RequestDeadline} of a request.
+ *
+ * @since 2.2.0
+ */
+@Internal
+class RequestDeadlineBinder implements TypedRequestArgumentBinder<RequestDeadline> {
+
+    static final Argument<RequestDeadline> TYPE = Argument.of(RequestDeadline.class);
+
+    @Override
+    public Argument<RequestDeadline> argumentType() {
+        return TYPE;
+    }
+
+    @Override
+    public BindingResult<RequestDeadline> bind(ArgumentConversionContext<RequestDeadline> context, HttpRequest<?> source) {
+        return () -> RequestDeadline.find(source);
+    }
+}
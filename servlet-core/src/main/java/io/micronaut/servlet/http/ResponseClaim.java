@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.http;
+
+import io.micronaut.core.annotation.Internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides who writes the response of a request that can time out: the route, the handler once the deadline of the
+ * request has passed, or the container once it times out the asynchronous request. Whichever claims the response
+ * first writes it, so that a timeout response and the route's response are never written concurrently.
+ *
+ * @since 2.2.0
+ */
+@Internal
+public final class ResponseClaim {
+
+    private static final int UNCLAIMED = 0;
+    private static final int ROUTE = 1;
+    private static final int DEADLINE = 2;
+    private static final int CONTAINER = 3;
+
+    private final AtomicInteger owner = new AtomicInteger(UNCLAIMED);
+
+    /**
+     * Claims the response for the route before it writes it.
+     *
+     * @return True if the route may write the response
+     */
+    public boolean claimForRoute() {
+        return owner.compareAndSet(UNCLAIMED, ROUTE) || owner.get() == ROUTE;
+    }
+
+    /**
+     * Claims the response for the handler once the deadline of the request has passed. The handler then responds
+     * through its error handling.
+     *
+     * @return True if the deadline claimed the response
+     */
+    public boolean claimForDeadline() {
+        return owner.compareAndSet(UNCLAIMED, DEADLINE);
+    }
+
+    /**
+     * Claims the response for the error handling of the handler, which also responds once the deadline of the
+     * request has passed. Errors are handled unless the container has timed out the request.
+     *
+     * @return True if the handler may write an error response
+     */
+    public boolean claimForError() {
+        return owner.compareAndSet(UNCLAIMED, ROUTE) || owner.get() != CONTAINER;
+    }
+
+    /**
+     * Claims the response for the container once it times out the asynchronous request.
+     *
+     * @return True if the container may write the response
+     */
+    public boolean claimForContainer() {
+        return owner.compareAndSet(UNCLAIMED, CONTAINER);
+    }
+}
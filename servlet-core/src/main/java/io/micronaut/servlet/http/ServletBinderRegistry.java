@@ -59,6 +59,7 @@ public abstract class ServletBinderRegistry implements RequestBinderRegistry {
         this.defaultRegistry = new DefaultRequestBinderRegistry(conversionService, binders);
         this.byAnnotation.put(Body.class, newServletBodyBinder(mediaTypeCodecRegistry, conversionService));
         this.byType.put(HttpRequest.class, new ServletRequestBinder(mediaTypeCodecRegistry));
+        this.byType.put(RequestDeadline.class, new RequestDeadlineBinder());
     }
 
     /**
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.http;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.http.HttpHeaders;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * An interned table of well-known HTTP header names. Allows resolving a {@link CharSequence} header name, such as a
+ * Netty {@code AsciiString} constant, to the equivalent {@link String} without allocating. Names are matched ignoring
+ * case, since Netty's constants are lower case, and resolve to the canonical name, for example {@code Content-Type}.
+ *
+ * @since 2.2.0
+ */
+@Internal
+public final class ServletHeaderNames {
+
+    private static final int TABLE_SIZE = 256;
+    private static final int MASK = TABLE_SIZE - 1;
+    private static final String[] KEYS = new String[TABLE_SIZE];
+    private static final String[] NAMES = new String[TABLE_SIZE];
+
+    static {
+        String[] names = {
+                HttpHeaders.ACCEPT,
+                HttpHeaders.ACCEPT_CHARSET,
+                HttpHeaders.ACCEPT_ENCODING,
+                HttpHeaders.ACCEPT_LANGUAGE,
+                HttpHeaders.ACCEPT_RANGES,
+                HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS,
+                HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS,
+                HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS,
+                HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN,
+                HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+                HttpHeaders.ACCESS_CONTROL_MAX_AGE,
+                HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS,
+                HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD,
+                HttpHeaders.AGE,
+                HttpHeaders.ALLOW,
+                HttpHeaders.AUTHORIZATION,
+                HttpHeaders.CACHE_CONTROL,
+                HttpHeaders.CONNECTION,
+                HttpHeaders.CONTENT_DISPOSITION,
+                HttpHeaders.CONTENT_ENCODING,
+                HttpHeaders.CONTENT_LANGUAGE,
+                HttpHeaders.CONTENT_LENGTH,
+                HttpHeaders.CONTENT_LOCATION,
+                HttpHeaders.CONTENT_TRANSFER_ENCODING,
+                HttpHeaders.CONTENT_RANGE,
+                HttpHeaders.CONTENT_TYPE,
+                HttpHeaders.COOKIE,
+                HttpHeaders.DATE,
+                HttpHeaders.ETAG,
+                HttpHeaders.EXPECT,
+                HttpHeaders.EXPIRES,
+                HttpHeaders.FROM,
+                HttpHeaders.HOST,
+                HttpHeaders.IF_MATCH,
+                HttpHeaders.IF_MODIFIED_SINCE,
+                HttpHeaders.IF_NONE_MATCH,
+                HttpHeaders.IF_RANGE,
+                HttpHeaders.IF_UNMODIFIED_SINCE,
+                HttpHeaders.LAST_MODIFIED,
+                HttpHeaders.LINK,
+                HttpHeaders.LOCATION,
+                HttpHeaders.MAX_FORWARDS,
+                HttpHeaders.ORIGIN,
+                HttpHeaders.PRAGMA,
+                HttpHeaders.PROXY_AUTHENTICATE,
+                HttpHeaders.PROXY_AUTHORIZATION,
+                HttpHeaders.RANGE,
+                HttpHeaders.REFERER,
+                HttpHeaders.RETRY_AFTER,
+                HttpHeaders.SERVER,
+                HttpHeaders.SET_COOKIE,
+                HttpHeaders.TE,
+                HttpHeaders.TRAILER,
+                HttpHeaders.TRANSFER_ENCODING,
+                HttpHeaders.UPGRADE,
+                HttpHeaders.USER_AGENT,
+                HttpHeaders.VARY,
+                HttpHeaders.VIA,
+                HttpHeaders.WARNING,
+                HttpHeaders.WWW_AUTHENTICATE,
+                HttpHeaders.X_FORWARDED_FOR,
+                HttpHeaders.X_FORWARDED_HOST,
+                HttpHeaders.X_FORWARDED_PROTO
+        };
+        for (String name : names) {
+            final String key = name.toLowerCase(Locale.ENGLISH);
+            int i = hash(key) & MASK;
+            while (KEYS[i] != null && !KEYS[i].equals(key)) {
+                i = (i + 1) & MASK;
+            }
+            KEYS[i] = key;
+            NAMES[i] = name;
+        }
+    }
+
+    private ServletHeaderNames() {
+    }
+
+    /**
+     * Resolves the {@link String} form of the given header name. Strings are returned as is, well-known header names
+     * are resolved to their canonical name from the interned table regardless of their case and any other value falls
+     * back to {@link CharSequence#toString()}.
+     *
+     * @param name The header name
+     * @return The header name as a string
+     */
+    @NonNull
+    public static String of(@NonNull CharSequence name) {
+        Objects.requireNonNull(name, "Header name cannot be null");
+        if (name instanceof String) {
+            return (String) name;
+        }
+        int i = hash(name) & MASK;
+        String key;
+        while ((key = KEYS[i]) != null) {
+            if (equalsIgnoreCase(key, name)) {
+                return NAMES[i];
+            }
+            i = (i + 1) & MASK;
+        }
+        return name.toString();
+    }
+
+    /**
+     * Resolves the {@link String} form of a header value, avoiding the conversion if the value is already a string.
+     *
+     * @param value The header value
+     * @return The value as a string
+     */
+    @NonNull
+    public static String value(@NonNull CharSequence value) {
+        Objects.requireNonNull(value, "Header value cannot be null");
+        return value instanceof String ? (String) value : value.toString();
+    }
+
+    private static int hash(CharSequence name) {
+        final int len = name.length();
+        int h = 0;
+        for (int i = 0; i < len; i++) {
+            h = 31 * h + toLowerCase(name.charAt(i));
+        }
+        return h;
+    }
+
+    private static boolean equalsIgnoreCase(String key, CharSequence name) {
+        final int len = key.length();
+        if (name.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (key.charAt(i) != toLowerCase(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char toLowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -17,18 +17,27 @@ package io.micronaut.servlet.http;
 
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.LifeCycle;
+import io.micronaut.context.Qualifier;
+import io.micronaut.context.event.ApplicationEventListener;
 import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.AnnotationValue;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.bind.annotation.Bindable;
 import io.micronaut.core.convert.exceptions.ConversionErrorException;
 import io.micronaut.core.convert.value.ConvertibleValues;
 import io.micronaut.core.io.Writable;
+import io.micronaut.core.order.OrderUtil;
+import io.micronaut.core.reflect.ClassUtils;
 import io.micronaut.core.type.Argument;
 import io.micronaut.core.type.ReturnType;
 import io.micronaut.core.util.ArrayUtils;
 import io.micronaut.core.util.CollectionUtils;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
 import io.micronaut.http.*;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Filter;
 import io.micronaut.http.annotation.Header;
 import io.micronaut.http.annotation.Produces;
 import io.micronaut.http.annotation.Status;
@@ -40,15 +49,20 @@ import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.http.context.event.HttpRequestReceivedEvent;
 import io.micronaut.http.context.event.HttpRequestTerminatedEvent;
 import io.micronaut.http.exceptions.HttpStatusException;
+import io.micronaut.http.filter.HttpClientFilter;
 import io.micronaut.http.filter.HttpFilter;
 import io.micronaut.http.filter.HttpServerFilter;
 import io.micronaut.http.filter.OncePerRequestHttpServerFilter;
 import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.multipart.StreamingFileUpload;
 import io.micronaut.http.server.binding.RequestArgumentSatisfier;
 import io.micronaut.http.server.exceptions.ExceptionHandler;
 import io.micronaut.http.server.exceptions.response.ErrorContext;
 import io.micronaut.http.server.exceptions.response.ErrorResponseProcessor;
+import io.micronaut.http.simple.SimpleHttpRequest;
+import io.micronaut.inject.BeanDefinition;
 import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.servlet.http.annotation.RequestTimeout;
 import io.micronaut.web.router.MethodBasedRouteMatch;
 import io.micronaut.web.router.RouteMatch;
 import io.micronaut.web.router.Router;
@@ -57,7 +71,9 @@ import io.micronaut.web.router.UriRouteMatch;
 import io.micronaut.web.router.exceptions.DuplicateRouteException;
 import io.micronaut.web.router.exceptions.UnsatisfiedRouteException;
 import io.reactivex.*;
+import io.reactivex.disposables.Disposable;
 import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
 import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,11 +81,18 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -92,12 +115,33 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
      */
     protected static final Logger LOG = LoggerFactory.getLogger(ServletHttpHandler.class);
 
+    private static final int ROUTE_MISS_CACHE_SIZE = 1000;
+    private static final int FILTER_CACHE_SIZE = 1000;
+    private static final String EXPECT_CONTINUE = "100-continue";
+
     private final Router router;
     private final RequestArgumentSatisfier requestArgumentSatisfier;
     private final MediaTypeCodecRegistry mediaTypeCodecRegistry;
     private final ApplicationContext applicationContext;
     private final Map<Class<?>, ServletResponseEncoder<?>> responseEncoders;
     private final ErrorResponseProcessor errorResponseProcessor;
+    private final Map<AnnotationMetadata, ResponseMetadata> responseMetadataCache = new ConcurrentHashMap<>(30);
+    private final Map<AnnotationMetadata, Optional<Duration>> routeTimeouts = new ConcurrentHashMap<>(30);
+    private final Map<UriRoute, Optional<Set<String>>> formFieldNames = new ConcurrentHashMap<>(30);
+    private final Map<String, RouteMiss> routeMisses = new ConcurrentLinkedHashMap.Builder<String, RouteMiss>()
+            .maximumWeightedCapacity(ROUTE_MISS_CACHE_SIZE)
+            .build();
+    private final Map<String, ResolvedFilters> filterCache = new ConcurrentLinkedHashMap.Builder<String, ResolvedFilters>()
+            .maximumWeightedCapacity(FILTER_CACHE_SIZE)
+            .build();
+    private final Map<UriRoute, ResolvedFilters> routeFilters = new ConcurrentHashMap<>(30);
+    private final Map<Class<?>, Optional<Supplier<ExceptionHandler<Throwable, ?>>>> exceptionHandlers = new ConcurrentHashMap<>();
+    private final Map<RouteLookupKey, RouteLookup> errorRouteLookups = new ConcurrentHashMap<>();
+    private final Map<RouteLookupKey, Optional<RouteMatch<Object>>> statusRouteLookups = new ConcurrentHashMap<>();
+    private volatile EventListeners<HttpRequestReceivedEvent> requestReceivedListeners;
+    private volatile EventListeners<HttpRequestTerminatedEvent> requestTerminatedListeners;
+    private volatile ThrottledErrorLogger errorLogger;
+    private volatile Optional<List<String>> filterPatterns;
 
     /**
      * Default constructor.
@@ -116,6 +160,9 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                         (o) -> o
                 ));
         this.errorResponseProcessor = applicationContext.getBean(ErrorResponseProcessor.class);
+        this.requestReceivedListeners = resolveEventListeners(HttpRequestReceivedEvent.class);
+        this.requestTerminatedListeners = resolveEventListeners(HttpRequestTerminatedEvent.class);
+        this.errorLogger = resolveErrorLogger();
 
         // hack for bug fixed in Micronaut 1.3.3
         applicationContext.getEnvironment()
@@ -136,6 +183,51 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
         return mediaTypeCodecRegistry;
     }
 
+    /**
+     * Called when the application context is refreshed. Re-resolves the state the handler caches, such as the
+     * listeners for request events, the outcome of requests that matched no route, the filters matching each route and
+     * path, the timeouts and bound form fields of each route, the resolved error routes and exception handlers and the
+     * error logging configuration.
+     *
+     * @since 2.2.0
+     */
+    protected void onRefresh() {
+        this.routeMisses.clear();
+        this.filterCache.clear();
+        this.routeFilters.clear();
+        this.filterPatterns = null;
+        this.routeTimeouts.clear();
+        this.formFieldNames.clear();
+        this.exceptionHandlers.clear();
+        this.errorRouteLookups.clear();
+        this.statusRouteLookups.clear();
+        this.requestReceivedListeners = resolveEventListeners(HttpRequestReceivedEvent.class);
+        this.requestTerminatedListeners = resolveEventListeners(HttpRequestTerminatedEvent.class);
+        this.errorLogger = resolveErrorLogger();
+    }
+
+    /**
+     * The executor used to notify listeners of {@link HttpRequestReceivedEvent} and {@link HttpRequestTerminatedEvent}.
+     * By default listeners are notified on the request thread.
+     *
+     * @return The executor or null if listeners should be notified synchronously
+     * @since 2.2.0
+     */
+    protected @Nullable Executor getRequestEventExecutor() {
+        return null;
+    }
+
+    /**
+     * The time allowed to process a request when the route does not declare a
+     * {@link RequestTimeout}. By default requests have no timeout.
+     *
+     * @return The request timeout or null if requests have no timeout
+     * @since 2.2.0
+     */
+    protected @Nullable Duration getRequestTimeout() {
+        return null;
+    }
+
     /**
      * Handle the give native request and response.
      *
@@ -185,7 +277,11 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
         try {
             final MutableHttpResponse<Object> res = exchange.getResponse();
             final HttpRequest<Object> req = exchange.getRequest();
-            applicationContext.publishEvent(new HttpRequestReceivedEvent(req));
+            final EventListeners<HttpRequestReceivedEvent> receivedListeners = requestReceivedListeners;
+            if (!receivedListeners.isEmpty()) {
+                final Executor executor = getRequestEventExecutor();
+                publishRequestEvent(receivedListeners, new HttpRequestReceivedEvent(eventSource(req, executor)), executor);
+            }
 
             final List<UriRouteMatch<Object, Object>> matchingRoutes = router.findAllClosest(req);
             if (CollectionUtils.isNotEmpty(matchingRoutes)) {
@@ -197,8 +293,15 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                     req.setAttribute(HttpAttributes.ROUTE, establishedRoute.getRoute());
                     req.setAttribute(HttpAttributes.ROUTE_MATCH, establishedRoute);
                     req.setAttribute(HttpAttributes.URI_TEMPLATE, establishedRoute.getRoute().getUriMatchTemplate().toString());
+                    if (req instanceof ServletHttpRequest && HttpMethod.permitsRequestBody(req.getMethod())) {
+                        ((ServletHttpRequest<?, ?>) req).setFormFieldNames(resolveFormFieldNames(establishedRoute).orElse(null));
+                    }
                     route = establishedRoute;
                 }
+                final Duration timeout = resolveRequestTimeout(route);
+                if (timeout != null) {
+                    req.setAttribute(RequestDeadline.ATTRIBUTE, RequestDeadline.after(timeout));
+                }
 
 
                 if (LOG.isDebugEnabled()) {
@@ -206,6 +309,12 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                     traceHeaders(req.getHeaders());
                 }
 
+                try {
+                    validateRequest(exchange, route.getAnnotationMetadata());
+                } catch (RuntimeException e) {
+                    handleException(req, res, route, false, e, exchange);
+                    return;
+                }
                 invokeRouteMatch(req, res, route, false, exchange);
 
             } else {
@@ -215,52 +324,40 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                     traceHeaders(req.getHeaders());
                 }
 
-                Set<String> existingRouteMethods = router
-                        .findAny(req.getUri().toString(), req)
-                        .map(UriRouteMatch::getRoute)
-                        .map(UriRoute::getHttpMethodName)
-                        .collect(Collectors.toSet());
-
-                if (CollectionUtils.isNotEmpty(existingRouteMethods)) {
-                    if (existingRouteMethods.contains(req.getMethodName())) {
-                        MediaType contentType = req.getContentType().orElse(null);
-                        if (contentType != null) {
-                            // must be invalid mime type
-                            boolean invalidMediaType = router.findAny(req.getUri().toString(), req)
-                                    .anyMatch(rm -> rm.doesConsume(contentType));
-                            if (!invalidMediaType) {
-                                handleStatusRoute(exchange, res, req, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
-                            } else {
-                                handlePageNotFound(exchange, res, req);
-                            }
+                final RouteMiss routeMiss = resolveRouteMiss(req);
+                if (routeMiss.status == HttpStatus.METHOD_NOT_ALLOWED) {
+                    final Set<String> existingRouteMethods = routeMiss.allowedMethods;
+                    final RouteMatch<Object> notAllowedRoute = lookupStatusRoute(null, HttpStatus.METHOD_NOT_ALLOWED);
 
-                        } else {
-                            handlePageNotFound(exchange, res, req);
-                        }
+                    if (notAllowedRoute != null) {
+                        invokeRouteMatch(req, res, notAllowedRoute, true, exchange);
                     } else {
-                        final RouteMatch<Object> notAllowedRoute =
-                                router.route(HttpStatus.METHOD_NOT_ALLOWED).orElse(null);
-
-                        if (notAllowedRoute != null) {
-                            invokeRouteMatch(req, res, notAllowedRoute, true, exchange);
-                        } else {
-                            emitError(exchange, res, req, emitter -> {
-                                res.getHeaders().allowGeneric(existingRouteMethods);
-                                res.status(HttpStatus.METHOD_NOT_ALLOWED);
-                                emitter.onNext(errorResponseProcessor.processResponse(ErrorContext.builder(req)
-                                        .errorMessage("Method [" + req.getMethod() + "] not allowed for URI [" + req
-                                                .getPath() + "]. Allowed methods: " + existingRouteMethods)
-                                        .build(), res));
-                                emitter.onComplete();
-                            });
-                        }
+                        emitError(exchange, res, req, emitter -> {
+                            res.getHeaders().allowGeneric(existingRouteMethods);
+                            res.status(HttpStatus.METHOD_NOT_ALLOWED);
+                            emitter.onNext(errorResponseProcessor.processResponse(ErrorContext.builder(req)
+                                    .errorMessage("Method [" + req.getMethod() + "] not allowed for URI [" + req
+                                            .getPath() + "]. Allowed methods: " + existingRouteMethods)
+                                    .build(), res));
+                            emitter.onComplete();
+                        });
                     }
+                } else if (routeMiss.status == HttpStatus.UNSUPPORTED_MEDIA_TYPE) {
+                    handleStatusRoute(exchange, res, req, HttpStatus.UNSUPPORTED_MEDIA_TYPE);
                 } else {
                     handlePageNotFound(exchange, res, req);
                 }
             }
         } finally {
-            applicationContext.publishEvent(new HttpRequestTerminatedEvent(exchange.getRequest()));
+            final EventListeners<HttpRequestTerminatedEvent> terminatedListeners = requestTerminatedListeners;
+            if (!terminatedListeners.isEmpty()) {
+                final Executor executor = getRequestEventExecutor();
+                publishRequestEvent(
+                        terminatedListeners,
+                        new HttpRequestTerminatedEvent(eventSource(exchange.getRequest(), executor)),
+                        executor
+                );
+            }
             if (LOG.isTraceEnabled()) {
                 final HttpRequest<? super Object> r = exchange.getRequest();
                 LOG.trace("Executed HTTP Request [{} {}] in: {}ms",
@@ -272,6 +369,197 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
         }
     }
 
+    /**
+     * Validates a routed request before filters run and before any of its body is read. Servlet containers answer
+     * {@code Expect: 100-continue} when the body is first read, so a request rejected here receives the final
+     * status without the client ever sending its body. Implementations reject a request by throwing an exception,
+     * which is handled like an exception thrown by the route.
+     *
+     * <p>By default requests with an expectation other than {@code 100-continue} are rejected with
+     * {@link HttpStatus#EXPECTATION_FAILED}.</p>
+     *
+     * @param exchange      The exchange
+     * @param routeMetadata The annotation metadata of the route the request was routed to
+     * @since 2.2.0
+     */
+    protected void validateRequest(ServletExchange<Req, Res> exchange, AnnotationMetadata routeMetadata) {
+        final String expect = exchange.getRequest().getHeaders().get(HttpHeaders.EXPECT);
+        if (expect != null && !EXPECT_CONTINUE.equalsIgnoreCase(expect.trim())) {
+            throw new HttpStatusException(HttpStatus.EXPECTATION_FAILED, "Unsupported expectation [" + expect + "]");
+        }
+    }
+
+    /**
+     * Resolves the timeout of a route, either declared with {@link RequestTimeout} or the global
+     * {@link #getRequestTimeout() request timeout}.
+     *
+     * @param route The route
+     * @return The timeout or null if the request has no timeout
+     */
+    private @Nullable Duration resolveRequestTimeout(RouteMatch<?> route) {
+        final Duration routeTimeout = routeTimeouts.computeIfAbsent(
+                route.getAnnotationMetadata(),
+                metadata -> metadata.getValue(RequestTimeout.class, Duration.class)
+        ).orElse(null);
+        return routeTimeout != null ? routeTimeout : getRequestTimeout();
+    }
+
+    /**
+     * Resolves the names of the form fields a route binds, so that other fields can be skipped while a form body is
+     * decoded. Routes that may read fields by other names, such as routes that bind the whole body, a map or the
+     * request, need all the fields.
+     *
+     * @param route The route
+     * @return The names of the fields, or empty if the route needs all the fields
+     */
+    private Optional<Set<String>> resolveFormFieldNames(UriRouteMatch<Object, Object> route) {
+        return formFieldNames.computeIfAbsent(route.getRoute(), r -> {
+            final Set<String> names = new HashSet<>();
+            for (Argument<?> argument : route.getArguments()) {
+                final AnnotationMetadata metadata = argument.getAnnotationMetadata();
+                String name = metadata.stringValue(Body.class).orElse(null);
+                if ((name == null && metadata.hasAnnotation(Body.class)) || !isFormValueType(argument)) {
+                    return Optional.empty();
+                }
+                if (name == null) {
+                    name = metadata.stringValue(Bindable.class).orElse(argument.getName());
+                }
+                names.add(name);
+            }
+            return Optional.of(names);
+        });
+    }
+
+    private boolean isFormValueType(Argument<?> argument) {
+        Class<?> type = argument.getType();
+        if (type == Optional.class || Iterable.class.isAssignableFrom(type)) {
+            type = argument.getFirstTypeVariable().map(Argument::getType).orElse(Object.class);
+        } else if (type.isArray()) {
+            type = type.getComponentType();
+        }
+        return type.isPrimitive() || type.isEnum() || ClassUtils.isJavaLangType(type) || type.getName().startsWith("java.time.");
+    }
+
+    /**
+     * Works out why no route matched the request. The outcome only depends on the method, path and the type of the
+     * content type of the request, so it is cached to spare unmatched requests from walking all routes again.
+     *
+     * @param req The request
+     * @return The route miss
+     */
+    private RouteMiss resolveRouteMiss(HttpRequest<Object> req) {
+        // the query string does not affect route matching, so requests differing only in the query share an entry
+        final String path = req.getPath();
+        final MediaType contentType = req.getContentType().orElse(null);
+        final String methodName = req.getMethodName();
+        // routes consume a type and subtype, so parameters such as a multipart boundary are left out of the key
+        final String key = methodName + ' ' + path + ' ' + (contentType != null ? contentType.getName() : null);
+        RouteMiss routeMiss = routeMisses.get(key);
+        if (routeMiss == null) {
+            final List<UriRouteMatch<Object, Object>> anyMatches = router.findAny(path, req).collect(Collectors.toList());
+            final Set<String> existingRouteMethods = anyMatches.stream()
+                    .map(UriRouteMatch::getRoute)
+                    .map(UriRoute::getHttpMethodName)
+                    .collect(Collectors.toSet());
+            if (existingRouteMethods.isEmpty()) {
+                routeMiss = RouteMiss.NOT_FOUND;
+            } else if (existingRouteMethods.contains(methodName)) {
+                // must be invalid mime type
+                if (contentType != null && anyMatches.stream().noneMatch(rm -> rm.doesConsume(contentType))) {
+                    routeMiss = RouteMiss.UNSUPPORTED_MEDIA_TYPE;
+                } else {
+                    routeMiss = RouteMiss.NOT_FOUND;
+                }
+            } else {
+                routeMiss = new RouteMiss(HttpStatus.METHOD_NOT_ALLOWED, Collections.unmodifiableSet(existingRouteMethods));
+            }
+            routeMisses.put(key, routeMiss);
+        }
+        return routeMiss;
+    }
+
+    private ThrottledErrorLogger resolveErrorLogger() {
+        return new ThrottledErrorLogger(
+                LOG,
+                applicationContext.findBean(ErrorLoggingConfiguration.class).orElseGet(ErrorLoggingConfiguration::new)
+        );
+    }
+
+    private <E> EventListeners<E> resolveEventListeners(Class<E> eventType) {
+        final Collection<BeanDefinition<ApplicationEventListener>> definitions = applicationContext.getBeanDefinitions(
+                ApplicationEventListener.class,
+                Qualifiers.byTypeArguments(eventType)
+        );
+        if (definitions.isEmpty()) {
+            //noinspection unchecked
+            return (EventListeners<E>) EventListeners.NONE;
+        }
+        // only singletons can be kept, other scopes are looked up for every event
+        if (definitions.stream().allMatch(BeanDefinition::isSingleton)) {
+            return new EventListeners<>(lookupEventListeners(eventType), null);
+        }
+        return new EventListeners<>(null, () -> lookupEventListeners(eventType));
+    }
+
+    private <E> List<ApplicationEventListener<E>> lookupEventListeners(Class<E> eventType) {
+        @SuppressWarnings("unchecked")
+        final Collection<ApplicationEventListener<E>> beans = (Collection) applicationContext.getBeansOfType(
+                ApplicationEventListener.class,
+                Qualifiers.byTypeArguments(eventType)
+        );
+        if (beans.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<ApplicationEventListener<E>> listeners = new ArrayList<>(beans);
+        OrderUtil.sort(listeners);
+        return Collections.unmodifiableList(listeners);
+    }
+
+    /**
+     * The request to publish a request event for. Listeners notified on another thread receive a copy of the
+     * request, as the container may recycle the request once it has completed.
+     *
+     * @param request The request
+     * @param executor The executor the listeners are notified on, null if notified on the request thread
+     * @return The request or a copy of it
+     */
+    private static HttpRequest<?> eventSource(HttpRequest<?> request, @Nullable Executor executor) {
+        if (executor == null) {
+            return request;
+        }
+        final SimpleHttpRequest<Object> snapshot = new SimpleHttpRequest<>(request.getMethod(), request.getUri().toString(), null);
+        final MutableHttpHeaders headers = snapshot.getHeaders();
+        request.getHeaders().forEach((name, values) -> {
+            for (String value : values) {
+                headers.add(name, value);
+            }
+        });
+        request.getAttributes().forEach(snapshot::setAttribute);
+        return snapshot;
+    }
+
+    private <E> void publishRequestEvent(EventListeners<E> listeners, E event, @Nullable Executor executor) {
+        if (executor != null) {
+            executor.execute(() -> {
+                try {
+                    notifyListeners(listeners.get(), event);
+                } catch (Throwable e) {
+                    errorLogger.error(e, "Error notifying listener of event [{}]: {}", event.getClass().getSimpleName(), e.getMessage());
+                }
+            });
+        } else {
+            notifyListeners(listeners.get(), event);
+        }
+    }
+
+    private <E> void notifyListeners(List<ApplicationEventListener<E>> listeners, E event) {
+        for (ApplicationEventListener<E> listener : listeners) {
+            if (listener.supports(event)) {
+                listener.onApplicationEvent(event);
+            }
+        }
+    }
+
     private void emitError(ServletExchange<Req, Res> exchange,
                            MutableHttpResponse<Object> res,
                            HttpRequest<Object> req,
@@ -304,8 +592,7 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
     }
 
     private void handleStatusRoute(ServletExchange<Req, Res> exchange, MutableHttpResponse<Object> res, HttpRequest<Object> req, HttpStatus httpStatus) {
-        final RouteMatch<Object> notFoundRoute =
-                router.route(httpStatus).orElse(null);
+        final RouteMatch<Object> notFoundRoute = lookupStatusRoute(null, httpStatus);
 
         if (notFoundRoute != null) {
             invokeRouteMatch(req, res, notFoundRoute, true, exchange);
@@ -359,6 +646,14 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
 
         try {
 
+            if (isDirectlyExecutable(req, route, isErrorRoute)) {
+                executeRouteDirectly(req, res, route, isErrorRoute, exchange);
+                return;
+            }
+            if (isCompletionStageExecutable(req, route, isErrorRoute, exchange)) {
+                executeCompletionStageRoute(req, res, route, isErrorRoute, exchange);
+                return;
+            }
             Publisher<? extends MutableHttpResponse<?>> responsePublisher = buildResponsePublisher(req, res, route, isErrorRoute);
             final AnnotationMetadata annotationMetadata = route.getAnnotationMetadata();
             subscribeToResponsePublisher(req, res, route, isErrorRoute, exchange, responsePublisher, annotationMetadata);
@@ -375,9 +670,50 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                                               Publisher<? extends MutableHttpResponse<?>> responsePublisher,
                                               AnnotationMetadata annotationMetadata) {
         final ServletHttpRequest<Req, ? super Object> exchangeRequest = exchange.getRequest();
-        boolean isAsyncSupported = exchangeRequest.isAsyncSupported();
-        final Flowable<? extends MutableHttpResponse<?>> responseFlowable = Flowable.fromPublisher(responsePublisher)
-                .flatMap(response -> {
+        final Flowable<? extends MutableHttpResponse<?>> responseFlowable = buildResponseFlowable(
+                req, res, route, isErrorRoute, exchange, responsePublisher, annotationMetadata);
+
+        if (exchangeRequest.isAsyncSupported()) {
+
+            final Disposable disposable = Flowable.fromPublisher(exchangeRequest.subscribeOnExecutor(responseFlowable))
+                    .subscribe(response -> {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Request [{} - {}] completed successfully", req.getMethodName(), req.getUri());
+                        }
+                    }, throwable -> {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Request [{} - {}] completed with error: {}", req.getMethodName(), req.getUri(), throwable.getMessage(), throwable);
+                        }
+                    });
+            // cancel the processing if the client disconnects before the response is sent
+            exchangeRequest.addAbortListener(disposable::dispose);
+
+        } else {
+            responseFlowable
+                    .blockingSubscribe(response -> {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Request [{} - {}] completed successfully", req.getMethodName(), req.getUri());
+                        }
+                    }, throwable -> {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Request [{} - {}] completed with error: {}", req.getMethodName(), req.getUri(), throwable.getMessage(), throwable);
+                        }
+                    });
+        }
+    }
+
+    private Flowable<? extends MutableHttpResponse<?>> buildResponseFlowable(HttpRequest<Object> req,
+                                                                             MutableHttpResponse<Object> res,
+                                                                             RouteMatch<?> route,
+                                                                             boolean isErrorRoute,
+                                                                             ServletExchange<Req, Res> exchange,
+                                                                             Publisher<? extends MutableHttpResponse<?>> responsePublisher,
+                                                                             AnnotationMetadata annotationMetadata) {
+        boolean isAsyncSupported = exchange.getRequest().isAsyncSupported();
+        final RequestDeadline deadline = isErrorRoute || route == null ? null : RequestDeadline.find(req).orElse(null);
+        final ResponseClaim claim = isErrorRoute || route == null ? null : responseClaim(exchange, deadline);
+        Flowable<MutableHttpResponse<?>> responseFlowable = Flowable.fromPublisher(responsePublisher)
+                .<MutableHttpResponse<?>>flatMap(response -> {
                     final HttpStatus status = response.status();
                     Object body = response.body();
 
@@ -387,6 +723,7 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                             if (isSingle) {
                                 Flowable<?> flowable = Publishers.convertPublisher(body, Flowable.class);
                                 return flowable.map((Function<Object, MutableHttpResponse<?>>) o -> {
+                                    claimResponse(claim);
                                     if (o instanceof HttpResponse) {
                                         encodeResponse(exchange, annotationMetadata, (HttpResponse<?>) o);
                                         return res;
@@ -406,9 +743,7 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                                                 true
                                         ));
                                         return notFoundFlowable.onErrorReturn(throwable -> {
-                                            if (LOG.isErrorEnabled()) {
-                                                LOG.error("Error occuring invoking 404 handler: " + throwable.getMessage());
-                                            }
+                                            errorLogger.error(throwable, "Error occuring invoking 404 handler: {}", throwable.getMessage());
                                             MutableHttpResponse<Object> defaultNotFound = errorResponseProcessor.processResponse(
                                                     ErrorContext.builder(req).build(),
                                                     res.status(404));
@@ -426,12 +761,15 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                                 // stream case
                                 Flowable<?> flowable = Publishers.convertPublisher(body, Flowable.class);
                                 if (isAsyncSupported) {
-                                    final ServletHttpResponse<Res, ? super Object> servletResponse = exchange.getResponse();
-                                    setHeadersFromMetadata(exchange.getResponse(), annotationMetadata, body);
-                                    return servletResponse.stream(flowable);
+                                    return claimBeforeWriting(claim, () -> {
+                                        final ServletHttpResponse<Res, ? super Object> servletResponse = exchange.getResponse();
+                                        setHeadersFromMetadata(exchange, annotationMetadata, body);
+                                        return servletResponse.stream(flowable);
+                                    });
                                 } else {
                                     // fallback to blocking
                                     return flowable.toList().map(list -> {
+                                        claimResponse(claim);
                                         final ServletHttpResponse<Res, ? super Object> servletHttpResponse = exchange.getResponse();
                                         encodeResponse(exchange, annotationMetadata, servletHttpResponse.body(list));
                                         return servletHttpResponse;
@@ -443,7 +781,7 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                             if (!isErrorRoute && status.getCode() >= 400) {
                                 final RouteMatch<Object> errorRoute = lookupStatusRoute(route, status);
                                 if (errorRoute != null) {
-                                    return buildErrorRouteHandler(exchange, req, (MutableHttpResponse<Object>) response, errorRoute);
+                                    return buildErrorRouteHandler(exchange, req, (MutableHttpResponse<Object>) response, errorRoute, claim);
                                 }
                             }
                         }
@@ -453,70 +791,110 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                         Class<?> bodyType = body.getClass();
                         ServletResponseEncoder<Object> responseEncoder = (ServletResponseEncoder<Object>) responseEncoders.get(bodyType);
                         if (responseEncoder != null) {
-                            return responseEncoder.encode(exchange, annotationMetadata, body);
+                            return claimBeforeWriting(claim, () -> responseEncoder.encode(exchange, annotationMetadata, body));
                         }
                     }
 
                     if (!isErrorRoute && status.getCode() >= 400) {
                         final RouteMatch<Object> errorRoute = lookupStatusRoute(route, status);
                         if (errorRoute != null) {
-                            return buildErrorRouteHandler(exchange, req, (MutableHttpResponse<Object>) response, errorRoute);
+                            return buildErrorRouteHandler(exchange, req, (MutableHttpResponse<Object>) response, errorRoute, claim);
                         }
                     }
 
                     return Flowable.fromCallable(() -> {
+                        claimResponse(claim);
                         encodeResponse(exchange, annotationMetadata, response);
                         return response;
                     });
-                }).onErrorResumeNext(throwable -> {
-                    handleException(req, res, route, isErrorRoute, throwable, exchange);
-                    return Flowable.error(throwable);
                 });
 
-        if (isAsyncSupported) {
-
-            //noinspection ResultOfMethodCallIgnored
-            Flowable.fromPublisher(exchangeRequest.subscribeOnExecutor(responseFlowable))
-                    .subscribe(response -> {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Request [{} - {}] completed successfully", req.getMethodName(), req.getUri());
-                        }
-                    }, throwable -> {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Request [" + req.getMethodName() + " - " + req.getUri() + "] completed with error: " + throwable.getMessage(), throwable);
-                        }
-                    });
-
-        } else {
-            responseFlowable
-                    .blockingSubscribe(response -> {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Request [{} - {}] completed successfully", req.getMethodName(), req.getUri());
-                        }
-                    }, throwable -> {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Request [" + req.getMethodName() + " - " + req.getUri() + "] completed with error: " + throwable.getMessage(), throwable);
-                        }
-                    });
+        if (deadline != null) {
+            // the timer runs on a container thread of the request and only fires if the route has not started writing
+            // the response, so that the 503 response and the route's response are never written concurrently
+            final Flowable<Long> timeout = Flowable.timer(
+                    deadline.getRemaining().toNanos(),
+                    TimeUnit.NANOSECONDS,
+                    Schedulers.from(exchange.getRequest().getAsyncExecutor())
+            ).filter(tick -> claim.claimForDeadline()).concatWith(Flowable.never());
+            responseFlowable = responseFlowable.timeout(timeout, response -> Flowable.never());
         }
+        return responseFlowable.onErrorResumeNext(throwable -> {
+            Throwable error = throwable;
+            if (deadline != null && error instanceof TimeoutException && deadline.isExpired()) {
+                error = new HttpStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Request processing exceeded the timeout of " + deadline.getTimeout());
+            }
+            handleException(req, res, route, isErrorRoute, error, exchange);
+            return Flowable.error(error);
+        });
     }
 
     private Publisher<? extends MutableHttpResponse<?>> buildErrorRouteHandler(
             ServletExchange<Req, Res> exchange,
             HttpRequest<Object> request,
             MutableHttpResponse<Object> response,
-            RouteMatch<Object> errorRoute) {
-        return Publishers.map(buildResponsePublisher(
+            RouteMatch<Object> errorRoute,
+            @Nullable ResponseClaim claim) {
+        return Flowable.fromPublisher(buildResponsePublisher(
                 request,
                 response,
                 errorRoute,
                 true
-        ), servletResponse -> {
+        )).map(servletResponse -> {
+            claimResponse(claim);
             encodeResponse(exchange, errorRoute.getAnnotationMetadata(), servletResponse);
             return servletResponse;
         });
     }
 
+    /**
+     * @param exchange The exchange
+     * @param deadline The deadline of the request, can be null
+     * @return The claim of the request, or null if the request cannot time out
+     */
+    private static @Nullable ResponseClaim responseClaim(ServletExchange<?, ?> exchange, @Nullable RequestDeadline deadline) {
+        final ServletHttpRequest<?, ?> request = exchange.getRequest();
+        // only asynchronous requests can be timed out by the container
+        final ResponseClaim claim = request.isAsyncSupported() ? request.getResponseClaim() : null;
+        if (claim == null && deadline != null) {
+            return new ResponseClaim();
+        }
+        return claim;
+    }
+
+    /**
+     * Claims the response for the route before it is written. Fails if the request timed out first, in which case the
+     * timeout responds instead.
+     *
+     * @param claim The claim of the request, null if the request cannot time out
+     * @throws TimeoutException If the timeout claimed the response first
+     */
+    private static void claimResponse(@Nullable ResponseClaim claim) throws TimeoutException {
+        if (claim != null && !claim.claimForRoute()) {
+            throw new TimeoutException();
+        }
+    }
+
+    /**
+     * Claims the response for the route once the given writer is subscribed.
+     *
+     * @param claim The claim of the request, null if the request cannot time out
+     * @param writer Supplies the publisher that writes the response
+     * @return The publisher
+     * @throws Exception If the writer fails
+     */
+    private static Publisher<MutableHttpResponse<?>> claimBeforeWriting(
+            @Nullable ResponseClaim claim,
+            Callable<Publisher<MutableHttpResponse<?>>> writer) throws Exception {
+        if (claim == null) {
+            return writer.call();
+        }
+        return Flowable.defer(() -> {
+            claimResponse(claim);
+            return writer.call();
+        });
+    }
+
     private Publisher<? extends MutableHttpResponse<?>> buildResponsePublisher(
             HttpRequest<Object> req,
             MutableHttpResponse<Object> res,
@@ -524,137 +902,419 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
             boolean isErrorRoute) {
         Publisher<? extends MutableHttpResponse<?>> responsePublisher
                 = Flowable.<MutableHttpResponse<?>>defer(() -> {
-            RouteMatch<?> computedRoute = route;
-            if (!computedRoute.isExecutable()) {
-                computedRoute = requestArgumentSatisfier.fulfillArgumentRequirements(
-                        computedRoute,
-                        req,
-                        false
-                );
+            final RouteMatch<?> computedRoute = fulfillRoute(req, route);
+            final Publisher<?> conditions = req instanceof ServletHttpRequest
+                    ? ((ServletHttpRequest<?, ?>) req).takeExecutionConditions()
+                    : null;
+            if (conditions != null) {
+                return Flowable.fromPublisher(conditions)
+                        .ignoreElements()
+                        .andThen(Flowable.<MutableHttpResponse<?>>defer(() -> executeRoute(req, res, route, computedRoute)));
             }
-            if (!computedRoute.isExecutable() && HttpMethod.permitsRequestBody(req.getMethod()) && !computedRoute.getBodyArgument().isPresent()) {
-                final ConvertibleValues<?> convertibleValues = req.getBody(ConvertibleValues.class).orElse(null);
-                if (convertibleValues != null) {
+            return executeRoute(req, res, route, computedRoute);
+        });
+        return filterPublisher(new AtomicReference<>(req), responsePublisher, isErrorRoute);
+    }
+
+    /**
+     * Executes a route whose arguments have been bound and builds the response from its result.
+     *
+     * @param req The request
+     * @param res The response
+     * @param route The route
+     * @param computedRoute The route with its arguments fulfilled
+     * @return A publisher that emits the response
+     * @throws Exception If the route fails
+     */
+    private Publisher<? extends MutableHttpResponse<?>> executeRoute(
+            HttpRequest<Object> req,
+            MutableHttpResponse<Object> res,
+            RouteMatch<?> route,
+            RouteMatch<?> computedRoute) throws Exception {
+        Object result = ServerRequestContext.with(req, (Callable<Object>) computedRoute::execute);
+        if (result instanceof Optional) {
+            result = ((Optional<?>) result).orElse(null);
+        }
+        MutableHttpResponse<Object> httpResponse;
+        if (result instanceof MutableHttpResponse) {
+            httpResponse = (MutableHttpResponse<Object>) result;
+            result = httpResponse.body();
+        } else {
+            httpResponse = res;
+        }
+        final ReturnType<?> returnType = computedRoute.getReturnType();
+        final Argument<?> genericReturnType = returnType.asArgument();
+        boolean isSuspended = route.isSuspended();
+        if (result == null) {
+            return Publishers.just(resolveEmptyResponse(httpResponse, returnType));
+        }
+
+        Argument<?> firstArg = genericReturnType.getFirstTypeVariable().orElse(null);
+        result = adaptFuture(result);
 
-                    final Collection<Argument> requiredArguments = route.getRequiredArguments();
-                    Map<String, Object> newValues = new HashMap<>(requiredArguments.size());
-                    for (Argument<?> requiredArgument : requiredArguments) {
-                        final String name = requiredArgument.getName();
-                        convertibleValues.get(name, requiredArgument).ifPresent(v -> newValues.put(name, v));
+        if (firstArg != null && HttpResponse.class.isAssignableFrom(firstArg.getType()) && Publishers.isConvertibleToPublisher(result)) {
+            //noinspection unchecked
+            return Publishers.convertPublisher(result, Flowable.class);
+        } else {
+            if (isSuspended) {
+                boolean isKotlinFunctionReturnTypeUnit =
+                        route instanceof MethodBasedRouteMatch &&
+                                isKotlinFunctionReturnTypeUnit(((MethodBasedRouteMatch) route).getExecutableMethod());
+                final Supplier<CompletableFuture<?>> supplier = ContinuationArgumentBinder.extractContinuationCompletableFutureSupplier(req);
+                if (isKotlinCoroutineSuspended(result)) {
+                    return Flowable.create(emitter -> {
+                        CompletableFuture<?> f = supplier.get();
+                        f.whenComplete((o, throwable) -> {
+                            if (throwable != null) {
+                                emitter.onError(throwable);
+                            } else {
+                                if (o == null) {
+                                    emitter.onNext(httpResponse.status(HttpStatus.NOT_FOUND));
+                                } else {
+                                    if (!isKotlinFunctionReturnTypeUnit) {
+                                        httpResponse.body(o);
+                                    }
+                                    emitter.onNext(httpResponse);
+                                }
+                                emitter.onComplete();
+                            }
+                        });
+                    }, BackpressureStrategy.ERROR);
+                } else {
+                    Object suspendedBody;
+                    if (isKotlinFunctionReturnTypeUnit) {
+                        suspendedBody = Completable.complete();
+                    } else {
+                        suspendedBody = result;
                     }
-                    if (CollectionUtils.isNotEmpty(newValues)) {
-                        computedRoute = computedRoute.fulfill(
-                                newValues
-                        );
+                    if (suspendedBody instanceof HttpResponse) {
+                        return Publishers.just(httpResponse);
+                    } else {
+                        return Publishers.just(httpResponse.body(suspendedBody));
                     }
                 }
+            } else {
+                return Publishers.just(
+                        httpResponse.body(result)
+                );
             }
+        }
+    }
 
-            RouteMatch<?> finalComputedRoute = computedRoute;
-            Object result = ServerRequestContext.with(req, (Callable<Object>) finalComputedRoute::execute);
-            if (result instanceof Optional) {
-                result = ((Optional<?>) result).orElse(null);
-            }
-            MutableHttpResponse<Object> httpResponse;
-            if (result instanceof MutableHttpResponse) {
-                httpResponse = (MutableHttpResponse<Object>) result;
-                result = httpResponse.body();
-            } else {
-                httpResponse = res;
-            }
-            final ReturnType<?> returnType = computedRoute.getReturnType();
-            final Argument<?> genericReturnType = returnType.asArgument();
-            final Class<?> javaReturnType = returnType.getType();
-            boolean isSuspended = route.isSuspended();
-            if (result == null) {
-                boolean isVoid = javaReturnType == void.class ||
-                        Completable.class.isAssignableFrom(javaReturnType) ||
-                        (genericReturnType.getFirstTypeVariable()
-                                .map(arg -> arg.getType() == Void.class).orElse(false));
-                if (isVoid) {
-                    return Publishers.just(httpResponse);
-                } else {
-                    if (!HttpResponse.class.isAssignableFrom(javaReturnType) && httpResponse.status() == HttpStatus.OK) {
-                        httpResponse.status(HttpStatus.NOT_FOUND);
-                    }
-                    return Publishers.just(httpResponse);
+    /**
+     * Binds the arguments of the route that are not yet satisfied from the request.
+     *
+     * @param req The request
+     * @param route The route
+     * @return The route with its arguments fulfilled where possible
+     */
+    private RouteMatch<?> fulfillRoute(HttpRequest<Object> req, RouteMatch<?> route) {
+        RouteMatch<?> computedRoute = route;
+        if (!computedRoute.isExecutable()) {
+            computedRoute = requestArgumentSatisfier.fulfillArgumentRequirements(
+                    computedRoute,
+                    req,
+                    false
+            );
+        }
+        if (!computedRoute.isExecutable() && HttpMethod.permitsRequestBody(req.getMethod()) && !computedRoute.getBodyArgument().isPresent()) {
+            final ConvertibleValues<?> convertibleValues = req.getBody(ConvertibleValues.class).orElse(null);
+            if (convertibleValues != null) {
+
+                final Collection<Argument> requiredArguments = route.getRequiredArguments();
+                Map<String, Object> newValues = new HashMap<>(requiredArguments.size());
+                for (Argument<?> requiredArgument : requiredArguments) {
+                    final String name = requiredArgument.getName();
+                    convertibleValues.get(name, requiredArgument).ifPresent(v -> newValues.put(name, v));
+                }
+                if (CollectionUtils.isNotEmpty(newValues)) {
+                    computedRoute = computedRoute.fulfill(
+                            newValues
+                    );
                 }
             }
+        }
+        return computedRoute;
+    }
 
-            Argument<?> firstArg = genericReturnType.getFirstTypeVariable().orElse(null);
-            if (result instanceof Future) {
-                if (result instanceof CompletionStage) {
-                    CompletionStage<?> cs = (CompletionStage<?>) result;
-                    result = Maybe.create(emitter -> cs.whenComplete((o, throwable) -> {
+    /**
+     * Resolves the response of a route that returned no result. Routes that are not declared void respond with
+     * {@link HttpStatus#NOT_FOUND} unless they already set a status.
+     *
+     * @param httpResponse The response
+     * @param returnType The return type of the route
+     * @return The response
+     */
+    private MutableHttpResponse<Object> resolveEmptyResponse(MutableHttpResponse<Object> httpResponse, ReturnType<?> returnType) {
+        final Class<?> javaReturnType = returnType.getType();
+        boolean isVoid = javaReturnType == void.class ||
+                Completable.class.isAssignableFrom(javaReturnType) ||
+                (returnType.asArgument().getFirstTypeVariable()
+                        .map(arg -> arg.getType() == Void.class).orElse(false));
+        if (!isVoid && !HttpResponse.class.isAssignableFrom(javaReturnType) && httpResponse.status() == HttpStatus.OK) {
+            httpResponse.status(HttpStatus.NOT_FOUND);
+        }
+        return httpResponse;
+    }
+
+    /**
+     * Adapts a {@link Future} result to a reactive type. Futures that accept completion callbacks are adapted without
+     * blocking, other futures block an I/O thread until they complete. Disposing the result cancels the future.
+     *
+     * @param result The result of a route
+     * @return The adapted result or the result itself if it is not a future
+     */
+    private Object adaptFuture(Object result) {
+        if (result instanceof Future) {
+            if (result instanceof CompletionStage) {
+                CompletionStage<?> cs = (CompletionStage<?>) result;
+                return Maybe.create(emitter -> {
+                    // propagate the cancellation of the response, for example on abort, to the route
+                    emitter.setCancellable(() -> ((Future<?>) result).cancel(true));
+                    cs.whenComplete((o, throwable) -> {
                         if (throwable != null) {
                             emitter.onError(throwable);
+                        } else if (o != null) {
+                            emitter.onSuccess(o);
                         } else {
-                            if (o != null) {
-                                emitter.onSuccess(o);
-                            } else {
-                                emitter.onComplete();
-                            }
+                            emitter.onComplete();
                         }
-                    }));
-                } else {
-                    result = Single.fromFuture((Future<?>) result);
-                }
+                    });
+                });
+            } else {
+                final Maybe<Object> listenable = ListenableFutureAdapter.adapt((Future<?>) result);
+                return listenable != null ? listenable : ListenableFutureAdapter.await((Future<?>) result);
             }
+        }
+        return result;
+    }
 
-            if (firstArg != null && HttpResponse.class.isAssignableFrom(firstArg.getType()) && Publishers.isConvertibleToPublisher(result)) {
-                //noinspection unchecked
-                return Publishers.convertPublisher(result, Flowable.class);
-            } else {
-                if (isSuspended) {
-                    boolean isKotlinFunctionReturnTypeUnit =
-                            route instanceof MethodBasedRouteMatch &&
-                                    isKotlinFunctionReturnTypeUnit(((MethodBasedRouteMatch) route).getExecutableMethod());
-                    final Supplier<CompletableFuture<?>> supplier = ContinuationArgumentBinder.extractContinuationCompletableFutureSupplier(req);
-                    if (isKotlinCoroutineSuspended(result)) {
-                        return Flowable.create(emitter -> {
-                            CompletableFuture<?> f = supplier.get();
-                            f.whenComplete((o, throwable) -> {
-                                if (throwable != null) {
-                                    emitter.onError(throwable);
-                                } else {
-                                    if (o == null) {
-                                        emitter.onNext(httpResponse.status(HttpStatus.NOT_FOUND));
-                                    } else {
-                                        if (!isKotlinFunctionReturnTypeUnit) {
-                                            httpResponse.body(o);
-                                        }
-                                        emitter.onNext(httpResponse);
-                                    }
-                                    emitter.onComplete();
+    /**
+     * Whether the route can be executed and its response written on the calling thread, without building a reactive
+     * pipeline. This is the case for routes with a non-reactive return type when no filter or timeout applies to the
+     * request.
+     *
+     * @param req The request
+     * @param route The route
+     * @param isErrorRoute Whether the route is an error route
+     * @return True if the route can be executed directly
+     */
+    private boolean isDirectlyExecutable(HttpRequest<Object> req, RouteMatch<?> route, boolean isErrorRoute) {
+        if (route.isSuspended()) {
+            return false;
+        }
+        final Class<?> javaReturnType = route.getReturnType().getType();
+        if (Future.class.isAssignableFrom(javaReturnType) || Publishers.isConvertibleToPublisher(javaReturnType)) {
+            return false;
+        }
+        return !hasStreamingArguments(route) &&
+                (isErrorRoute || !RequestDeadline.find(req).isPresent()) &&
+                resolveFilters(req).get(isErrorRoute).length == 0;
+    }
+
+    /**
+     * Whether the route consumes the request body as a stream. Streamed bodies are read with non-blocking I/O
+     * which requires the request to be in asynchronous mode before the arguments are bound.
+     *
+     * @param route The route
+     * @return True if any argument is a reactive type, a {@link CompletionStage} or a streaming file upload
+     */
+    private boolean hasStreamingArguments(RouteMatch<?> route) {
+        for (Argument<?> argument : route.getRequiredArguments()) {
+            final Class<?> type = argument.getType();
+            if (Publishers.isConvertibleToPublisher(type) ||
+                    CompletionStage.class.isAssignableFrom(type) ||
+                    StreamingFileUpload.class.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the route returns a {@link CompletionStage} whose result can be written directly once it completes,
+     * without adapting it to a reactive type. This requires asynchronous support from the container and that no
+     * filter or timeout applies to the request.
+     *
+     * @param req The request
+     * @param route The route
+     * @param isErrorRoute Whether the route is an error route
+     * @param exchange The exchange
+     * @return True if the route can be executed directly
+     */
+    private boolean isCompletionStageExecutable(HttpRequest<Object> req,
+                                                RouteMatch<?> route,
+                                                boolean isErrorRoute,
+                                                ServletExchange<Req, Res> exchange) {
+        if (route.isSuspended() || !CompletionStage.class.isAssignableFrom(route.getReturnType().getType())) {
+            return false;
+        }
+        final ServletHttpRequest<Req, ? super Object> exchangeRequest = exchange.getRequest();
+        return exchangeRequest.isAsyncSupported() &&
+                !exchangeRequest.isAsyncStarted() &&
+                !hasStreamingArguments(route) &&
+                (isErrorRoute || !RequestDeadline.find(req).isPresent()) &&
+                resolveFilters(req).get(isErrorRoute).length == 0;
+    }
+
+    /**
+     * Executes a route that returns a {@link CompletionStage} and writes its response when the stage completes,
+     * keeping the request in asynchronous mode in the meantime.
+     *
+     * @param req The request
+     * @param res The response
+     * @param route The route
+     * @param isErrorRoute Whether the route is an error route
+     * @param exchange The exchange
+     */
+    private void executeCompletionStageRoute(
+            HttpRequest<Object> req,
+            MutableHttpResponse<Object> res,
+            RouteMatch<?> route,
+            boolean isErrorRoute,
+            ServletExchange<Req, Res> exchange) {
+        final RouteMatch<?> computedRoute = fulfillRoute(req, route);
+        final Object result = ServerRequestContext.with(req, (Callable<Object>) computedRoute::execute);
+        if (!(result instanceof CompletionStage)) {
+            writeDirectResult(req, res, route, computedRoute, isErrorRoute, exchange, result);
+            return;
+        }
+        final AnnotationMetadata annotationMetadata = route.getAnnotationMetadata();
+        final ServletHttpRequest<Req, ? super Object> exchangeRequest = exchange.getRequest();
+        final ResponseClaim claim = exchangeRequest.getResponseClaim();
+        final Runnable complete = exchangeRequest.startAsync();
+        final AtomicBoolean aborted = new AtomicBoolean();
+        exchangeRequest.addAbortListener(() -> {
+            aborted.set(true);
+            if (result instanceof Future) {
+                // propagate the cancellation to the route, the result can no longer be sent
+                ((Future<?>) result).cancel(true);
+            }
+        });
+        ((CompletionStage<?>) result).whenComplete((value, throwable) -> {
+            boolean completed = true;
+            try {
+                if (aborted.get()) {
+                    return;
+                }
+                if (throwable != null) {
+                    // a reactive error route keeps the request open until its response is written, so running
+                    // complete below only releases this route's share of the request
+                    handleException(req, res, route, isErrorRoute, unwrapCompletionException(throwable), exchange);
+                } else if (value == null) {
+                    // an empty result is resolved by the pipeline, which may invoke a status route
+                    completed = false;
+                    //noinspection ResultOfMethodCallIgnored
+                    buildResponseFlowable(req, res, route, isErrorRoute, exchange, Publishers.just(res.body(Maybe.empty())), annotationMetadata)
+                            .doFinally(complete::run)
+                            .subscribe(response -> { }, error -> {
+                                if (LOG.isDebugEnabled()) {
+                                    LOG.debug("Request [{} - {}] completed with error: {}", req.getMethodName(), req.getUri(), error.getMessage(), error);
                                 }
                             });
-                        }, BackpressureStrategy.ERROR);
-                    } else {
-                        Object suspendedBody;
-                        if (isKotlinFunctionReturnTypeUnit) {
-                            suspendedBody = Completable.complete();
-                        } else {
-                            suspendedBody = result;
-                        }
-                        if (suspendedBody instanceof HttpResponse) {
-                            return Publishers.just(httpResponse);
-                        } else {
-                            return Publishers.just(httpResponse.body(suspendedBody));
-                        }
-                    }
+                } else if (claim != null && !claim.claimForRoute()) {
+                    // the container timed out the request and responded
+                    return;
+                } else if (value instanceof HttpResponse) {
+                    encodeResponse(exchange, annotationMetadata, (HttpResponse<?>) value);
                 } else {
-                    return Publishers.just(
-                            httpResponse.body(result)
-                    );
+                    encodeResponse(exchange, annotationMetadata, res.body(value));
+                }
+            } catch (Throwable e) {
+                handleException(req, res, route, isErrorRoute, e, exchange);
+            } finally {
+                if (completed) {
+                    complete.run();
                 }
             }
         });
-        return filterPublisher(new AtomicReference<>(req), responsePublisher, isErrorRoute);
+    }
+
+    /**
+     * Unwraps the exception a dependent stage completed with, so that error routes match the original exception.
+     *
+     * @param throwable The exception the stage completed with
+     * @return The cause of a {@link CompletionException}, otherwise the exception itself
+     */
+    private static Throwable unwrapCompletionException(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+
+    /**
+     * Executes a route and encodes its response on the calling thread. Results that turn out to need the reactive
+     * pipeline, such as streamed bodies, bodies with a custom {@link ServletResponseEncoder} and error statuses that
+     * may be handled by a status route, are handed over to it.
+     *
+     * @param req The request
+     * @param res The response
+     * @param route The route
+     * @param isErrorRoute Whether the route is an error route
+     * @param exchange The exchange
+     */
+    private void executeRouteDirectly(
+            HttpRequest<Object> req,
+            MutableHttpResponse<Object> res,
+            RouteMatch<?> route,
+            boolean isErrorRoute,
+            ServletExchange<Req, Res> exchange) {
+        final RouteMatch<?> computedRoute = fulfillRoute(req, route);
+        final Object result = ServerRequestContext.with(req, (Callable<Object>) computedRoute::execute);
+        writeDirectResult(req, res, route, computedRoute, isErrorRoute, exchange, result);
+    }
+
+    /**
+     * Encodes the result of a route on the calling thread, handing results that need it over to the reactive
+     * pipeline.
+     *
+     * @param req The request
+     * @param res The response
+     * @param route The route
+     * @param computedRoute The executed route
+     * @param isErrorRoute Whether the route is an error route
+     * @param exchange The exchange
+     * @param routeResult The result of the route
+     */
+    private void writeDirectResult(
+            HttpRequest<Object> req,
+            MutableHttpResponse<Object> res,
+            RouteMatch<?> route,
+            RouteMatch<?> computedRoute,
+            boolean isErrorRoute,
+            ServletExchange<Req, Res> exchange,
+            @Nullable Object routeResult) {
+        Object result = routeResult;
+        if (result instanceof Optional) {
+            result = ((Optional<?>) result).orElse(null);
+        }
+        MutableHttpResponse<Object> httpResponse;
+        if (result instanceof MutableHttpResponse) {
+            httpResponse = (MutableHttpResponse<Object>) result;
+            result = httpResponse.body();
+        } else {
+            httpResponse = res;
+        }
+        if (result == null) {
+            resolveEmptyResponse(httpResponse, computedRoute.getReturnType());
+        } else {
+            httpResponse.body(adaptFuture(result));
+        }
+
+        final AnnotationMetadata annotationMetadata = route.getAnnotationMetadata();
+        final Object body = httpResponse.body();
+        if ((!isErrorRoute && httpResponse.status().getCode() >= 400) ||
+                (body != null && (Publishers.isConvertibleToPublisher(body) || responseEncoders.containsKey(body.getClass())))) {
+            subscribeToResponsePublisher(req, res, route, isErrorRoute, exchange, Publishers.just(httpResponse), annotationMetadata);
+        } else {
+            encodeResponse(exchange, annotationMetadata, httpResponse);
+        }
     }
 
     private void encodeResponse(ServletExchange<Req, Res> exchange, AnnotationMetadata annotationMetadata, HttpResponse<?> response) {
         final Object body = response.getBody().orElse(null);
-        setHeadersFromMetadata(exchange.getResponse(), annotationMetadata, body);
+        setHeadersFromMetadata(exchange, annotationMetadata, body);
         if (LOG.isDebugEnabled()) {
             LOG.debug("Sending response {}", response.status());
             traceHeaders(response.getHeaders());
@@ -721,10 +1381,20 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
         }
     }
 
-    private void setHeadersFromMetadata(MutableHttpResponse<Object> res, AnnotationMetadata annotationMetadata, Object result) {
+    private void setHeadersFromMetadata(ServletExchange<Req, Res> exchange, AnnotationMetadata annotationMetadata, Object result) {
+        final ServletHttpResponse<Res, ? super Object> res = exchange.getResponse();
+        final ResponseMetadata responseMetadata = resolveResponseMetadata(annotationMetadata);
         if (!res.getContentType().isPresent()) {
-            final String contentType = annotationMetadata.stringValue(Produces.class)
-                    .orElse(getDefaultMediaType(result));
+            final String contentType;
+            if (responseMetadata.produces == null) {
+                contentType = getDefaultMediaType(result);
+            } else if (responseMetadata.producesTypes.length > 1) {
+                contentType = responseMetadata.negotiate(exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT));
+                // the selected representation depends on the accept header
+                res.header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            } else {
+                contentType = responseMetadata.produces;
+            }
             if (contentType != null) {
                 res.contentType(contentType);
             } else if (result instanceof CharSequence) {
@@ -732,16 +1402,24 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
             }
         }
 
-        annotationMetadata.enumValue(Status.class, HttpStatus.class)
-                .ifPresent(res::status);
-        final List<AnnotationValue<Header>> headers = annotationMetadata.getAnnotationValuesByType(Header.class);
-        for (AnnotationValue<Header> header : headers) {
-            final String value = header.stringValue().orElse(null);
-            final String name = header.stringValue("name").orElse(null);
-            if (name != null && value != null) {
-                res.header(name, value);
-            }
+        if (responseMetadata.status != null) {
+            res.status(responseMetadata.status);
+        }
+        if (responseMetadata.headerNames.length > 0) {
+            res.headers(responseMetadata.headerNames, responseMetadata.headerValues);
+        }
+    }
+
+    private ResponseMetadata resolveResponseMetadata(AnnotationMetadata annotationMetadata) {
+        if (annotationMetadata == AnnotationMetadata.EMPTY_METADATA) {
+            return ResponseMetadata.EMPTY;
         }
+        ResponseMetadata responseMetadata = responseMetadataCache.get(annotationMetadata);
+        if (responseMetadata == null) {
+            responseMetadata = new ResponseMetadata(annotationMetadata);
+            responseMetadataCache.putIfAbsent(annotationMetadata, responseMetadata);
+        }
+        return responseMetadata;
     }
 
     private String getDefaultMediaType(Object result) {
@@ -760,12 +1438,18 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
             boolean isErrorRoute,
             Throwable e,
             ServletExchange<Req, Res> exchange) {
+        final ResponseClaim claim = exchange.getRequest().getResponseClaim();
+        if (claim != null && !claim.claimForError()) {
+            // the container timed out the request and responded
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Request [{} - {}] timed out before the error could be handled: {}", req.getMethodName(), req.getUri(), e.getMessage());
+            }
+            return;
+        }
         req.setAttribute(HttpAttributes.ERROR, e);
         if (isErrorRoute) {
             // handle error default
-            if (LOG.isErrorEnabled()) {
-                LOG.error("Error occurred executing Error route [" + route + "]: " + e.getMessage(), e);
-            }
+            errorLogger.error(e, "Error occurred executing Error route [{}]: {}", route, e.getMessage());
             res.status(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
         } else {
             if (e instanceof UnsatisfiedRouteException || e instanceof ConversionErrorException) {
@@ -846,9 +1530,7 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
                     }
                 });
             } catch (Throwable ex) {
-                if (LOG.isErrorEnabled()) {
-                    LOG.error("Error occurred executing exception handler [" + exceptionHandler.getClass() + "]: " + e.getMessage(), e);
-                }
+                errorLogger.error(e, "Error occurred executing exception handler [{}]: {}", exceptionHandler.getClass(), e.getMessage());
                 emitError(exchange, res, req, (emitter) -> {
                     res.status(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
                     emitter.onNext(res);
@@ -857,12 +1539,10 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
             }
         } else {
             if (defaultStatus.getCode() >= 500) {
-                if (LOG.isErrorEnabled()) {
-                    LOG.error(defaultStatus.getReason() + ": " + e.getMessage(), e);
-                }
+                errorLogger.error(e, "{}: {}", defaultStatus.getReason(), e.getMessage());
             } else {
                 if (LOG.isDebugEnabled()) {
-                    LOG.debug(defaultStatus.getReason() + ": " + e.getMessage(), e);
+                    LOG.debug("{}: {}", defaultStatus.getReason(), e.getMessage(), e);
                 }
             }
             emitError(exchange, res, req, (emitter) -> {
@@ -874,73 +1554,459 @@ public abstract class ServletHttpHandler<Req, Res> implements AutoCloseable, Lif
         }
     }
 
-    @SuppressWarnings("unchecked")
     private ExceptionHandler<Throwable, ?> lookupExceptionHandler(Throwable e) {
         final Class<? extends Throwable> type = e.getClass();
-        return applicationContext.findBean(ExceptionHandler.class, Qualifiers.byTypeArgumentsClosest(type, Object.class))
-                .orElse(null);
+        Optional<Supplier<ExceptionHandler<Throwable, ?>>> handler = exceptionHandlers.get(type);
+        if (handler == null) {
+            handler = resolveExceptionHandler(type);
+            exceptionHandlers.put(type, handler);
+        }
+        return handler.map(Supplier::get).orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Supplier<ExceptionHandler<Throwable, ?>>> resolveExceptionHandler(Class<? extends Throwable> type) {
+        final Qualifier<ExceptionHandler> qualifier = Qualifiers.byTypeArgumentsClosest(type, Object.class);
+        final BeanDefinition<ExceptionHandler> definition =
+                applicationContext.findBeanDefinition(ExceptionHandler.class, qualifier).orElse(null);
+        if (definition == null) {
+            return Optional.empty();
+        }
+        if (definition.isSingleton()) {
+            final ExceptionHandler<Throwable, ?> exceptionHandler = applicationContext.getBean(definition);
+            return Optional.of(() -> exceptionHandler);
+        }
+        // other scopes are instantiated from the resolved definition for every failing request
+        return Optional.of(() -> applicationContext.getBean(definition));
     }
 
     private RouteMatch<Object> lookupErrorRoute(RouteMatch<?> route, Throwable e) {
-        if (route == null) {
-            return router.route(e).orElse(null);
-        } else {
-            return router.route(route.getDeclaringType(), e)
-                    .orElseGet(() -> router.route(e).orElse(null));
+        final Class<?> declaringType = route != null ? route.getDeclaringType() : null;
+        final RouteLookupKey key = new RouteLookupKey(declaringType, e.getClass());
+        final RouteLookup lookup = errorRouteLookups.get(key);
+        if (lookup != null) {
+            // error route matches are bound to the error, so only where the route was found is cached
+            switch (lookup) {
+                case LOCAL:
+                    return router.route(declaringType, e).orElse(null);
+                case GLOBAL:
+                    return router.route(e).orElse(null);
+                default:
+                    return null;
+            }
+        }
+        RouteMatch<Object> errorRoute = null;
+        if (declaringType != null) {
+            errorRoute = router.route(declaringType, e).orElse(null);
         }
+        RouteLookup found = RouteLookup.LOCAL;
+        if (errorRoute == null) {
+            errorRoute = router.route(e).orElse(null);
+            found = errorRoute != null ? RouteLookup.GLOBAL : RouteLookup.NONE;
+        }
+        errorRouteLookups.put(key, found);
+        return errorRoute;
     }
 
     private RouteMatch<Object> lookupStatusRoute(RouteMatch<?> route, HttpStatus status) {
-        if (route == null) {
-            return router.route(status).orElse(null);
-        } else {
-            return router.route(route.getDeclaringType(), status)
-                    .orElseGet(() ->
-                                       router.route(status).orElse(null)
-                    );
+        final Class<?> declaringType = route != null ? route.getDeclaringType() : null;
+        final RouteLookupKey key = new RouteLookupKey(declaringType, status);
+        // status route matches only hold the status, which is part of the key
+        Optional<RouteMatch<Object>> statusRoute = statusRouteLookups.get(key);
+        if (statusRoute == null) {
+            RouteMatch<Object> match = null;
+            if (declaringType != null) {
+                match = router.route(declaringType, status).orElse(null);
+            }
+            if (match == null) {
+                match = router.route(status).orElse(null);
+            }
+            statusRoute = Optional.ofNullable(match);
+            statusRouteLookups.put(key, statusRoute);
         }
+        return statusRoute.orElse(null);
     }
 
     private Publisher<? extends MutableHttpResponse<?>> filterPublisher(
             AtomicReference<io.micronaut.http.HttpRequest<?>> requestReference,
             Publisher<? extends MutableHttpResponse<?>> routePublisher,
             boolean skipOncePerRequest) {
-        Publisher<? extends io.micronaut.http.MutableHttpResponse<?>> finalPublisher;
-        List<HttpFilter> filters = new ArrayList<>(router.findFilters(requestReference.get()));
-        if (filters.isEmpty()) {
+        final HttpRequest<?> req = requestReference.get();
+        final HttpFilter[] filters = resolveFilters(req).get(skipOncePerRequest);
+        if (filters.length == 0) {
             return routePublisher;
         }
-        if (skipOncePerRequest) {
-            filters.removeIf(filter -> filter instanceof OncePerRequestHttpServerFilter);
+        final ServerFilterChain filterChain = new RequestFilterChain(filters, requestReference, routePublisher);
+        final HttpFilter httpFilter = filters[0];
+        Publisher<? extends io.micronaut.http.HttpResponse<?>> resultingPublisher = ServerRequestContext
+                    .with(req, (Supplier<Publisher<? extends HttpResponse<?>>>) () -> httpFilter.doFilter(req, filterChain));
+        //noinspection unchecked
+        return (Publisher<? extends MutableHttpResponse<?>>) resultingPublisher;
+    }
+
+    /**
+     * Resolves the filters that apply to the given request. Filters are matched against the method and path of the
+     * request. The ordered result is cached for the matched route when every filter pattern matches either all or none
+     * of the paths of the route, and for each method and path otherwise.
+     *
+     * @param req The request
+     * @return The resolved filters
+     */
+    private ResolvedFilters resolveFilters(HttpRequest<?> req) {
+        final UriRoute route = req.getAttribute(HttpAttributes.ROUTE, UriRoute.class).orElse(null);
+        if (route != null && route.getHttpMethod() == req.getMethod()) {
+            ResolvedFilters filters = routeFilters.get(route);
+            if (filters == null) {
+                filters = isFilteredPerRoute(route, req.getPath())
+                        ? ResolvedFilters.of(router.findFilters(req))
+                        : ResolvedFilters.PER_PATH;
+                routeFilters.put(route, filters);
+            }
+            if (filters != ResolvedFilters.PER_PATH) {
+                return filters;
+            }
         }
-        if (!filters.isEmpty()) {
-            // make the action executor the last filter in the chain
-            //noinspection unchecked
-            filters.add((HttpServerFilter) (req, chain) -> (Publisher<MutableHttpResponse<?>>) routePublisher);
-
-            AtomicInteger integer = new AtomicInteger();
-            int len = filters.size();
-            ServerFilterChain filterChain = new ServerFilterChain() {
-                @SuppressWarnings("unchecked")
-                @Override
-                public Publisher<MutableHttpResponse<?>> proceed(io.micronaut.http.HttpRequest<?> request) {
-                    int pos = integer.incrementAndGet();
-                    if (pos > len) {
-                        throw new IllegalStateException("The FilterChain.proceed(..) method should be invoked exactly once per filter execution. The method has instead been invoked multiple times by an erroneous filter definition.");
+        final String key = req.getMethodName() + ' ' + req.getPath();
+        ResolvedFilters filters = filterCache.get(key);
+        if (filters == null) {
+            filters = ResolvedFilters.of(router.findFilters(req));
+            filterCache.put(key, filters);
+        }
+        return filters;
+    }
+
+    /**
+     * Whether the filters that apply to a route are the same for every path the route matches. All paths of a route
+     * start with the literal prefix of its template, so a filter pattern is decided for the route if it matches any
+     * path below the prefix, such as {@code /**} or {@code /api/**} for {@code /api/users/{id}}, or if its literal
+     * start differs from the prefix.
+     *
+     * @param route The route
+     * @param path The path of the request that matched the route
+     * @return True if the filters can be cached for the route
+     */
+    private boolean isFilteredPerRoute(UriRoute route, String path) {
+        final String template = route.getUriMatchTemplate().toString();
+        final int variable = template.indexOf('{');
+        final String prefix = variable > -1 ? template.substring(0, variable) : template;
+        if (!path.startsWith(prefix)) {
+            // the template does not match the path as written, for example below a context path
+            return false;
+        }
+        final List<String> patterns = resolveFilterPatterns().orElse(null);
+        if (patterns == null) {
+            return false;
+        }
+        for (String pattern : patterns) {
+            if (!isDecidedByPrefix(pattern, prefix)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDecidedByPrefix(String pattern, String prefix) {
+        if (pattern.equals(Filter.MATCH_ALL_PATTERN)) {
+            return true;
+        }
+        int wildcard = 0;
+        while (wildcard < pattern.length() && "*?{$".indexOf(pattern.charAt(wildcard)) == -1) {
+            wildcard++;
+        }
+        final int length = Math.min(wildcard, prefix.length());
+        if (!pattern.regionMatches(0, prefix, 0, length)) {
+            // no path of the route can match the pattern
+            return true;
+        }
+        final String base = pattern.substring(0, wildcard);
+        return pattern.endsWith("/**") && wildcard == pattern.length() - 2 && prefix.startsWith(base);
+    }
+
+    /**
+     * Resolves the patterns of the server filters, which are declared with {@link Filter}. Filters without patterns
+     * may have been added to the router with any pattern, in which case no patterns are returned.
+     *
+     * @return The filter patterns, if every server filter declares them
+     */
+    private Optional<List<String>> resolveFilterPatterns() {
+        Optional<List<String>> patterns = filterPatterns;
+        if (patterns == null) {
+            List<String> resolved = new ArrayList<>();
+            for (BeanDefinition<HttpFilter> definition : applicationContext.getBeanDefinitions(HttpFilter.class)) {
+                if (HttpClientFilter.class.isAssignableFrom(definition.getBeanType())) {
+                    continue;
+                }
+                final String[] values = definition.stringValues(Filter.class);
+                if (values.length == 0) {
+                    resolved = null;
+                    break;
+                }
+                resolved.addAll(Arrays.asList(values));
+            }
+            patterns = Optional.ofNullable(resolved);
+            filterPatterns = patterns;
+        }
+        return patterns;
+    }
+
+    /**
+     * Where an error route was found for a declaring type.
+     */
+    private enum RouteLookup {
+        /**
+         * No route handles the error.
+         */
+        NONE,
+        /**
+         * A route of the declaring type handles the error.
+         */
+        LOCAL,
+        /**
+         * A global route handles the error.
+         */
+        GLOBAL
+    }
+
+    /**
+     * Key of cached error and status route lookups.
+     */
+    private static final class RouteLookupKey {
+        private final Class<?> declaringType;
+        private final Object error;
+
+        RouteLookupKey(Class<?> declaringType, Object error) {
+            this.declaringType = declaringType;
+            this.error = error;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RouteLookupKey that = (RouteLookupKey) o;
+            return declaringType == that.declaringType && error.equals(that.error);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(declaringType, error);
+        }
+    }
+
+    /**
+     * The ordered filters matching a route or a method and path, with and without the
+     * {@link OncePerRequestHttpServerFilter} instances that are skipped for error routes. {@link #PER_PATH} marks routes
+     * whose filters are resolved for each path.
+     */
+    private static final class ResolvedFilters {
+        static final ResolvedFilters NONE = new ResolvedFilters(new HttpFilter[0], new HttpFilter[0]);
+        static final ResolvedFilters PER_PATH = new ResolvedFilters(new HttpFilter[0], new HttpFilter[0]);
+
+        private final HttpFilter[] filters;
+        private final HttpFilter[] filtersSkippingOncePerRequest;
+
+        private ResolvedFilters(HttpFilter[] filters, HttpFilter[] filtersSkippingOncePerRequest) {
+            this.filters = filters;
+            this.filtersSkippingOncePerRequest = filtersSkippingOncePerRequest;
+        }
+
+        static ResolvedFilters of(List<HttpFilter> filters) {
+            if (filters.isEmpty()) {
+                return NONE;
+            }
+            final HttpFilter[] all = filters.toArray(new HttpFilter[0]);
+            final HttpFilter[] skipping = filters.stream()
+                    .filter(filter -> !(filter instanceof OncePerRequestHttpServerFilter))
+                    .toArray(HttpFilter[]::new);
+            return new ResolvedFilters(all, skipping.length == all.length ? all : skipping);
+        }
+
+        HttpFilter[] get(boolean skipOncePerRequest) {
+            return skipOncePerRequest ? filtersSkippingOncePerRequest : filters;
+        }
+    }
+
+    /**
+     * The filter chain of a single request. Holds only the per-request state, the filters are shared.
+     */
+    private static final class RequestFilterChain implements ServerFilterChain {
+        private final HttpFilter[] filters;
+        private final AtomicReference<HttpRequest<?>> requestReference;
+        private final Publisher<? extends MutableHttpResponse<?>> routePublisher;
+        private final AtomicInteger position = new AtomicInteger();
+
+        RequestFilterChain(HttpFilter[] filters,
+                           AtomicReference<HttpRequest<?>> requestReference,
+                           Publisher<? extends MutableHttpResponse<?>> routePublisher) {
+            this.filters = filters;
+            this.requestReference = requestReference;
+            this.routePublisher = routePublisher;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Publisher<MutableHttpResponse<?>> proceed(HttpRequest<?> request) {
+            int pos = position.incrementAndGet();
+            if (pos > filters.length) {
+                throw new IllegalStateException("The FilterChain.proceed(..) method should be invoked exactly once per filter execution. The method has instead been invoked multiple times by an erroneous filter definition.");
+            }
+            final HttpRequest<?> previous = requestReference.getAndSet(request);
+            if (pos == filters.length) {
+                // the action executor is the last step in the chain
+                return (Publisher<MutableHttpResponse<?>>) routePublisher;
+            }
+            return (Publisher<MutableHttpResponse<?>>) filters[pos].doFilter(previous, this);
+        }
+    }
+
+    /**
+     * The listeners for a type of request event. Singleton listeners are resolved once, listeners of other scopes
+     * are looked up for every event so that each event receives the instance the scope provides.
+     *
+     * @param <E> The event type
+     */
+    private static final class EventListeners<E> {
+        static final EventListeners<?> NONE = new EventListeners<>(Collections.emptyList(), null);
+
+        private final List<ApplicationEventListener<E>> listeners;
+        private final Supplier<List<ApplicationEventListener<E>>> lookup;
+
+        EventListeners(@Nullable List<ApplicationEventListener<E>> listeners,
+                       @Nullable Supplier<List<ApplicationEventListener<E>>> lookup) {
+            this.listeners = listeners;
+            this.lookup = lookup;
+        }
+
+        boolean isEmpty() {
+            return listeners != null && listeners.isEmpty();
+        }
+
+        List<ApplicationEventListener<E>> get() {
+            return listeners != null ? listeners : lookup.get();
+        }
+    }
+
+    /**
+     * The outcome of a request for which no route matched.
+     */
+    private static final class RouteMiss {
+        static final RouteMiss NOT_FOUND = new RouteMiss(HttpStatus.NOT_FOUND, Collections.emptySet());
+        static final RouteMiss UNSUPPORTED_MEDIA_TYPE = new RouteMiss(HttpStatus.UNSUPPORTED_MEDIA_TYPE, Collections.emptySet());
+
+        final HttpStatus status;
+        final Set<String> allowedMethods;
+
+        RouteMiss(HttpStatus status, Set<String> allowedMethods) {
+            this.status = status;
+            this.allowedMethods = allowedMethods;
+        }
+    }
+
+    /**
+     * The response related metadata of a route, computed once from its annotation metadata.
+     */
+    private static final class ResponseMetadata {
+        static final ResponseMetadata EMPTY = new ResponseMetadata(AnnotationMetadata.EMPTY_METADATA);
+        private static final int MAX_NEGOTIATED = 64;
+
+        final String produces;
+        final String[] producesValues;
+        final MediaType[] producesTypes;
+        final HttpStatus status;
+        final String[] headerNames;
+        final String[] headerValues;
+        private final Map<String, String> negotiated;
+
+        ResponseMetadata(AnnotationMetadata annotationMetadata) {
+            final String[] produces = annotationMetadata.stringValues(Produces.class);
+            this.produces = produces.length > 0 ? produces[0] : null;
+            this.producesValues = produces;
+            this.producesTypes = Arrays.stream(produces).map(MediaType::new).toArray(MediaType[]::new);
+            this.negotiated = producesTypes.length > 1 ? new ConcurrentHashMap<>(10) : Collections.emptyMap();
+            this.status = annotationMetadata.enumValue(Status.class, HttpStatus.class).orElse(null);
+            final List<AnnotationValue<Header>> headers = annotationMetadata.getAnnotationValuesByType(Header.class);
+            List<String> names = new ArrayList<>(headers.size());
+            List<String> values = new ArrayList<>(headers.size());
+            for (AnnotationValue<Header> header : headers) {
+                final String value = header.stringValue().orElse(null);
+                final String name = header.stringValue("name").orElse(null);
+                if (name != null && value != null) {
+                    names.add(name);
+                    values.add(value);
+                }
+            }
+            this.headerNames = names.toArray(new String[0]);
+            this.headerValues = values.toArray(new String[0]);
+        }
+
+        /**
+         * Selects the produced media type that best matches the given accept header. The result is cached per
+         * distinct header value so the header is parsed and sorted only once.
+         *
+         * @param accept The accept header
+         * @return The selected media type
+         */
+        String negotiate(String accept) {
+            if (accept == null || accept.isEmpty()) {
+                return produces;
+            }
+            String contentType = negotiated.get(accept);
+            if (contentType == null) {
+                contentType = selectMediaType(accept);
+                if (negotiated.size() < MAX_NEGOTIATED) {
+                    negotiated.put(accept, contentType);
+                }
+            }
+            return contentType;
+        }
+
+        private String selectMediaType(String accept) {
+            List<MediaType> acceptTypes = new ArrayList<>(5);
+            for (String value : accept.split(",")) {
+                try {
+                    acceptTypes.add(new MediaType(value.trim()));
+                } catch (IllegalArgumentException e) {
+                    // ignore invalid values
+                }
+            }
+            String selected = null;
+            double selectedQuality = 0;
+            for (int i = 0; i < producesTypes.length; i++) {
+                final MediaType candidate = producesTypes[i];
+                double quality = 0;
+                int specificity = -1;
+                for (MediaType acceptType : acceptTypes) {
+                    int matchSpecificity = matchSpecificity(acceptType, candidate);
+                    if (matchSpecificity > specificity) {
+                        specificity = matchSpecificity;
+                        quality = acceptType.getQualityAsNumber().doubleValue();
                     }
-                    HttpFilter httpFilter = filters.get(pos);
-                    return (Publisher<MutableHttpResponse<?>>) httpFilter.doFilter(requestReference.getAndSet(request), this);
-                }
-            };
-            HttpFilter httpFilter = filters.get(0);
-            final HttpRequest<?> req = requestReference.get();
-            Publisher<? extends io.micronaut.http.HttpResponse<?>> resultingPublisher = ServerRequestContext
-                        .with(req, (Supplier<Publisher<? extends HttpResponse<?>>>) () -> httpFilter.doFilter(req, filterChain));
-            //noinspection unchecked
-            finalPublisher = (Publisher<? extends MutableHttpResponse<?>>) resultingPublisher;
-        } else {
-            finalPublisher = routePublisher;
+                }
+                if (quality > selectedQuality) {
+                    selected = producesValues[i];
+                    selectedQuality = quality;
+                }
+            }
+            return selected != null ? selected : produces;
+        }
+
+        private static int matchSpecificity(MediaType acceptType, MediaType candidate) {
+            final String type = acceptType.getType();
+            final String subtype = acceptType.getSubtype();
+            if (type.equals("*")) {
+                return 0;
+            }
+            if (!type.equalsIgnoreCase(candidate.getType())) {
+                return -1;
+            }
+            if (subtype.equals("*")) {
+                return 1;
+            }
+            return subtype.equalsIgnoreCase(candidate.getSubtype()) ? 2 : -1;
         }
-        return finalPublisher;
     }
 }
@@ -15,6 +15,7 @@
  */
 package io.micronaut.servlet.http;
 
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MutableHttpResponse;
 import org.reactivestreams.Publisher;
@@ -22,6 +23,8 @@ import org.reactivestreams.Publisher;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * Interface that models a serverless request which typically support blocking I/O.
@@ -95,4 +98,98 @@ public interface ServletHttpRequest<N, B> extends HttpRequest<B> {
         throw new UnsupportedOperationException("Asynchronous processing is not supported");
     }
 
+    /**
+     * @return Whether asynchronous processing has been started for this request
+     * @since 2.2.0
+     */
+    default boolean isAsyncStarted() {
+        return false;
+    }
+
+    /**
+     * An executor that runs tasks on a thread of the container while the request is processed asynchronously, so
+     * that they can write the response. Tasks run on the calling thread before asynchronous processing has started
+     * or once it has completed.
+     *
+     * @return The executor
+     * @since 2.2.0
+     */
+    default Executor getAsyncExecutor() {
+        return Runnable::run;
+    }
+
+    /**
+     * Puts this request into asynchronous mode so that the response can be written once an asynchronous result is
+     * available, without holding the request thread. The returned {@link Runnable} completes the request and must be
+     * invoked exactly once, after the response has been written. Responses subscribed with
+     * {@link #subscribeOnExecutor(Publisher)} in the meantime, such as those of reactive error routes, delay the
+     * completion until they have been written.
+     *
+     * @return A runnable that completes the request
+     * @since 2.2.0
+     */
+    default Runnable startAsync() {
+        throw new UnsupportedOperationException("Asynchronous processing is not supported");
+    }
+
+    /**
+     * Registers a listener that is notified if the asynchronous processing of this request is aborted, because the
+     * client disconnected or the container timed out the request. Listeners are used to cancel work whose result can
+     * no longer be sent. Listeners registered before asynchronous processing starts are ignored.
+     *
+     * @param listener The listener
+     * @since 2.2.0
+     */
+    default void addAbortListener(Runnable listener) {
+        // no-op
+    }
+
+    /**
+     * The claim that decides whether the route, the handler or the container writes the response when the request
+     * times out. Implementations that let the container time out asynchronous requests return the same claim for the
+     * lifetime of the request and only respond to a container timeout once they have claimed the response.
+     *
+     * @return The claim, or null if the container does not time out requests
+     * @since 2.2.0
+     */
+    default @Nullable ResponseClaim getResponseClaim() {
+        return null;
+    }
+
+    /**
+     * Delays the execution of the route until the given publisher completes. Binders use it for arguments that can
+     * only be used once part of the body has been read, such as the metadata of a streamed part, so that the route
+     * does not have to block waiting for it. If the publisher fails, the route is not executed and the error is
+     * handled like an error of the route.
+     *
+     * @param condition A publisher that completes once the argument can be used
+     * @since 2.2.0
+     */
+    default void addExecutionCondition(Publisher<?> condition) {
+        throw new UnsupportedOperationException("Delaying the execution of the route is not supported");
+    }
+
+    /**
+     * Returns the conditions registered with {@link #addExecutionCondition(Publisher)} since the last call, and clears
+     * them.
+     *
+     * @return A publisher that completes once all the conditions have completed, or null if there are none
+     * @since 2.2.0
+     */
+    default @Nullable Publisher<?> takeExecutionConditions() {
+        return null;
+    }
+
+    /**
+     * Passes the names of the fields the route binds from an {@code application/x-www-form-urlencoded} body.
+     * Implementations may skip fields with other names while the body is read, in which case they are not available
+     * as parameters. Implementations should only do so when configured to, because filters may read other fields.
+     *
+     * @param names The names of the fields, or null to decode all fields
+     * @since 2.2.0
+     */
+    default void setFormFieldNames(@Nullable Set<String> names) {
+        // no-op
+    }
+
 }
@@ -60,6 +60,22 @@ public interface ServletHttpResponse<N, B> extends MutableHttpResponse<B> {
      */
     BufferedWriter getWriter() throws IOException;
 
+    /**
+     * Adds the given headers to the response in a single pass. Used to apply headers that are computed once, such as
+     * those declared with {@link io.micronaut.http.annotation.Header} on a route.
+     *
+     * @param names  The header names
+     * @param values The header values, matched to the names by index
+     * @return This response
+     * @since 2.2.0
+     */
+    default MutableHttpResponse<B> headers(String[] names, String[] values) {
+        for (int i = 0; i < names.length; i++) {
+            header(names[i], values[i]);
+        }
+        return this;
+    }
+
     /**
      * Streams data using the given data publisher.
      *
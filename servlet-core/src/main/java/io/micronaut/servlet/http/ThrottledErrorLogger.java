@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.http;
+
+import io.micronaut.core.annotation.Internal;
+import org.slf4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs request errors at the error level, limiting the rate of log entries per exception type with a token bucket
+ * and optionally truncating stack traces. The error is always passed to the logger as a {@link Throwable}, so that
+ * structured appenders keep rendering it as an exception.
+ *
+ * @since 2.2.0
+ */
+@Internal
+final class ThrottledErrorLogger {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger log;
+    private final int maxPerSecond;
+    private final int maxStackFrames;
+    private final Map<Class<?>, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param log The logger
+     * @param configuration The error logging configuration
+     */
+    ThrottledErrorLogger(Logger log, ErrorLoggingConfiguration configuration) {
+        this.log = log;
+        this.maxPerSecond = configuration.getMaxPerSecond();
+        this.maxStackFrames = configuration.getMaxStackFrames();
+    }
+
+    /**
+     * Logs the given error if the rate limit of its type permits. The message is only formatted when the entry is
+     * logged.
+     *
+     * @param error The error
+     * @param format The message format, using the SLF4J placeholder syntax
+     * @param arguments The message arguments
+     */
+    void error(Throwable error, String format, Object... arguments) {
+        if (!log.isErrorEnabled()) {
+            return;
+        }
+        long suppressed = 0;
+        if (maxPerSecond > 0) {
+            final TokenBucket bucket = buckets.computeIfAbsent(error.getClass(), type -> new TokenBucket(maxPerSecond));
+            suppressed = bucket.tryAcquire();
+            if (suppressed < 0) {
+                return;
+            }
+        }
+        final String message = MessageFormatter.arrayFormat(format, arguments).getMessage();
+        final String entry = suppressed > 0
+                ? message + " (" + suppressed + " similar errors were suppressed)"
+                : message;
+        log.error(entry, maxStackFrames > 0 ? truncate(error, Collections.newSetFromMap(new IdentityHashMap<>())) : error);
+    }
+
+    /**
+     * Copies the given error and its causes with the stack traces limited to the maximum number of frames. The
+     * original error is left untouched, since it may be shared.
+     *
+     * @param error The error
+     * @param seen The errors copied so far, to stop at cyclic causes
+     * @return The copy
+     */
+    private Throwable truncate(Throwable error, Set<Throwable> seen) {
+        seen.add(error);
+        final Throwable cause = error.getCause();
+        final StackTraceElement[] frames = error.getStackTrace();
+        return new TruncatedError(
+                error,
+                cause != null && !seen.contains(cause) ? truncate(cause, seen) : null,
+                frames.length > maxStackFrames ? Arrays.copyOf(frames, maxStackFrames) : frames
+        );
+    }
+
+    /**
+     * A copy of an error with a truncated stack trace. Its message is the class name and message of the original
+     * error, as printed in the first line of a stack trace.
+     */
+    private static final class TruncatedError extends Throwable {
+        TruncatedError(Throwable original, Throwable cause, StackTraceElement[] frames) {
+            super(original.toString(), cause, false, true);
+            setStackTrace(frames);
+        }
+
+        @Override
+        public String toString() {
+            return getMessage();
+        }
+    }
+
+    /**
+     * A token bucket that refills continuously up to one second worth of permits.
+     */
+    private static final class TokenBucket {
+        private final int capacity;
+        private double tokens;
+        private long lastRefill;
+        private long suppressed;
+
+        TokenBucket(int capacity) {
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /**
+         * @return The number of entries suppressed since the last permit, or -1 if no permit is available
+         */
+        synchronized long tryAcquire() {
+            final long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (double) (now - lastRefill) * capacity / NANOS_PER_SECOND);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                final long count = suppressed;
+                suppressed = 0;
+                return count;
+            }
+            suppressed++;
+            return -1;
+        }
+    }
+}
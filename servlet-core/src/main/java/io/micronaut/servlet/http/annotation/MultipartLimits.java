@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.http.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets the multipart limits of a route, overriding those configured with {@code micronaut.server.multipart}. The parts
+ * of requests to the route are parsed with these limits instead of by the container. Members that are not set
+ * inherit the global setting.
+ *
+ * @since 2.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface MultipartLimits {
+
+    /**
+     * The value of numeric members that inherit the global setting.
+     */
+    long INHERIT = Long.MIN_VALUE;
+
+    /**
+     * @return The maximum size in bytes of a part, or {@code -1} for no limit
+     */
+    long maxFileSize() default INHERIT;
+
+    /**
+     * @return The maximum size in bytes of the request, or {@code -1} for no limit
+     */
+    long maxRequestSize() default INHERIT;
+
+    /**
+     * @return The size in bytes above which a part is written to disk instead of being kept in memory
+     */
+    long threshold() default INHERIT;
+
+    /**
+     * @return The directory parts written to disk are stored in, for example a memory backed file system for small
+     * uploads
+     */
+    String location() default "";
+}
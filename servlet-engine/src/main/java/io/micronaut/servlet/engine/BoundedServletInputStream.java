@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine;
+
+import io.micronaut.http.exceptions.ContentLengthExceededException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.IOException;
+
+/**
+ * A {@link ServletInputStream} that fails with a {@link ContentLengthExceededException} once more than the allowed
+ * number of bytes has been read, for bodies whose length is not known up front.
+ *
+ * @since 2.2.0
+ */
+final class BoundedServletInputStream extends ServletInputStream {
+
+    private final ServletInputStream source;
+    private final long maxSize;
+    private long count;
+
+    /**
+     * Default constructor.
+     *
+     * @param source The stream to read from
+     * @param maxSize The maximum number of bytes
+     */
+    BoundedServletInputStream(ServletInputStream source, long maxSize) {
+        this.source = source;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = source.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int read = source.read(b, off, len);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return source.available();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return source.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+        return source.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+        source.setReadListener(readListener);
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private void count(int read) {
+        count += read;
+        if (count > maxSize) {
+            throw new ContentLengthExceededException("The request body exceeds the maximum allowed size of " + maxSize + " bytes");
+        }
+    }
+}
@@ -15,21 +15,31 @@
  */
 package io.micronaut.servlet.engine;
 
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.convert.ArgumentConversionContext;
 import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.cookie.Cookie;
 import io.micronaut.http.cookie.Cookies;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link Cookies} ontop of the Servlet API.
  *
+ * <p>The cookies are indexed by name the first time they are accessed and the resulting adapters are reused for
+ * the remainder of the request.</p>
+ *
  * @since 1.0.0
  * @author graemerocher
  */
@@ -38,41 +48,75 @@ public class DefaultServletCookies implements Cookies {
     private static final javax.servlet.http.Cookie[] EMPTY_COOKIES = new javax.servlet.http.Cookie[0];
 
     private final javax.servlet.http.Cookie[] cookies;
+    private final List<String> cookieHeaders;
+    private Map<String, Cookie> cookieMap;
+    private Set<Cookie> cookieSet;
 
     /**
      * Default constructor.
      * @param cookies The cookies
      */
     public DefaultServletCookies(javax.servlet.http.Cookie[] cookies) {
-        if (cookies == null) {
-            this.cookies = EMPTY_COOKIES;
-        } else {
-            this.cookies = cookies;
+        this(cookies != null ? cookies : EMPTY_COOKIES, null);
+    }
+
+    private DefaultServletCookies(javax.servlet.http.Cookie[] cookies, List<String> cookieHeaders) {
+        this.cookies = cookies;
+        this.cookieHeaders = cookieHeaders;
+    }
+
+    /**
+     * Creates the cookies from every {@code Cookie} header of the request. HTTP/2 clients may send each cookie in
+     * its own header field, so all the values are parsed. The headers are only parsed once a cookie is first
+     * accessed.
+     *
+     * @param cookieHeaders The values of the cookie headers, can be null
+     * @return The cookies
+     * @since 2.2.0
+     */
+    public static DefaultServletCookies fromHeaders(@Nullable Enumeration<String> cookieHeaders) {
+        List<String> headers = null;
+        if (cookieHeaders != null) {
+            while (cookieHeaders.hasMoreElements()) {
+                final String header = cookieHeaders.nextElement();
+                if (StringUtils.isNotEmpty(header)) {
+                    if (headers == null) {
+                        headers = new ArrayList<>(2);
+                    }
+                    headers.add(header);
+                }
+            }
+        }
+        if (headers == null) {
+            return new DefaultServletCookies(EMPTY_COOKIES, null);
         }
+        return new DefaultServletCookies(null, headers);
     }
 
     @Override
     public Set<Cookie> getAll() {
-        return Arrays.stream(cookies)
-                .map(ServletCookieAdapter::new)
-                .collect(Collectors.toSet());
+        Set<Cookie> cookieSet = this.cookieSet;
+        if (cookieSet == null) {
+            cookieSet = Collections.unmodifiableSet(new LinkedHashSet<>(getCookieMap().values()));
+            this.cookieSet = cookieSet;
+        }
+        return cookieSet;
     }
 
     @Override
     public Optional<Cookie> findCookie(CharSequence name) {
         final String cookieName = Objects.requireNonNull(name, "Cookie name cannot be null").toString();
-        for (int i = 0; i < cookies.length; i++) {
-            javax.servlet.http.Cookie cookie = cookies[i];
-            if (cookie.getName().equals(cookieName)) {
-                return Optional.of(new ServletCookieAdapter(cookie));
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(getCookieMap().get(cookieName));
     }
 
     @Override
     public Collection<Cookie> values() {
-        return getAll();
+        return Collections.unmodifiableCollection(getCookieMap().values());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getCookieMap().isEmpty();
     }
 
     @Override
@@ -81,4 +125,53 @@ public class DefaultServletCookies implements Cookies {
                 .flatMap(cookie -> ConversionService.SHARED.convert(cookie.getValue(), conversionContext));
     }
 
+    private Map<String, Cookie> getCookieMap() {
+        Map<String, Cookie> cookieMap = this.cookieMap;
+        if (cookieMap == null) {
+            if (cookieHeaders != null) {
+                cookieMap = new LinkedHashMap<>(10);
+                for (String cookieHeader : cookieHeaders) {
+                    parseCookieHeader(cookieHeader, cookieMap);
+                }
+            } else if (cookies.length == 0) {
+                cookieMap = Collections.emptyMap();
+            } else {
+                cookieMap = new LinkedHashMap<>(cookies.length);
+                for (javax.servlet.http.Cookie cookie : cookies) {
+                    // first cookie wins, matching the previous linear lookup
+                    cookieMap.putIfAbsent(cookie.getName(), new ServletCookieAdapter(cookie));
+                }
+            }
+            this.cookieMap = cookieMap;
+        }
+        return cookieMap;
+    }
+
+    private static void parseCookieHeader(String header, Map<String, Cookie> cookieMap) {
+        final int len = header.length();
+        int start = 0;
+        while (start < len) {
+            int end = header.indexOf(';', start);
+            if (end == -1) {
+                end = len;
+            }
+            final int eq = header.indexOf('=', start);
+            if (eq > start && eq < end) {
+                final String name = header.substring(start, eq).trim();
+                String value = header.substring(eq + 1, end).trim();
+                if (value.length() > 1 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+                    value = value.substring(1, value.length() - 1);
+                }
+                if (!name.isEmpty() && name.charAt(0) != '$' && !cookieMap.containsKey(name)) {
+                    try {
+                        cookieMap.put(name, new ServletCookieAdapter(new javax.servlet.http.Cookie(name, value)));
+                    } catch (IllegalArgumentException e) {
+                        // invalid cookie name, ignore it as the container would
+                    }
+                }
+            }
+            start = end + 1;
+        }
+    }
+
 }
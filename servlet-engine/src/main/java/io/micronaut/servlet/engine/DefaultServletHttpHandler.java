@@ -16,12 +16,23 @@
 package io.micronaut.servlet.engine;
 
 import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.core.annotation.AnnotationMetadata;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.runtime.context.scope.refresh.RefreshEvent;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.servlet.engine.buffer.BodyBufferAllocator;
+import io.micronaut.servlet.engine.compression.ResponseCompressor;
 import io.micronaut.servlet.http.ServletExchange;
 import io.micronaut.servlet.http.ServletHttpHandler;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Default implementation of {@link ServletHttpHandler} for the Servlet API.
@@ -30,27 +41,98 @@ import javax.servlet.http.HttpServletResponse;
  * @since 1.0.0
  */
 @Singleton
-public class DefaultServletHttpHandler extends ServletHttpHandler<HttpServletRequest, HttpServletResponse> {
+public class DefaultServletHttpHandler extends ServletHttpHandler<HttpServletRequest, HttpServletResponse>
+        implements ApplicationEventListener<RefreshEvent> {
+
+    private final MicronautServletConfiguration servletConfiguration;
+    private final ResponseCompressor responseCompressor;
+    private final BodyBufferAllocator bodyBufferAllocator;
+    private final Executor requestEventExecutor;
+
     /**
      * Default constructor.
      *
      * @param applicationContext The application context
      */
     public DefaultServletHttpHandler(ApplicationContext applicationContext) {
+        this(applicationContext, applicationContext.getBean(MicronautServletConfiguration.class));
+    }
+
+    /**
+     * Constructor that takes the servlet configuration.
+     *
+     * @param applicationContext   The application context
+     * @param servletConfiguration The servlet configuration
+     * @since 2.2.0
+     */
+    @Inject
+    public DefaultServletHttpHandler(ApplicationContext applicationContext, MicronautServletConfiguration servletConfiguration) {
         super(applicationContext);
+        this.servletConfiguration = servletConfiguration;
+        this.responseCompressor = applicationContext.findBean(ResponseCompressor.class).orElse(null);
+        this.bodyBufferAllocator = applicationContext.findBean(BodyBufferAllocator.class).orElse(null);
+        this.requestEventExecutor = servletConfiguration.isAsyncRequestEvents()
+                ? applicationContext.getBean(ExecutorService.class, Qualifiers.byName(TaskExecutors.IO))
+                : null;
+    }
+
+    /**
+     * @return The servlet configuration
+     * @since 2.2.0
+     */
+    public MicronautServletConfiguration getServletConfiguration() {
+        return servletConfiguration;
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshEvent event) {
+        onRefresh();
+    }
+
+    @Override
+    protected Executor getRequestEventExecutor() {
+        return requestEventExecutor;
+    }
+
+    @Override
+    protected Duration getRequestTimeout() {
+        return servletConfiguration.getRequestTimeout().orElse(null);
     }
 
     @Override
     protected ServletExchange<HttpServletRequest, HttpServletResponse> createExchange(
             HttpServletRequest request,
             HttpServletResponse response) {
-        return new DefaultServletHttpRequest<>(request, response, getMediaTypeCodecRegistry());
+        return new DefaultServletHttpRequest<>(
+                request,
+                response,
+                getMediaTypeCodecRegistry(),
+                servletConfiguration,
+                responseCompressor,
+                bodyBufferAllocator
+        );
+    }
+
+    @Override
+    protected void validateRequest(
+            ServletExchange<HttpServletRequest, HttpServletResponse> exchange,
+            AnnotationMetadata routeMetadata) {
+        super.validateRequest(exchange, routeMetadata);
+        if (exchange instanceof DefaultServletHttpRequest) {
+            ((DefaultServletHttpRequest<?>) exchange).checkContentLength();
+        }
     }
 
     @Override
     public void service(HttpServletRequest request, HttpServletResponse response) {
         final ServletExchange<HttpServletRequest, HttpServletResponse> exchange = createExchange(request, response);
-        service(exchange);
+        try {
+            service(exchange);
+        } finally {
+            if (exchange instanceof DefaultServletHttpRequest) {
+                ((DefaultServletHttpRequest<?>) exchange).onServiceReturned();
+            }
+        }
     }
 
     @Override
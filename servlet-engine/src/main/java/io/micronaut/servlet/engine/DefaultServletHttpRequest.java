@@ -15,6 +15,9 @@
  */
 package io.micronaut.servlet.engine;
 
+import io.micronaut.core.annotation.AnnotationMetadata;
+import io.micronaut.core.annotation.AnnotationMetadataProvider;
+import io.micronaut.core.annotation.AnnotationValue;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
@@ -23,41 +26,60 @@ import io.micronaut.core.convert.ConversionContext;
 import io.micronaut.core.convert.ConversionService;
 import io.micronaut.core.convert.value.ConvertibleValues;
 import io.micronaut.core.convert.value.MutableConvertibleValues;
-import io.micronaut.core.io.IOUtils;
 import io.micronaut.core.type.Argument;
 import io.micronaut.core.util.ArrayUtils;
 import io.micronaut.core.util.CollectionUtils;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.*;
 import io.micronaut.http.codec.CodecException;
-import io.micronaut.http.codec.MediaTypeCodec;
+import io.micronaut.http.exceptions.ContentLengthExceededException;
 import io.micronaut.http.codec.MediaTypeCodecRegistry;
 import io.micronaut.http.cookie.Cookies;
+import io.micronaut.servlet.engine.buffer.BodyBufferAllocator;
+import io.micronaut.servlet.engine.buffer.ReplayableBody;
+import io.micronaut.servlet.engine.compression.DecompressingServletInputStream;
+import io.micronaut.servlet.engine.compression.ResponseCompressor;
+import io.micronaut.servlet.engine.compression.StreamingInflater;
+import io.micronaut.servlet.http.RequestDeadline;
+import io.micronaut.servlet.http.ResponseClaim;
 import io.micronaut.servlet.http.ServletExchange;
 import io.micronaut.servlet.http.ServletHttpRequest;
 import io.micronaut.servlet.http.ServletHttpResponse;
 import io.micronaut.servlet.http.StreamedServletMessage;
-import io.reactivex.BackpressureStrategy;
+import io.micronaut.servlet.http.annotation.MaxRequestSize;
+import io.micronaut.servlet.http.annotation.MultipartLimits;
+import io.reactivex.Completable;
 import io.reactivex.Flowable;
 import io.reactivex.Scheduler;
 import io.reactivex.schedulers.Schedulers;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.MultipartConfigElement;
 import javax.servlet.ReadListener;
 import javax.servlet.ServletInputStream;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -74,6 +96,11 @@ public class DefaultServletHttpRequest<B> implements
         ServletExchange<HttpServletRequest, HttpServletResponse>,
         StreamedServletMessage<B, byte[]> {
 
+    private static final long ASYNC_TIMEOUT_GRACE_PERIOD = 1000;
+    private static final long UNRESOLVED_SIZE = Long.MIN_VALUE;
+    private static final int REPLAY_BUFFER_SIZE = 8192;
+    private static final int BODY_BUFFER_SIZE = 1024;
+
     private final HttpServletRequest delegate;
     private final URI uri;
     private final HttpMethod method;
@@ -81,9 +108,24 @@ public class DefaultServletHttpRequest<B> implements
     private final ServletParameters parameters;
     private final DefaultServletHttpResponse<Object> response;
     private final MediaTypeCodecRegistry codecRegistry;
+    private final MicronautServletConfiguration servletConfiguration;
+    private final ResponseCompressor responseCompressor;
+    private final BodyBufferAllocator bodyBufferAllocator;
     private DefaultServletCookies cookies;
-    private Object body;
+    private ServletInputStream bodyStream;
+    private ServletRequestBody requestBody;
+    private volatile ReplayableBody replayableBody;
     private Scheduler scheduler;
+    private volatile AsyncState asyncState;
+    private volatile ResponseClaim responseClaim;
+    private final List<Runnable> completionListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean completed;
+    private MultipartConfigElement multipartConfigElement;
+    private long maxRequestSize = UNRESOLVED_SIZE;
+    private Set<String> formFieldNames;
+    private Map<String, List<String>> formFields;
+    private boolean formFieldsResolved;
+    private List<Publisher<?>> executionConditions;
 
     /**
      * Default constructor.
@@ -96,8 +138,51 @@ public class DefaultServletHttpRequest<B> implements
             HttpServletRequest delegate,
             HttpServletResponse response,
             MediaTypeCodecRegistry codecRegistry) {
+        this(delegate, response, codecRegistry, null, null);
+    }
+
+    /**
+     * Constructor that takes the servlet configuration.
+     *
+     * @param delegate             The servlet request
+     * @param response             The servlet response
+     * @param codecRegistry        The codec registry
+     * @param servletConfiguration The servlet configuration, can be null
+     * @param responseCompressor   The response compressor, null if compression is disabled
+     * @since 2.2.0
+     */
+    protected DefaultServletHttpRequest(
+            HttpServletRequest delegate,
+            HttpServletResponse response,
+            MediaTypeCodecRegistry codecRegistry,
+            @Nullable MicronautServletConfiguration servletConfiguration,
+            @Nullable ResponseCompressor responseCompressor) {
+        this(delegate, response, codecRegistry, servletConfiguration, responseCompressor, null);
+    }
+
+    /**
+     * Constructor that takes the servlet configuration and the allocator of body buffers.
+     *
+     * @param delegate             The servlet request
+     * @param response             The servlet response
+     * @param codecRegistry        The codec registry
+     * @param servletConfiguration The servlet configuration, can be null
+     * @param responseCompressor   The response compressor, null if compression is disabled
+     * @param bodyBufferAllocator  The allocator of body buffers, null if bodies cannot be buffered
+     * @since 2.2.0
+     */
+    protected DefaultServletHttpRequest(
+            HttpServletRequest delegate,
+            HttpServletResponse response,
+            MediaTypeCodecRegistry codecRegistry,
+            @Nullable MicronautServletConfiguration servletConfiguration,
+            @Nullable ResponseCompressor responseCompressor,
+            @Nullable BodyBufferAllocator bodyBufferAllocator) {
         this.delegate = delegate;
         this.codecRegistry = codecRegistry;
+        this.servletConfiguration = servletConfiguration;
+        this.responseCompressor = responseCompressor;
+        this.bodyBufferAllocator = bodyBufferAllocator;
         final String contextPath = delegate.getContextPath();
         String requestURI = delegate.getRequestURI();
         if (StringUtils.isNotEmpty(contextPath) && requestURI.startsWith(contextPath)) {
@@ -120,6 +205,109 @@ public class DefaultServletHttpRequest<B> implements
         );
     }
 
+    /**
+     * @return The response compressor, null if compression is disabled
+     * @since 2.2.0
+     */
+    @Nullable
+    public ResponseCompressor getResponseCompressor() {
+        return responseCompressor;
+    }
+
+    /**
+     * @return The configuration of the servlet, if any
+     * @since 2.2.0
+     */
+    public Optional<MicronautServletConfiguration> getServletConfiguration() {
+        return Optional.ofNullable(servletConfiguration);
+    }
+
+    /**
+     * @return The multipart configuration of the servlet, if any
+     * @since 2.2.0
+     */
+    public Optional<MultipartConfigElement> getMultipartConfigElement() {
+        MultipartConfigElement config = this.multipartConfigElement;
+        if (config == null) {
+            final MultipartConfigElement servletConfig = servletConfiguration != null ?
+                    servletConfiguration.getMultipartConfigElement().orElse(null) : null;
+            final AnnotationMetadataProvider route = getAttribute(HttpAttributes.ROUTE_MATCH, AnnotationMetadataProvider.class).orElse(null);
+            if (route == null) {
+                // the route is not known yet, so the route limits cannot be applied
+                return Optional.ofNullable(servletConfig);
+            }
+            final AnnotationValue<MultipartLimits> limits = route.getAnnotationMetadata().getAnnotation(MultipartLimits.class);
+            config = limits != null ? mergeLimits(servletConfig, limits) : servletConfig;
+            this.multipartConfigElement = config;
+        }
+        return Optional.ofNullable(config);
+    }
+
+    /**
+     * @return Whether the route of the request overrides the multipart limits of the servlet with
+     * {@link MultipartLimits}, in which case the parts have to be parsed with those limits instead of by the container
+     * @since 2.2.0
+     */
+    public boolean hasRouteMultipartLimits() {
+        final MultipartConfigElement config = getMultipartConfigElement().orElse(null);
+        return config != null && (servletConfiguration == null ||
+                config != servletConfiguration.getMultipartConfigElement().orElse(null));
+    }
+
+    private static MultipartConfigElement mergeLimits(@Nullable MultipartConfigElement servletConfig,
+                                                      AnnotationValue<MultipartLimits> limits) {
+        final String location = limits.stringValue("location")
+                .filter(StringUtils::isNotEmpty)
+                .orElse(servletConfig != null ? servletConfig.getLocation() : null);
+        final long maxFileSize = limits.longValue("maxFileSize")
+                .filter(v -> v != MultipartLimits.INHERIT)
+                .orElse(servletConfig != null ? servletConfig.getMaxFileSize() : -1L);
+        final long maxRequestSize = limits.longValue("maxRequestSize")
+                .filter(v -> v != MultipartLimits.INHERIT)
+                .orElse(servletConfig != null ? servletConfig.getMaxRequestSize() : -1L);
+        final long threshold = limits.longValue("threshold")
+                .filter(v -> v != MultipartLimits.INHERIT)
+                .orElse(servletConfig != null ? servletConfig.getFileSizeThreshold() : 0L);
+        return new MultipartConfigElement(
+                location,
+                maxFileSize,
+                maxRequestSize,
+                (int) Math.min(Math.max(threshold, 0), Integer.MAX_VALUE)
+        );
+    }
+
+    /**
+     * Registers a listener that runs once the request has completed. For a request processed synchronously that is
+     * when the handler returns, otherwise when the asynchronous processing completes.
+     *
+     * @param listener The listener
+     * @since 2.2.0
+     */
+    public void addCompletionListener(Runnable listener) {
+        completionListeners.add(listener);
+        if (completed && completionListeners.remove(listener)) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Called when the handler has returned, which completes the request unless it is processed asynchronously.
+     */
+    void onServiceReturned() {
+        if (!isAsyncStarted()) {
+            onCompleted();
+        }
+    }
+
+    private void onCompleted() {
+        completed = true;
+        for (Runnable listener : completionListeners) {
+            if (completionListeners.remove(listener)) {
+                listener.run();
+            }
+        }
+    }
+
     /**
      * @return The codec registry.
      */
@@ -136,76 +324,136 @@ public class DefaultServletHttpRequest<B> implements
     public Publisher<? extends MutableHttpResponse<?>> subscribeOnExecutor(Publisher<? extends MutableHttpResponse<?>> responsePublisher) {
         if (this.scheduler == null) {
 
-            final AsyncContext asyncContext = delegate.startAsync();
-            this.scheduler = Schedulers.from(asyncContext::start);
+            final AsyncState asyncState = startAsyncContext();
+            this.scheduler = Schedulers.from(asyncState.asyncContext::start);
             return Flowable.fromPublisher(responsePublisher)
                     .subscribeOn(scheduler)
-                    .doAfterTerminate(asyncContext::complete);
+                    .doAfterTerminate(asyncState::release);
         } else {
-            return responsePublisher;
+            final AsyncState asyncState = this.asyncState;
+            if (asyncState == null) {
+                return responsePublisher;
+            }
+            // a response published while the request is asynchronous, for example by an error route, delays the
+            // completion of the request until it has been written
+            asyncState.retain();
+            return Flowable.fromPublisher(responsePublisher).doFinally(asyncState::release);
         }
     }
 
-    @NonNull
     @Override
-    public <T> Optional<T> getBody(@NonNull Argument<T> arg) {
-        if (arg != null) {
-            final Class<T> type = arg.getType();
-            final MediaType contentType = getContentType().orElse(MediaType.APPLICATION_JSON_TYPE);
-            long contentLength = getContentLength();
-            if (body == null && contentLength != 0) {
-
-                boolean isConvertibleValues = ConvertibleValues.class == type;
-                if (isFormSubmission(contentType)) {
-                    body = getParameters();
-                    if (isConvertibleValues) {
-                        return (Optional<T>) Optional.of(body);
-                    } else {
-                        return Optional.empty();
-                    }
-                } else if (CharSequence.class.isAssignableFrom(type)) {
-                    try (BufferedReader reader = delegate.getReader()) {
-                        final T value = (T) IOUtils.readText(reader);
-                        body = value;
-                        return Optional.ofNullable(value);
-                    } catch (IOException e) {
-                        throw new CodecException("Error decoding request body: " + e.getMessage(), e);
-                    }
-                } else {
-
-                    final MediaTypeCodec codec = codecRegistry.findCodec(contentType, type).orElse(null);
-                    if (codec != null) {
-                        try (InputStream inputStream = delegate.getInputStream()) {
-                            if (isConvertibleValues) {
-                                final Map map = codec.decode(Map.class, inputStream);
-                                body = ConvertibleValues.of(map);
-                                return (Optional<T>) Optional.of(body);
-                            } else {
-                                final T value = codec.decode(arg, inputStream);
-                                body = value;
-                                return Optional.ofNullable(value);
-                            }
-                        } catch (CodecException | IOException e) {
-                            throw new CodecException("Error decoding request body: " + e.getMessage(), e);
-                        }
+    public boolean isAsyncStarted() {
+        return this.scheduler != null;
+    }
 
-                    }
+    @Override
+    public Executor getAsyncExecutor() {
+        return task -> {
+            final AsyncState asyncState = this.asyncState;
+            if (asyncState != null && !asyncState.completed.get()) {
+                try {
+                    asyncState.asyncContext.start(task);
+                    return;
+                } catch (IllegalStateException e) {
+                    // the request completed in the meantime
                 }
-            } else {
-                if (type.isInstance(body)) {
-                    return (Optional<T>) Optional.of(body);
-                } else {
-                    if (body != null && body != parameters) {
-                        final T result = ConversionService.SHARED.convertRequired(body, arg);
-                        return Optional.ofNullable(result);
-                    }
+            }
+            task.run();
+        };
+    }
+
+    @Override
+    public Runnable startAsync() {
+        if (this.scheduler != null) {
+            throw new IllegalStateException("Asynchronous processing has already been started");
+        }
+        final AsyncState asyncState = startAsyncContext();
+        this.scheduler = Schedulers.from(asyncState.asyncContext::start);
+        return asyncState::release;
+    }
+
+    @Override
+    public void addAbortListener(Runnable listener) {
+        final AsyncState asyncState = this.asyncState;
+        if (asyncState != null) {
+            asyncState.addAbortListener(listener);
+        }
+    }
+
+    @Override
+    public ResponseClaim getResponseClaim() {
+        ResponseClaim claim = this.responseClaim;
+        if (claim == null) {
+            synchronized (this) {
+                claim = this.responseClaim;
+                if (claim == null) {
+                    claim = new ResponseClaim();
+                    this.responseClaim = claim;
                 }
+            }
+        }
+        return claim;
+    }
+
+    /**
+     * Starts asynchronous processing and listens for the client disconnecting or the container timing out the
+     * request. If a deadline applies to the request the timeout of the container is extended beyond it, so that the
+     * handler can respond when the deadline passes rather than the container. Otherwise the configured asynchronous
+     * timeout applies, if any.
+     *
+     * @return The state of the asynchronous processing
+     */
+    private AsyncState startAsyncContext() {
+        final AsyncContext asyncContext = delegate.startAsync();
+        final RequestDeadline deadline = RequestDeadline.find(this).orElse(null);
+        if (deadline != null) {
+            asyncContext.setTimeout(deadline.getRemaining().toMillis() + ASYNC_TIMEOUT_GRACE_PERIOD);
+        } else if (servletConfiguration != null) {
+            servletConfiguration.getAsyncTimeout().ifPresent(timeout -> asyncContext.setTimeout(timeout.toMillis()));
+        }
+        final AsyncState asyncState = new AsyncState(asyncContext, this::onCompleted, getResponseClaim());
+        asyncContext.addListener(asyncState);
+        this.asyncState = asyncState;
+        return asyncState;
+    }
 
+    @NonNull
+    @Override
+    public <T> Optional<T> getBody(@NonNull Argument<T> arg) {
+        if (arg != null && getContentLength() != 0) {
+            final MediaType contentType = getContentType().orElse(MediaType.APPLICATION_JSON_TYPE);
+            if (isFormSubmission(contentType)) {
+                checkContentLength();
+                final HttpParameters parameters = getParameters();
+                if (ConvertibleValues.class == arg.getType() || arg.getType().isInstance(parameters)) {
+                    return (Optional<T>) Optional.of(parameters);
+                }
+                return Optional.empty();
             }
+            return getRequestBody().getBody(arg);
         }
         return Optional.empty();
     }
 
+    /**
+     * The body of the request, shared by {@link #getBody(Argument)} and the binding of body arguments so that the
+     * body is only read and decoded once.
+     *
+     * @return The request body
+     * @since 2.2.0
+     */
+    public ServletRequestBody getRequestBody() {
+        ServletRequestBody requestBody = this.requestBody;
+        if (requestBody == null) {
+            final long maxCachedSize = servletConfiguration != null
+                    ? servletConfiguration.getMaxCachedBodySize()
+                    : MicronautServletConfiguration.DEFAULT_MAX_CACHED_BODY_SIZE;
+            requestBody = new ServletRequestBody(this, codecRegistry, maxCachedSize);
+            this.requestBody = requestBody;
+        }
+        return requestBody;
+    }
+
     @NonNull
     @Override
     public Optional<Principal> getUserPrincipal() {
@@ -272,14 +520,116 @@ public class DefaultServletHttpRequest<B> implements
 
     @Override
     public InputStream getInputStream() throws IOException {
-        return delegate.getInputStream();
+        final ReplayableBody replayableBody = this.replayableBody;
+        if (replayableBody != null) {
+            return replayableBody.getInputStream();
+        }
+        if (bodyStream == null) {
+            ServletInputStream stream = openLimitedStream();
+            final StreamingInflater inflater = newInflater();
+            if (inflater != null) {
+                stream = new DecompressingServletInputStream(stream, inflater);
+            }
+            bodyStream = stream;
+        }
+        return bodyStream;
     }
 
     @Override
     public BufferedReader getReader() throws IOException {
+        if (replayableBody != null || bodyStream != null || resolveContentEncoding() != null || getMaxRequestSize() > -1) {
+            return new BufferedReader(new InputStreamReader(getInputStream(), getCharacterEncoding()));
+        }
         return delegate.getReader();
     }
 
+    /**
+     * Buffers the body of the request so that it can be read more than once. Once buffered, {@link #getInputStream()}
+     * and the body publisher read from the buffer, which is released when the request completes.
+     *
+     * @return The buffered body, or empty if body buffering is not enabled or the body has already been read
+     * @throws CodecException If the body cannot be read
+     * @since 2.2.0
+     */
+    public synchronized Optional<ReplayableBody> getReplayableBody() {
+        ReplayableBody replayableBody = this.replayableBody;
+        if (replayableBody == null) {
+            if (bodyBufferAllocator == null || bodyStream != null) {
+                return Optional.empty();
+            }
+            try (InputStream inputStream = getInputStream()) {
+                replayableBody = bodyBufferAllocator.read(inputStream);
+            } catch (IOException e) {
+                throw new CodecException("Error reading request body: " + e.getMessage(), e);
+            }
+            this.replayableBody = replayableBody;
+            addCompletionListener(replayableBody::release);
+        }
+        return Optional.of(replayableBody);
+    }
+
+    /**
+     * The maximum size of the request body. This is the value of {@link MaxRequestSize} on the route, or the maximum
+     * request size of a route declaring {@link MultipartLimits}, and otherwise {@code micronaut.server.max-request-size}.
+     *
+     * @return The maximum size in bytes, or {@code -1} if the size is not limited
+     * @since 2.2.0
+     */
+    public long getMaxRequestSize() {
+        long maxSize = this.maxRequestSize;
+        if (maxSize == UNRESOLVED_SIZE) {
+            final long serverMaxSize = servletConfiguration != null ? servletConfiguration.getMaxRequestSize() : -1;
+            final AnnotationMetadataProvider route = getAttribute(HttpAttributes.ROUTE_MATCH, AnnotationMetadataProvider.class).orElse(null);
+            if (route == null) {
+                return serverMaxSize;
+            }
+            final AnnotationMetadata metadata = route.getAnnotationMetadata();
+            final OptionalLong routeMaxSize = metadata.longValue(MaxRequestSize.class);
+            final OptionalLong multipartMaxSize = metadata.longValue(MultipartLimits.class, "maxRequestSize");
+            if (routeMaxSize.isPresent()) {
+                maxSize = routeMaxSize.getAsLong();
+            } else if (multipartMaxSize.isPresent() && multipartMaxSize.getAsLong() != MultipartLimits.INHERIT) {
+                maxSize = multipartMaxSize.getAsLong();
+            } else {
+                maxSize = serverMaxSize;
+            }
+            this.maxRequestSize = maxSize < 0 ? -1 : maxSize;
+        }
+        return this.maxRequestSize;
+    }
+
+    /**
+     * Opens the stream of the request body. Bodies whose {@code Content-Length} exceeds the maximum request size
+     * are rejected before anything is read, and bodies without a length fail once too much has been read.
+     *
+     * @return The stream
+     * @throws IOException If the stream cannot be opened
+     */
+    private ServletInputStream openLimitedStream() throws IOException {
+        final long maxSize = getMaxRequestSize();
+        if (maxSize < 0) {
+            return delegate.getInputStream();
+        }
+        checkContentLength();
+        return new BoundedServletInputStream(delegate.getInputStream(), maxSize);
+    }
+
+    /**
+     * Rejects the request if its {@code Content-Length} exceeds the maximum request size. This does not touch the
+     * body, so containers do not answer {@code Expect: 100-continue} for a rejected request.
+     *
+     * @throws ContentLengthExceededException If the content length exceeds the maximum request size
+     */
+    void checkContentLength() {
+        final long maxSize = getMaxRequestSize();
+        final long contentLength = delegate.getContentLengthLong();
+        if (maxSize > -1 && contentLength > maxSize) {
+            throw new ContentLengthExceededException(
+                    "The content length [" + contentLength + "] exceeds the maximum allowed content length [" + maxSize + "]"
+            );
+        }
+    }
+
     @Override
     public HttpServletRequest getNativeRequest() {
         return delegate;
@@ -293,7 +643,11 @@ public class DefaultServletHttpRequest<B> implements
             synchronized (this) { // double check
                 cookies = this.cookies;
                 if (cookies == null) {
-                    cookies = new DefaultServletCookies(delegate.getCookies());
+                    if (servletConfiguration != null && servletConfiguration.isParseCookieHeader()) {
+                        cookies = DefaultServletCookies.fromHeaders(delegate.getHeaders(HttpHeaders.COOKIE));
+                    } else {
+                        cookies = new DefaultServletCookies(delegate.getCookies());
+                    }
                     this.cookies = cookies;
                 }
             }
@@ -307,6 +661,92 @@ public class DefaultServletHttpRequest<B> implements
         return parameters;
     }
 
+    @Override
+    public void addExecutionCondition(Publisher<?> condition) {
+        if (executionConditions == null) {
+            executionConditions = new ArrayList<>(2);
+        }
+        executionConditions.add(condition);
+    }
+
+    @Override
+    public @Nullable Publisher<?> takeExecutionConditions() {
+        final List<Publisher<?>> conditions = this.executionConditions;
+        if (CollectionUtils.isEmpty(conditions)) {
+            return null;
+        }
+        this.executionConditions = null;
+        return Flowable.fromIterable(conditions)
+                .concatMapCompletable(Completable::fromPublisher)
+                .toFlowable();
+    }
+
+    @Override
+    public void setFormFieldNames(@Nullable Set<String> names) {
+        if (servletConfiguration != null && servletConfiguration.isBoundFormFieldsOnly()) {
+            this.formFieldNames = names;
+        }
+    }
+
+    /**
+     * The parameters of a request with an {@code application/x-www-form-urlencoded} body, decoded from the query
+     * string and the body. The body is decoded as it is read rather than by the container. All the fields are kept
+     * unless {@link MicronautServletConfiguration#isBoundFormFieldsOnly()} restricts them to the
+     * {@link #setFormFieldNames(Set) names the route binds}.
+     *
+     * @return The parameters, or null if the request does not have a form body or the body has already been read
+     * by the container, in which case the parameters of the container are used
+     */
+    private @Nullable Map<String, List<String>> getFormFields() {
+        if (!formFieldsResolved) {
+            formFieldsResolved = true;
+            if (!HttpMethod.permitsRequestBody(method) || getContentLength() == 0 || !isFormUrlEncoded() || !isBodyUnread()) {
+                return null;
+            }
+            final Map<String, List<String>> fields = new LinkedHashMap<>();
+            final int maxFields = servletConfiguration != null ? servletConfiguration.getMaxFormFields() : -1;
+            final long maxFieldSize = servletConfiguration != null ? servletConfiguration.getMaxFormFieldSize() : -1;
+            final FormUrlEncodedDecoder queryDecoder = new FormUrlEncodedDecoder(getCharacterEncoding(), null, maxFields, maxFieldSize, fields);
+            queryDecoder.decode(delegate.getQueryString());
+            // the query string and the body share the limit on the number of fields
+            final int maxBodyFields = maxFields > -1 ? Math.max(0, maxFields - queryDecoder.getFieldCount()) : -1;
+            try (InputStream inputStream = getInputStream()) {
+                new FormUrlEncodedDecoder(getCharacterEncoding(), formFieldNames, maxBodyFields, maxFieldSize, fields)
+                        .decode(inputStream);
+            } catch (IOException e) {
+                throw new CodecException("Error decoding request body: " + e.getMessage(), e);
+            }
+            this.formFields = fields;
+        }
+        return formFields;
+    }
+
+    /**
+     * Whether nothing has read the body yet, so that it can be decoded. A servlet filter, or the container itself,
+     * that calls {@code getParameter} reads the whole body of a form, and so does reading the input stream.
+     *
+     * @return True if the body has not been read, or has been buffered so that it can be read again
+     */
+    private boolean isBodyUnread() {
+        if (replayableBody != null) {
+            return true;
+        }
+        if (bodyStream != null) {
+            return false;
+        }
+        try {
+            return !delegate.getInputStream().isFinished();
+        } catch (IllegalStateException | IOException e) {
+            // the body has been read with getReader()
+            return false;
+        }
+    }
+
+    private boolean isFormUrlEncoded() {
+        final String contentType = delegate.getContentType();
+        return contentType != null && MediaType.APPLICATION_FORM_URLENCODED_TYPE.equals(new MediaType(contentType));
+    }
+
     @NonNull
     @Override
     public HttpMethod getMethod() {
@@ -423,62 +863,56 @@ public class DefaultServletHttpRequest<B> implements
 
     @Override
     public void subscribe(Subscriber<? super byte[]> s) {
-        Flowable.<byte[]>create(emitter -> {
-            ServletInputStream inputStream;
-            try {
-                inputStream = delegate.getInputStream();
-            } catch (IOException e) {
-                emitter.onError(e);
-                return;
-            }
-            byte[] buffer = new byte[1024];
-            inputStream.setReadListener(new ReadListener() {
-                boolean complete = false;
-
-                @Override
-                public void onDataAvailable() {
-                    if (!complete) {
-                        try {
-                            do {
-                                int length = inputStream.read(buffer);
-                                if (length == -1) {
-                                    complete = true;
-                                    emitter.onComplete();
-                                    break;
-                                } else {
-                                    if (buffer.length == length) {
-                                        emitter.onNext(buffer);
-                                    } else {
-                                        emitter.onNext(Arrays.copyOf(buffer, length));
-                                    }
-                                }
-                            } while (inputStream.isReady());
-                        } catch (IOException e) {
-                            complete = true;
-                            emitter.onError(e);
+        final ReplayableBody replayableBody = this.replayableBody;
+        if (replayableBody != null) {
+            Flowable.using(
+                    replayableBody::getInputStream,
+                    inputStream -> Flowable.<byte[]>generate(emitter -> {
+                        final byte[] buffer = new byte[REPLAY_BUFFER_SIZE];
+                        final int read = inputStream.read(buffer);
+                        if (read == -1) {
+                            emitter.onComplete();
+                        } else {
+                            emitter.onNext(read == buffer.length ? buffer : Arrays.copyOf(buffer, read));
                         }
-                    }
-                }
+                    }),
+                    InputStream::close
+            ).subscribe(s);
+            return;
+        }
+        final ServletInputStream inputStream;
+        try {
+            inputStream = openLimitedStream();
+        } catch (IOException | ContentLengthExceededException e) {
+            Flowable.<byte[]>error(e).subscribe(s);
+            return;
+        }
+        // compressed bodies are inflated chunk by chunk as they arrive, without blocking
+        new BodySubscription(s, inputStream, newInflater()).start();
+    }
 
-                @Override
-                public void onAllDataRead() {
-                    if (!complete) {
-                        complete = true;
-                        emitter.onComplete();
-                    }
-                }
 
-                @Override
-                public void onError(Throwable t) {
-                    if (!complete) {
-                        complete = true;
-                        emitter.onError(t);
-                    }
-                }
-            });
-        }, BackpressureStrategy.BUFFER).subscribe(s);
+    /**
+     * @return The supported content encoding of the request body if it should be decompressed, otherwise null
+     */
+    private @Nullable String resolveContentEncoding() {
+        if (servletConfiguration != null && servletConfiguration.isDecompressRequests()) {
+            return StreamingInflater.supportedEncoding(delegate.getHeader(HttpHeaders.CONTENT_ENCODING));
+        }
+        return null;
     }
 
+    private @Nullable StreamingInflater newInflater() {
+        final String encoding = resolveContentEncoding();
+        if (encoding != null) {
+            return new StreamingInflater(
+                    encoding,
+                    servletConfiguration.getMaxDecompressedSize(),
+                    servletConfiguration.getMaxDecompressionRatio()
+            );
+        }
+        return null;
+    }
 
     /**
      * The servlet request headers.
@@ -529,22 +963,33 @@ public class DefaultServletHttpRequest<B> implements
 
         @Override
         public List<String> getAll(CharSequence name) {
-            final String[] values = delegate.getParameterValues(
-                    Objects.requireNonNull(name, "Parameter name cannot be null").toString()
-            );
+            final String paramName = Objects.requireNonNull(name, "Parameter name cannot be null").toString();
+            final Map<String, List<String>> formFields = getFormFields();
+            if (formFields != null) {
+                return formFields.getOrDefault(paramName, Collections.emptyList());
+            }
+            final String[] values = delegate.getParameterValues(paramName);
             return Arrays.asList(values);
         }
 
         @Nullable
         @Override
         public String get(CharSequence name) {
-            return delegate.getParameter(
-                    Objects.requireNonNull(name, "Parameter name cannot be null").toString()
-            );
+            final String paramName = Objects.requireNonNull(name, "Parameter name cannot be null").toString();
+            final Map<String, List<String>> formFields = getFormFields();
+            if (formFields != null) {
+                final List<String> values = formFields.get(paramName);
+                return CollectionUtils.isNotEmpty(values) ? values.get(0) : null;
+            }
+            return delegate.getParameter(paramName);
         }
 
         @Override
         public Set<String> names() {
+            final Map<String, List<String>> formFields = getFormFields();
+            if (formFields != null) {
+                return formFields.keySet();
+            }
             return CollectionUtils.enumerationToSet(delegate.getParameterNames());
         }
 
@@ -567,7 +1012,7 @@ public class DefaultServletHttpRequest<B> implements
             final boolean isIterable = Iterable.class.isAssignableFrom(rawType);
             final String paramName = Objects.requireNonNull(name, "Parameter name should not be null").toString();
             if (isIterable) {
-                final String[] parameterValues = delegate.getParameterValues(paramName);
+                final String[] parameterValues = getValues(paramName);
                 if (ArrayUtils.isNotEmpty(parameterValues)) {
                     if (parameterValues.length == 1) {
                         return ConversionService.SHARED.convert(parameterValues[0], conversionContext);
@@ -596,5 +1041,249 @@ public class DefaultServletHttpRequest<B> implements
             }
             return Optional.empty();
         }
+
+        private @Nullable String[] getValues(String name) {
+            final Map<String, List<String>> formFields = getFormFields();
+            if (formFields != null) {
+                final List<String> values = formFields.get(name);
+                return values != null ? values.toArray(new String[0]) : null;
+            }
+            return delegate.getParameterValues(name);
+        }
+    }
+
+    /**
+     * Reads the body without blocking, and only as far as the subscriber has requested, so that a slow consumer
+     * does not cause the whole body to be held in memory. The container only notifies the read listener again once
+     * {@link ServletInputStream#isReady()} has returned false, so reading that stopped for lack of demand is resumed
+     * by {@link #request(long)}.
+     */
+    private static final class BodySubscription implements ReadListener, Subscription {
+        private final Subscriber<? super byte[]> subscriber;
+        private final ServletInputStream inputStream;
+        private final StreamingInflater inflater;
+        private final byte[] buffer = new byte[BODY_BUFFER_SIZE];
+        private final Queue<byte[]> chunks = new ArrayDeque<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean subscribed;
+        private volatile boolean available = true;
+        private volatile boolean endOfInput;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private boolean done;
+
+        BodySubscription(Subscriber<? super byte[]> subscriber, ServletInputStream inputStream, @Nullable StreamingInflater inflater) {
+            this.subscriber = subscriber;
+            this.inputStream = inputStream;
+            this.inflater = inflater;
+        }
+
+        /**
+         * Registers the read listener and then subscribes the subscriber. Signals of the container that arrive in
+         * between are delivered once the subscriber is subscribed.
+         */
+        void start() {
+            inputStream.setReadListener(this);
+            subscriber.onSubscribe(this);
+            subscribed = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Request must be positive: " + n);
+            } else {
+                requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        @Override
+        public void onDataAvailable() {
+            available = true;
+            drain();
+        }
+
+        @Override
+        public void onAllDataRead() {
+            endOfInput = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (subscribed) {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            while (!done) {
+                final Throwable failure = error;
+                if (cancelled || failure != null) {
+                    done = true;
+                    chunks.clear();
+                    if (inflater != null) {
+                        inflater.release();
+                    }
+                    if (!cancelled) {
+                        subscriber.onError(failure);
+                    }
+                } else if (!chunks.isEmpty()) {
+                    if (requested.get() == 0) {
+                        return;
+                    }
+                    requested.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+                    subscriber.onNext(chunks.poll());
+                } else if (endOfInput) {
+                    done = true;
+                    if (inflater != null) {
+                        try {
+                            inflater.finish();
+                        } catch (IOException e) {
+                            subscriber.onError(e);
+                            return;
+                        }
+                    }
+                    subscriber.onComplete();
+                } else if (requested.get() == 0 || !available) {
+                    return;
+                } else {
+                    read();
+                }
+            }
+        }
+
+        private void read() {
+            // cleared before isReady() so that a notification of the container triggered by it is not lost
+            available = false;
+            try {
+                if (inputStream.isReady()) {
+                    available = true;
+                    final int length = inputStream.read(buffer);
+                    if (length == -1) {
+                        endOfInput = true;
+                    } else if (inflater != null) {
+                        inflater.inflate(buffer, 0, length, chunks::add);
+                    } else if (length > 0) {
+                        chunks.add(Arrays.copyOf(buffer, length));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * The state of the asynchronous processing of a request. Notifies the abort listeners when the client disconnects
+     * or the container times out the request, and completes the async context exactly once.
+     */
+    private static final class AsyncState implements AsyncListener {
+        private final AsyncContext asyncContext;
+        private final Runnable completionListener;
+        private final ResponseClaim responseClaim;
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final List<Runnable> abortListeners = new CopyOnWriteArrayList<>();
+        private volatile boolean aborted;
+
+        AsyncState(AsyncContext asyncContext, Runnable completionListener, ResponseClaim responseClaim) {
+            this.asyncContext = asyncContext;
+            this.completionListener = completionListener;
+            this.responseClaim = responseClaim;
+        }
+
+        void addAbortListener(Runnable listener) {
+            abortListeners.add(listener);
+            if (aborted && abortListeners.remove(listener)) {
+                listener.run();
+            }
+        }
+
+        /**
+         * Registers a response that is still being written. The request completes once every response has released.
+         */
+        void retain() {
+            pending.incrementAndGet();
+        }
+
+        void release() {
+            if (pending.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+
+        void complete() {
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    asyncContext.complete();
+                } catch (IllegalStateException e) {
+                    // the container already completed the request
+                }
+            }
+        }
+
+        private void abort() {
+            aborted = true;
+            for (Runnable listener : abortListeners) {
+                if (abortListeners.remove(listener)) {
+                    listener.run();
+                }
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            completed.set(true);
+            abortListeners.clear();
+            completionListener.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            abort();
+            final ServletResponse response = event.getAsyncContext().getResponse();
+            // the route may be writing the response on another thread, in which case it has claimed the response
+            if (responseClaim.claimForContainer() && !response.isCommitted() && response instanceof HttpServletResponse) {
+                // nothing was sent yet, so respond as the handler does when a request exceeds its deadline
+                response.resetBuffer();
+                ((HttpServletResponse) response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                complete();
+            }
+            // otherwise the route is writing the response and the container completes the request
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // the client disconnected, so nothing more can be sent
+            abort();
+            complete();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // no-op
+        }
     }
 }
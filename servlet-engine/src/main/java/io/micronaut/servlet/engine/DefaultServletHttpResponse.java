@@ -29,6 +29,10 @@ import io.micronaut.http.annotation.Produces;
 import io.micronaut.http.codec.MediaTypeCodec;
 import io.micronaut.http.cookie.Cookie;
 import io.micronaut.http.server.exceptions.InternalServerException;
+import io.micronaut.servlet.engine.compression.CompressingServletOutputStream;
+import io.micronaut.servlet.engine.compression.ContentEncoder;
+import io.micronaut.servlet.engine.compression.ResponseCompressor;
+import io.micronaut.servlet.http.ServletHeaderNames;
 import io.micronaut.servlet.http.ServletHttpResponse;
 import io.reactivex.BackpressureStrategy;
 import io.reactivex.Flowable;
@@ -42,9 +46,9 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link ServletHttpResponse} for the Servlet API.
@@ -60,6 +64,7 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
     private final HttpServletResponse delegate;
     private final DefaultServletHttpRequest<?> request;
     private final ServletResponseHeaders headers;
+    private ServletOutputStream outputStream;
     private B body;
 
     /**
@@ -89,9 +94,15 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
             @Override
             public void onSubscribe(Subscription s) {
                 subscription = s;
+                // cancel the data publisher when the response is cancelled, for example because the client disconnected
+                emitter.setCancellable(() -> {
+                    if (finished.compareAndSet(false, true)) {
+                        s.cancel();
+                    }
+                });
                 delegate.setHeader(HttpHeaders.TRANSFER_ENCODING, "chunked");
                 try {
-                    outputStream = delegate.getOutputStream();
+                    outputStream = openOutputStream(true);
                     outputStream.setWriteListener(new WriteListener() {
                         @Override
                         public void onWritePossible() {
@@ -100,7 +111,10 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
 
                         @Override
                         public void onError(Throwable t) {
-                            emitter.onError(t);
+                            if (finished.compareAndSet(false, true)) {
+                                emitter.onError(t);
+                                s.cancel();
+                            }
                         }
                     });
                 } catch (IOException e) {
@@ -182,7 +196,9 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
             public void onComplete() {
                 if (finished.compareAndSet(false, true)) {
                     try {
-                        if (!raw && isJson && outputStream.isReady()) {
+                        boolean compressing = outputStream instanceof CompressingServletOutputStream;
+                        // the compressing stream accepts the closing bracket and writes it once the container is ready
+                        if (!raw && isJson && (compressing || outputStream.isReady())) {
                             if (first) { //empty publisher
                                 outputStream.write(EMPTY_ARRAY);
                             } else {
@@ -190,8 +206,15 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
                             }
                             flushIfReady();
                         }
-                        emitter.onNext(DefaultServletHttpResponse.this);
-                        emitter.onComplete();
+                        if (compressing) {
+                            ((CompressingServletOutputStream) outputStream).finish(() -> {
+                                emitter.onNext(DefaultServletHttpResponse.this);
+                                emitter.onComplete();
+                            });
+                        } else {
+                            emitter.onNext(DefaultServletHttpResponse.this);
+                            emitter.onComplete();
+                        }
                     } catch (IOException e) {
                         emitter.onError(e);
                     }
@@ -231,9 +254,16 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
 
     @Override
     public MutableHttpResponse<B> header(CharSequence name, CharSequence value) {
-        final String headerName = Objects.requireNonNull(name, "Header name cannot be null").toString();
-        final String headerValue = Objects.requireNonNull(value, "Header value cannot be null").toString();
-        delegate.addHeader(headerName, headerValue);
+        delegate.addHeader(ServletHeaderNames.of(name), ServletHeaderNames.value(value));
+        return this;
+    }
+
+    @Override
+    public MutableHttpResponse<B> headers(String[] names, String[] values) {
+        final HttpServletResponse delegate = this.delegate;
+        for (int i = 0; i < names.length; i++) {
+            delegate.addHeader(names[i], values[i]);
+        }
         return this;
     }
 
@@ -264,14 +294,42 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
 
     @Override
     public OutputStream getOutputStream() throws IOException {
-        return delegate.getOutputStream();
+        return openOutputStream(false);
     }
 
     @Override
     public BufferedWriter getWriter() throws IOException {
+        if (outputStream == null && selectEncoder() != null) {
+            // the container writer cannot be compressed, so encode characters onto the compressing stream instead
+            String encoding = delegate.getCharacterEncoding();
+            delegate.setCharacterEncoding(encoding);
+            return new BufferedWriter(new OutputStreamWriter(openOutputStream(false), encoding));
+        }
         return new BufferedWriter(delegate.getWriter());
     }
 
+    private ServletOutputStream openOutputStream(boolean streaming) throws IOException {
+        ServletOutputStream outputStream = this.outputStream;
+        if (outputStream == null) {
+            outputStream = delegate.getOutputStream();
+            ContentEncoder encoder = selectEncoder();
+            if (encoder != null) {
+                CompressingServletOutputStream compressing = request.getResponseCompressor()
+                        .compress(delegate, outputStream, encoder, streaming);
+                // returns the encoder to its pool when the response is aborted before the stream is finished
+                request.addCompletionListener(compressing::release);
+                outputStream = compressing;
+            }
+            this.outputStream = outputStream;
+        }
+        return outputStream;
+    }
+
+    private @Nullable ContentEncoder selectEncoder() {
+        ResponseCompressor compressor = request.getResponseCompressor();
+        return compressor != null ? compressor.selectEncoder(request.getNativeRequest(), delegate) : null;
+    }
+
     @Override
     public MutableHttpResponse<B> cookie(Cookie cookie) {
         if (cookie instanceof ServletCookieAdapter) {
@@ -368,33 +426,29 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
 
         @Override
         public MutableHttpHeaders add(CharSequence header, CharSequence value) {
-            final String headerName =
-                    Objects.requireNonNull(header, "Header name cannot be null").toString();
-
-            final String headerValue =
-                    Objects.requireNonNull(value, "Header value cannot be null").toString();
-
             delegate.setHeader(
-                    headerName,
-                    headerValue
+                    ServletHeaderNames.of(header),
+                    ServletHeaderNames.value(value)
             );
             return this;
         }
 
         @Override
         public MutableHttpHeaders remove(CharSequence header) {
-            final String headerName = Objects.requireNonNull(header, "Header name cannot be null").toString();
+            final String headerName = ServletHeaderNames.of(header);
             if (delegate.containsHeader(headerName)) {
-                delegate.setHeader(headerName, "");
+                // most containers remove the header when given a null value
+                delegate.setHeader(headerName, null);
+                if (delegate.containsHeader(headerName)) {
+                    delegate.setHeader(headerName, "");
+                }
             }
             return this;
         }
 
         @Override
         public List<String> getAll(CharSequence name) {
-            final Collection<String> values = delegate.getHeaders(
-                    Objects.requireNonNull(name, "Header name cannot be null").toString()
-            );
+            final Collection<String> values = delegate.getHeaders(ServletHeaderNames.of(name));
             if (values instanceof List) {
                 return (List<String>) values;
             }
@@ -404,9 +458,12 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
         @Nullable
         @Override
         public String get(CharSequence name) {
-            return delegate.getHeader(
-                    Objects.requireNonNull(name, "Header name cannot be null").toString()
-            );
+            return delegate.getHeader(ServletHeaderNames.of(name));
+        }
+
+        @Override
+        public boolean contains(String name) {
+            return delegate.containsHeader(name);
         }
 
         @Override
@@ -415,16 +472,35 @@ public class DefaultServletHttpResponse<B> implements ServletHttpResponse<HttpSe
             if (headerNames instanceof Set) {
                 return (Set<String>) headerNames;
             } else {
-                return new HashSet<>(headerNames);
+                return new LinkedHashSet<>(headerNames);
             }
         }
 
         @Override
         public Collection<List<String>> values() {
-            return names()
-                    .stream()
-                    .map(this::getAll)
-                    .collect(Collectors.toList());
+            final Set<String> names = names();
+            return new AbstractCollection<List<String>>() {
+                @Override
+                public Iterator<List<String>> iterator() {
+                    final Iterator<String> i = names.iterator();
+                    return new Iterator<List<String>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return i.hasNext();
+                        }
+
+                        @Override
+                        public List<String> next() {
+                            return getAll(i.next());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return names.size();
+                }
+            };
         }
 
         @Override
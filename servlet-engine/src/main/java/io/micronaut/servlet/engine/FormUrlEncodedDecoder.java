@@ -0,0 +1,207 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.codec.CodecException;
+import io.micronaut.http.exceptions.ContentLengthExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decodes {@code application/x-www-form-urlencoded} content as it is read. Fields whose name is not accepted are
+ * skipped without being decoded, so large forms only cost memory for the fields that are bound.
+ *
+ * @since 2.2.0
+ */
+final class FormUrlEncodedDecoder {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int INITIAL_FIELD_SIZE = 64;
+    private static final int HEX_RADIX = 16;
+    private static final int HEX_SHIFT = 4;
+
+    private final Charset charset;
+    private final Set<String> names;
+    private final int maxFields;
+    private final long maxFieldSize;
+    private final Map<String, List<String>> fields;
+
+    private byte[] field = new byte[INITIAL_FIELD_SIZE];
+    private int fieldLength;
+    private long rawLength;
+    private String name;
+    private boolean skipping;
+    private int escape;
+    private int escapeHigh;
+    private int fieldCount;
+
+    /**
+     * Default constructor.
+     *
+     * @param charset      The charset of the content
+     * @param names        The names of the fields to decode, or null to decode all fields
+     * @param maxFields    The maximum number of fields, or a negative value for no limit
+     * @param maxFieldSize The maximum size in bytes of a field name or value, or a negative value for no limit
+     * @param fields       The map the decoded fields are added to
+     */
+    FormUrlEncodedDecoder(
+            Charset charset,
+            @Nullable Set<String> names,
+            int maxFields,
+            long maxFieldSize,
+            Map<String, List<String>> fields) {
+        this.charset = charset;
+        this.names = names;
+        this.maxFields = maxFields;
+        this.maxFieldSize = maxFieldSize;
+        this.fields = fields;
+    }
+
+    /**
+     * Decodes all the content of the given stream.
+     *
+     * @param inputStream The stream
+     * @throws IOException If the stream cannot be read
+     */
+    void decode(InputStream inputStream) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            decode(buffer, 0, read);
+        }
+        complete();
+    }
+
+    /**
+     * Decodes a query string.
+     *
+     * @param query The query string, can be null
+     */
+    void decode(@Nullable String query) {
+        if (query != null && !query.isEmpty()) {
+            final byte[] bytes = query.getBytes(charset);
+            decode(bytes, 0, bytes.length);
+            complete();
+        }
+    }
+
+    /**
+     * @return The number of fields decoded so far, including the fields that were skipped
+     */
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    private void decode(byte[] bytes, int offset, int length) {
+        final int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            final byte b = bytes[i];
+            if (b == '&') {
+                endField();
+            } else if (b == '=' && name == null) {
+                name = fieldString();
+                skipping = names != null && !names.contains(name);
+                resetField();
+            } else {
+                if (maxFieldSize > -1 && ++rawLength > maxFieldSize) {
+                    throw new ContentLengthExceededException("A form field exceeds the maximum allowed size of " + maxFieldSize + " bytes");
+                }
+                if (!skipping) {
+                    append(b);
+                }
+            }
+        }
+    }
+
+    private void complete() {
+        endField();
+    }
+
+    private void append(byte b) {
+        if (escape > 0) {
+            final int digit = Character.digit(b, HEX_RADIX);
+            if (digit < 0) {
+                throw new CodecException("Invalid percent-encoding in form field");
+            }
+            if (escape == 1) {
+                escapeHigh = digit;
+                escape = 2;
+            } else {
+                write((byte) ((escapeHigh << HEX_SHIFT) | digit));
+                escape = 0;
+            }
+        } else if (b == '%') {
+            escape = 1;
+        } else if (b == '+') {
+            write((byte) ' ');
+        } else {
+            write(b);
+        }
+    }
+
+    private void write(byte b) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = b;
+    }
+
+    private void endField() {
+        if (name == null && fieldLength == 0 && escape == 0) {
+            // empty segment such as "a=1&&b=2"
+            resetField();
+            return;
+        }
+        if (maxFields > -1 && ++fieldCount > maxFields) {
+            throw new ContentLengthExceededException("The form exceeds the maximum allowed number of " + maxFields + " fields");
+        }
+        final String value;
+        if (name == null) {
+            name = fieldString();
+            value = "";
+            skipping = names != null && !names.contains(name);
+        } else {
+            value = skipping ? null : fieldString();
+        }
+        if (!skipping) {
+            fields.computeIfAbsent(name, n -> new ArrayList<>(1)).add(value);
+        }
+        name = null;
+        skipping = false;
+        resetField();
+    }
+
+    private String fieldString() {
+        if (escape > 0) {
+            throw new CodecException("Incomplete percent-encoding in form field");
+        }
+        return new String(field, 0, fieldLength, charset);
+    }
+
+    private void resetField() {
+        fieldLength = 0;
+        rawLength = 0;
+        escape = 0;
+    }
+}
@@ -19,12 +19,14 @@ import io.micronaut.context.annotation.ConfigurationInject;
 import io.micronaut.context.annotation.ConfigurationProperties;
 import io.micronaut.context.env.Environment;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.bind.annotation.Bindable;
 import io.micronaut.core.naming.Named;
 import io.micronaut.http.server.HttpServerConfiguration;
 
 import javax.servlet.MultipartConfigElement;
 import java.io.File;
+import java.time.Duration;
 import java.util.Optional;
 
 /**
@@ -40,9 +42,77 @@ public class MicronautServletConfiguration implements Named {
      * The prefix used for configuration.
      */
     public static final String PREFIX = "micronaut.servlet";
+
+    /**
+     * The default value for parsing the cookie header directly.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final boolean DEFAULT_PARSE_COOKIE_HEADER = false;
+
+    /**
+     * The default value for decompressing request bodies.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final boolean DEFAULT_DECOMPRESS_REQUESTS = false;
+
+    /**
+     * The default maximum ratio between the decompressed and the compressed size of a request body.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MAX_DECOMPRESSION_RATIO = 100;
+
+    /**
+     * The default value for notifying request event listeners asynchronously.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final boolean DEFAULT_ASYNC_REQUEST_EVENTS = false;
+
+    /**
+     * The default maximum size of a part that can be bound in memory, no limit.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_MAX_IN_MEMORY_PART_SIZE = -1;
+
+    /**
+     * The default maximum number of fields of a form body, no limit.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MAX_FORM_FIELDS = -1;
+
+    /**
+     * The default maximum size of a form field, no limit.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_MAX_FORM_FIELD_SIZE = -1;
+
+    /**
+     * The default value for decoding only the form fields bound by the route.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final boolean DEFAULT_BOUND_FORM_FIELDS_ONLY = false;
+
+    /**
+     * The default maximum size of a request body kept in memory once it has been read, 1MB.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_MAX_CACHED_BODY_SIZE = 1024 * 1024;
+
     private final String mapping;
     private final MultipartConfigElement multipartConfigElement;
     private final String name;
+    private boolean parseCookieHeader = DEFAULT_PARSE_COOKIE_HEADER;
+    private boolean decompressRequests = DEFAULT_DECOMPRESS_REQUESTS;
+    private long maxDecompressedSize;
+    private final long maxRequestSize;
+    private int maxDecompressionRatio = DEFAULT_MAX_DECOMPRESSION_RATIO;
+    private boolean asyncRequestEvents = DEFAULT_ASYNC_REQUEST_EVENTS;
+    private Duration requestTimeout;
+    private Duration asyncTimeout;
+    private long maxInMemoryPartSize = DEFAULT_MAX_IN_MEMORY_PART_SIZE;
+    private int maxFormFields = DEFAULT_MAX_FORM_FIELDS;
+    private long maxFormFieldSize = DEFAULT_MAX_FORM_FIELD_SIZE;
+    private boolean boundFormFieldsOnly = DEFAULT_BOUND_FORM_FIELDS_ONLY;
+    private long maxCachedBodySize = DEFAULT_MAX_CACHED_BODY_SIZE;
 
     /**
      * Default constructor.
@@ -57,6 +127,8 @@ public class MicronautServletConfiguration implements Named {
             HttpServerConfiguration serverConfiguration) {
         this.mapping = mapping != null ? mapping : "/*";
         this.name = name != null ? name : Environment.MICRONAUT;
+        this.maxDecompressedSize = serverConfiguration.getMaxRequestSize();
+        this.maxRequestSize = serverConfiguration.getMaxRequestSize();
         final HttpServerConfiguration.MultipartConfiguration multipart = serverConfiguration.getMultipart();
         if (multipart != null && multipart.isEnabled()) {
             this.multipartConfigElement = new MultipartConfigElement(
@@ -89,4 +161,253 @@ public class MicronautServletConfiguration implements Named {
     public String getName() {
         return name;
     }
+
+    /**
+     * @return Whether cookies are parsed from the raw {@code Cookie} header instead of the container's cookie array
+     * @since 2.2.0
+     */
+    public boolean isParseCookieHeader() {
+        return parseCookieHeader;
+    }
+
+    /**
+     * Sets whether cookies should be parsed lazily from the raw {@code Cookie} header instead of using
+     * {@link javax.servlet.http.HttpServletRequest#getCookies()}. Default value ({@value #DEFAULT_PARSE_COOKIE_HEADER}).
+     *
+     * @param parseCookieHeader True if the cookie header should be parsed directly
+     * @since 2.2.0
+     */
+    public void setParseCookieHeader(boolean parseCookieHeader) {
+        this.parseCookieHeader = parseCookieHeader;
+    }
+
+    /**
+     * @return Whether request bodies with a {@code Content-Encoding} of {@code gzip} or {@code deflate} are decompressed
+     * @since 2.2.0
+     */
+    public boolean isDecompressRequests() {
+        return decompressRequests;
+    }
+
+    /**
+     * Sets whether request bodies with a {@code Content-Encoding} of {@code gzip} or {@code deflate} are decompressed
+     * transparently. Default value ({@value #DEFAULT_DECOMPRESS_REQUESTS}).
+     *
+     * @param decompressRequests True if request bodies should be decompressed
+     * @since 2.2.0
+     */
+    public void setDecompressRequests(boolean decompressRequests) {
+        this.decompressRequests = decompressRequests;
+    }
+
+    /**
+     * @return The maximum size in bytes of a request body, configured with {@code micronaut.server.max-request-size}
+     * @since 2.2.0
+     */
+    public long getMaxRequestSize() {
+        return maxRequestSize;
+    }
+
+    /**
+     * @return The maximum size in bytes of a decompressed request body
+     * @since 2.2.0
+     */
+    public long getMaxDecompressedSize() {
+        return maxDecompressedSize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a decompressed request body. Defaults to the maximum request size of the server.
+     *
+     * @param maxDecompressedSize The maximum decompressed size
+     * @since 2.2.0
+     */
+    public void setMaxDecompressedSize(long maxDecompressedSize) {
+        this.maxDecompressedSize = maxDecompressedSize;
+    }
+
+    /**
+     * @return The maximum ratio between the decompressed and the compressed size of a request body
+     * @since 2.2.0
+     */
+    public int getMaxDecompressionRatio() {
+        return maxDecompressionRatio;
+    }
+
+    /**
+     * Sets the maximum ratio between the decompressed and the compressed size of a request body, guarding against
+     * highly compressed payloads. A value of zero or less disables the check. Default value
+     * ({@value #DEFAULT_MAX_DECOMPRESSION_RATIO}).
+     *
+     * @param maxDecompressionRatio The maximum ratio
+     * @since 2.2.0
+     */
+    public void setMaxDecompressionRatio(int maxDecompressionRatio) {
+        this.maxDecompressionRatio = maxDecompressionRatio;
+    }
+
+    /**
+     * @return Whether listeners of request events are notified asynchronously
+     * @since 2.2.0
+     */
+    public boolean isAsyncRequestEvents() {
+        return asyncRequestEvents;
+    }
+
+    /**
+     * Sets whether listeners of {@link io.micronaut.http.context.event.HttpRequestReceivedEvent} and
+     * {@link io.micronaut.http.context.event.HttpRequestTerminatedEvent} are notified on the I/O executor instead of the
+     * request thread. Only enable this when no listener relies on running before or after the request is processed.
+     * Default value ({@value #DEFAULT_ASYNC_REQUEST_EVENTS}).
+     *
+     * @param asyncRequestEvents True if listeners should be notified asynchronously
+     * @since 2.2.0
+     */
+    public void setAsyncRequestEvents(boolean asyncRequestEvents) {
+        this.asyncRequestEvents = asyncRequestEvents;
+    }
+
+    /**
+     * @return The time allowed to process a request, or empty if requests have no timeout
+     * @since 2.2.0
+     */
+    public Optional<Duration> getRequestTimeout() {
+        return Optional.ofNullable(requestTimeout);
+    }
+
+    /**
+     * Sets the time allowed to process a request. When the timeout elapses before the response is produced the
+     * processing of the request is cancelled and a {@code 503} response is returned. Routes can override the timeout
+     * with {@link io.micronaut.servlet.http.annotation.RequestTimeout}. By default requests have no timeout.
+     *
+     * @param requestTimeout The request timeout
+     * @since 2.2.0
+     */
+    public void setRequestTimeout(@Nullable Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * @return The timeout of the container for asynchronous requests without a request timeout, or empty to use the
+     * container's default
+     * @since 2.2.0
+     */
+    public Optional<Duration> getAsyncTimeout() {
+        return Optional.ofNullable(asyncTimeout);
+    }
+
+    /**
+     * Sets the timeout of the container for requests processed asynchronously that have no request timeout. When
+     * it elapses the processing of the request is cancelled, and a {@code 503} response is returned if nothing has
+     * been sent yet. By default the container's timeout applies.
+     *
+     * @param asyncTimeout The asynchronous timeout
+     * @since 2.2.0
+     */
+    public void setAsyncTimeout(@Nullable Duration asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    /**
+     * @return The maximum size in bytes of a part that can be bound as {@code byte[]} or {@code String}
+     * @since 2.2.0
+     */
+    public long getMaxInMemoryPartSize() {
+        return maxInMemoryPartSize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a multipart part that can be bound as {@code byte[]} or {@code String}, which
+     * copies the whole part to the heap. Larger parts are rejected with a {@code 413} response and should be bound as
+     * a {@link io.micronaut.http.multipart.CompletedFileUpload}, a {@link io.micronaut.core.io.Readable} or a
+     * publisher instead. A negative value disables the limit. Default value ({@value #DEFAULT_MAX_IN_MEMORY_PART_SIZE}).
+     *
+     * @param maxInMemoryPartSize The maximum size
+     * @since 2.2.0
+     */
+    public void setMaxInMemoryPartSize(long maxInMemoryPartSize) {
+        this.maxInMemoryPartSize = maxInMemoryPartSize;
+    }
+
+    /**
+     * @return The maximum number of fields of an {@code application/x-www-form-urlencoded} body
+     * @since 2.2.0
+     */
+    public int getMaxFormFields() {
+        return maxFormFields;
+    }
+
+    /**
+     * Sets the maximum number of fields of an {@code application/x-www-form-urlencoded} request, counting the fields
+     * of the query string and those that the route does not bind. Requests with more fields are rejected with a
+     * {@code 413} response. A negative value disables the limit, leaving only the limits of the container. Default
+     * value ({@value #DEFAULT_MAX_FORM_FIELDS}).
+     *
+     * @param maxFormFields The maximum number of fields
+     * @since 2.2.0
+     */
+    public void setMaxFormFields(int maxFormFields) {
+        this.maxFormFields = maxFormFields;
+    }
+
+    /**
+     * @return The maximum size in bytes of the name or value of a form field
+     * @since 2.2.0
+     */
+    public long getMaxFormFieldSize() {
+        return maxFormFieldSize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of the encoded name or value of an {@code application/x-www-form-urlencoded}
+     * field. Requests with larger fields are rejected with a {@code 413} response. A negative value disables the
+     * limit, leaving only the maximum request size. Default value ({@value #DEFAULT_MAX_FORM_FIELD_SIZE}).
+     *
+     * @param maxFormFieldSize The maximum size
+     * @since 2.2.0
+     */
+    public void setMaxFormFieldSize(long maxFormFieldSize) {
+        this.maxFormFieldSize = maxFormFieldSize;
+    }
+
+    /**
+     * @return Whether only the form fields bound by the route are decoded
+     * @since 2.2.0
+     */
+    public boolean isBoundFormFieldsOnly() {
+        return boundFormFieldsOnly;
+    }
+
+    /**
+     * Sets whether only the fields of an {@code application/x-www-form-urlencoded} body that the route binds by name
+     * are decoded. Other fields are skipped while the body is read, so they are not available as parameters, not
+     * even to filters. Default value ({@value #DEFAULT_BOUND_FORM_FIELDS_ONLY}).
+     *
+     * @param boundFormFieldsOnly True if only the bound fields should be decoded
+     * @since 2.2.0
+     */
+    public void setBoundFormFieldsOnly(boolean boundFormFieldsOnly) {
+        this.boundFormFieldsOnly = boundFormFieldsOnly;
+    }
+
+    /**
+     * @return The maximum size in bytes of a request body kept in memory once it has been read
+     * @since 2.2.0
+     */
+    public long getMaxCachedBodySize() {
+        return maxCachedBodySize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a request body kept in memory once it has been read. Bodies up to this size
+     * can be obtained with {@code getBody} as several types, for example by a filter and by the route, while
+     * larger bodies are decoded from the stream and only the first decoded value is kept. A value of {@code 0}
+     * disables keeping the body. Default value ({@value #DEFAULT_MAX_CACHED_BODY_SIZE}).
+     *
+     * @param maxCachedBodySize The maximum size
+     * @since 2.2.0
+     */
+    public void setMaxCachedBodySize(long maxCachedBodySize) {
+        this.maxCachedBodySize = maxCachedBodySize;
+    }
 }
@@ -15,13 +15,23 @@
  */
 package io.micronaut.servlet.engine;
 
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.multipart.CompletedFileUpload;
 
+import javax.servlet.MultipartConfigElement;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -32,14 +42,30 @@ import java.util.Optional;
  * @since 1.0.0
  */
 public final class ServletCompletedFileUpload implements CompletedFileUpload {
+    private static final int BUFFER_SIZE = 16384;
+    private static final long TRANSFER_SIZE = 1024 * 1024;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
     private final javax.servlet.http.Part part;
+    private final MultipartConfigElement multipartConfig;
 
     /**
      * Default constructor.
      * @param part The part
      */
     public ServletCompletedFileUpload(javax.servlet.http.Part part) {
+        this(part, null);
+    }
+
+    /**
+     * @param part The part
+     * @param multipartConfig The multipart configuration the part was read with, used to tell whether the
+     *                        container has written the part to disk
+     * @since 2.2.0
+     */
+    public ServletCompletedFileUpload(javax.servlet.http.Part part, @Nullable MultipartConfigElement multipartConfig) {
         this.part = Objects.requireNonNull(part, "Part cannot be null");
+        this.multipartConfig = multipartConfig;
     }
 
     @Override
@@ -80,15 +106,99 @@ public final class ServletCompletedFileUpload implements CompletedFileUpload {
 
     @Override
     public byte[] getBytes() throws IOException {
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final long size = part.getSize();
+        try (InputStream inputStream = getInputStream()) {
+            if (size < 0 || size > MAX_ARRAY_SIZE) {
+                return readAll(inputStream);
+            }
+            // the size of the part is known so read into an exactly sized array instead of a growing buffer
+            final byte[] bytes = new byte[(int) size];
+            int offset = 0;
+            while (offset < bytes.length) {
+                final int read = inputStream.read(bytes, offset, bytes.length - offset);
+                if (read == -1) {
+                    return Arrays.copyOf(bytes, offset);
+                }
+                offset += read;
+            }
+            final int next = inputStream.read();
+            if (next == -1) {
+                return bytes;
+            }
+            // the reported size was too small, append the rest
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length + BUFFER_SIZE);
+            buffer.write(bytes);
+            buffer.write(next);
+            buffer.write(readAll(inputStream));
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * Transfers the content of the part to the given file. When the container has written the part to disk its
+     * temporary file is moved into place, so large uploads are not copied through the heap. Otherwise the content
+     * is copied with a {@link FileChannel}.
+     *
+     * @param destination The destination file
+     * @throws IOException If the content cannot be transferred
+     * @since 2.2.0
+     */
+    public void transferTo(File destination) throws IOException {
+        transferTo(destination.toPath());
+    }
 
+    /**
+     * Transfers the content of the part to the given path.
+     *
+     * @param destination The destination path
+     * @throws IOException If the content cannot be transferred
+     * @since 2.2.0
+     */
+    public void transferTo(Path destination) throws IOException {
+        final Path target = destination.toAbsolutePath();
+        if (isOnDisk()) {
+            try {
+                // containers rename their temporary file when the destination is on the same file system
+                part.write(target.toString());
+                if (Files.isRegularFile(target) && Files.size(target) == part.getSize()) {
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                // the container could not move the part, fall back to copying it
+            }
+        }
+        try (ReadableByteChannel source = Channels.newChannel(getInputStream());
+             FileChannel channel = FileChannel.open(
+                     target,
+                     StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = channel.transferFrom(source, position, TRANSFER_SIZE)) > 0) {
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * Parts larger than the file size threshold are written to disk by the container. Smaller parts are kept in
+     * memory, and some containers resolve the destination of {@link javax.servlet.http.Part#write(String)} against
+     * their temporary directory for those, so they are copied instead.
+     *
+     * @return Whether the part is backed by a file
+     */
+    private boolean isOnDisk() {
+        return multipartConfig != null && part.getSize() > multipartConfig.getFileSizeThreshold();
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
         int nRead;
-        byte[] data = new byte[16384];
-        InputStream inputStream = getInputStream();
+        byte[] data = new byte[BUFFER_SIZE];
         while ((nRead = inputStream.read(data, 0, data.length)) != -1) {
             buffer.write(data, 0, nRead);
         }
-
         return buffer.toByteArray();
     }
 
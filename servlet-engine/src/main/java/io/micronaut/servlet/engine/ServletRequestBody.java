@@ -0,0 +1,216 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.convert.value.ConvertibleValues;
+import io.micronaut.core.io.IOUtils;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.codec.CodecException;
+import io.micronaut.http.codec.MediaTypeCodec;
+import io.micronaut.http.codec.MediaTypeCodecRegistry;
+import io.micronaut.jackson.codec.JsonMediaTypeCodec;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Holds the body of a request once it has been read, so that filters calling
+ * {@link DefaultServletHttpRequest#getBody(Argument)} and the binding of {@link io.micronaut.http.annotation.Body}
+ * arguments share a single read and decode of the body.
+ *
+ * <p>Bodies up to a configurable size are kept as raw bytes, and the first type is decoded straight from them. If a
+ * JSON body is then requested as another type, it is parsed into a tree once, and that type and any later ones are
+ * decoded from the tree. Larger bodies are decoded straight from the stream, and only the first decoded value is
+ * kept.</p>
+ *
+ * @since 2.2.0
+ */
+@Internal
+public final class ServletRequestBody {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final DefaultServletHttpRequest<?> request;
+    private final MediaTypeCodecRegistry codecRegistry;
+    private final long maxCachedSize;
+    private boolean read;
+    private byte[] bytes;
+    private JsonNode tree;
+    private JsonMediaTypeCodec jsonCodec;
+    private Object value;
+    private Argument<?> valueType;
+
+    /**
+     * Default constructor.
+     *
+     * @param request       The request
+     * @param codecRegistry The codec registry
+     * @param maxCachedSize The maximum size in bytes of a body kept in memory
+     */
+    ServletRequestBody(DefaultServletHttpRequest<?> request, MediaTypeCodecRegistry codecRegistry, long maxCachedSize) {
+        this.request = request;
+        this.codecRegistry = codecRegistry;
+        this.maxCachedSize = maxCachedSize;
+    }
+
+    /**
+     * @return Whether the body has been read
+     */
+    public synchronized boolean isRead() {
+        return read;
+    }
+
+    /**
+     * @return The raw bytes of the body, if it has been read and was small enough to be kept
+     */
+    public synchronized Optional<byte[]> getBytes() {
+        return Optional.ofNullable(bytes);
+    }
+
+    /**
+     * Obtains the body as the given type. The body is read and decoded the first time, and later calls reuse the
+     * decoded value, the JSON tree or the raw bytes.
+     *
+     * @param argument The type
+     * @param <T>      The type
+     * @return The body, or empty if it cannot be decoded as the given type
+     * @throws CodecException If the body cannot be read or decoded
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Optional<T> getBody(Argument<T> argument) {
+        final Class<T> type = argument.getType();
+        if (value != null && (valueType.equalsType(argument) || (argument.getTypeParameters().length == 0 && type.isInstance(value)))) {
+            return Optional.of((T) value);
+        }
+        if (read && bytes == null) {
+            // the body was too large to keep, so only the decoded value is left
+            return value != null ? ConversionService.SHARED.convert(value, argument) : Optional.empty();
+        }
+        final T result;
+        try {
+            if (ConvertibleValues.class == type) {
+                final Map<?, ?> map = decode(Argument.of(Map.class));
+                result = map != null ? (T) ConvertibleValues.of(map) : null;
+            } else {
+                result = decode(argument);
+            }
+        } catch (CodecException | IOException e) {
+            throw new CodecException("Error decoding request body: " + e.getMessage(), e);
+        }
+        if (result != null && value == null) {
+            value = result;
+            valueType = argument;
+        }
+        return Optional.ofNullable(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T decode(Argument<T> argument) throws IOException {
+        final Class<T> type = argument.getType();
+        if (byte[].class == type) {
+            try (InputStream inputStream = open()) {
+                return (T) (bytes != null ? bytes : readAll(inputStream));
+            }
+        }
+        if (CharSequence.class.isAssignableFrom(type)) {
+            if (bytes != null) {
+                return (T) new String(bytes, request.getCharacterEncoding());
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(), request.getCharacterEncoding()))) {
+                return (T) IOUtils.readText(reader);
+            }
+        }
+        if (tree != null) {
+            return jsonCodec.decode(argument, tree);
+        }
+        final MediaType mediaType = request.getContentType().orElse(MediaType.APPLICATION_JSON_TYPE);
+        final MediaTypeCodec codec = codecRegistry.findCodec(mediaType, type).orElse(null);
+        if (codec == null) {
+            return null;
+        }
+        try (InputStream inputStream = open()) {
+            if (bytes == null) {
+                return codec.decode(argument, inputStream);
+            }
+        }
+        if (bytes.length == 0) {
+            return null;
+        }
+        if (value != null && codec instanceof JsonMediaTypeCodec) {
+            // a second type is requested, so parse the body once and decode this and any later type from the tree
+            jsonCodec = (JsonMediaTypeCodec) codec;
+            tree = jsonCodec.getObjectMapper().readTree(bytes);
+            return jsonCodec.decode(argument, tree);
+        }
+        return codec.decode(argument, bytes);
+    }
+
+    /**
+     * Opens the body. The first time the body is read from the request, and kept as raw bytes if it is small
+     * enough. Later calls read the raw bytes.
+     *
+     * @return The body
+     * @throws IOException If the body cannot be read
+     */
+    private InputStream open() throws IOException {
+        if (bytes != null) {
+            return new ByteArrayInputStream(bytes);
+        }
+        if (read) {
+            throw new IOException("The request body has already been read");
+        }
+        read = true;
+        final InputStream inputStream = request.getInputStream();
+        final long contentLength = request.getContentLength();
+        if (maxCachedSize <= 0 || contentLength > maxCachedSize) {
+            return inputStream;
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : BUFFER_SIZE);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            out.write(buffer, 0, length);
+            if (out.size() > maxCachedSize) {
+                // too large to keep, read the rest from the request
+                return new SequenceInputStream(new ByteArrayInputStream(out.toByteArray()), inputStream);
+            }
+        }
+        inputStream.close();
+        bytes = out.toByteArray();
+        return new ByteArrayInputStream(bytes);
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            out.write(buffer, 0, length);
+        }
+        return out.toByteArray();
+    }
+}
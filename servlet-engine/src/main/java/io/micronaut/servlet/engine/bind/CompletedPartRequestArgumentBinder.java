@@ -22,12 +22,8 @@ import io.micronaut.http.annotation.Part;
 import io.micronaut.http.bind.binders.TypedRequestArgumentBinder;
 import io.micronaut.http.multipart.CompletedPart;
 import io.micronaut.http.server.exceptions.InternalServerException;
-import io.micronaut.servlet.engine.ServletCompletedFileUpload;
 import io.micronaut.servlet.http.ServletExchange;
 
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServletRequest;
-import java.io.IOException;
 import java.util.Optional;
 
 /**
@@ -43,17 +39,17 @@ class CompletedPartRequestArgumentBinder implements TypedRequestArgumentBinder<C
             ArgumentConversionContext<CompletedPart> context,
             HttpRequest<?> source) {
         ServletExchange<?, ?> exchange = (ServletExchange<?, ?>) source;
-        final HttpServletRequest nativeRequest = (HttpServletRequest) exchange.getRequest().getNativeRequest();
         final Argument<?> argument = context.getArgument();
         final String partName = context.getAnnotationMetadata().stringValue(Part.class).orElse(argument.getName());
         try {
-            javax.servlet.http.Part part = nativeRequest.getPart(partName);
+            final ServletPartIndex index = ServletPartIndex.of(exchange);
+            javax.servlet.http.Part part = index.get(partName);
             if (part == null) {
                 return BindingResult.UNSATISFIED;
             }
-            return () -> Optional.of(new ServletCompletedFileUpload(part));
-        } catch (IOException | ServletException e) {
-            context.reject(new InternalServerException("Error reading part [" + partName + "]: " + e.getMessage(), e));
+            return () -> Optional.of(index.toUpload(part));
+        } catch (InternalServerException e) {
+            context.reject(e);
             return BindingResult.EMPTY;
         }
     }
@@ -22,17 +22,22 @@ import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.core.convert.ArgumentConversionContext;
 import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.io.Readable;
 import io.micronaut.core.type.Argument;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Part;
 import io.micronaut.http.bind.DefaultRequestBinderRegistry;
 import io.micronaut.http.bind.binders.RequestArgumentBinder;
 import io.micronaut.http.codec.MediaTypeCodec;
 import io.micronaut.http.codec.MediaTypeCodecRegistry;
 import io.micronaut.http.multipart.CompletedPart;
+import io.micronaut.http.multipart.StreamingFileUpload;
 import io.micronaut.jackson.codec.JsonMediaTypeCodec;
 import io.micronaut.jackson.parser.JacksonProcessor;
+import io.micronaut.servlet.engine.DefaultServletHttpRequest;
+import io.micronaut.servlet.engine.ServletRequestBody;
 import io.micronaut.servlet.http.ServletBodyBinder;
 import io.micronaut.servlet.http.StreamedServletMessage;
 import io.reactivex.Flowable;
@@ -43,6 +48,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.lang.reflect.Array;
 import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Optional;
@@ -77,7 +83,9 @@ class DefaultServletBinderRegistry extends io.micronaut.servlet.http.ServletBind
         byType.put(HttpServletRequest.class, new ServletRequestBinder());
         byType.put(HttpServletResponse.class, new ServletResponseBinder());
         byType.put(CompletedPart.class, new CompletedPartRequestArgumentBinder());
-        byAnnotation.put(Part.class, new ServletPartBinder(mediaTypeCodecRegistry));
+        final ServletPartBinder partBinder = new ServletPartBinder(mediaTypeCodecRegistry);
+        byType.put(StreamingFileUpload.class, partBinder);
+        byAnnotation.put(Part.class, partBinder);
     }
 
     @SuppressWarnings("unchecked")
@@ -199,10 +207,45 @@ class DefaultServletBinderRegistry extends io.micronaut.servlet.http.ServletBind
                             return super.bind(context, source);
                         }
                     }
+                } else if (source instanceof DefaultServletHttpRequest) {
+                    final BindingResult result = bindRequestBody(context, (DefaultServletHttpRequest<?>) source);
+                    return result != null ? result : super.bind(context, source);
                 } else {
                     return super.bind(context, source);
                 }
             }
         }
+
+        /**
+         * Binds the body through the {@link ServletRequestBody} of the request, so that a body already obtained by a
+         * filter is not read again.
+         *
+         * @param context The conversion context
+         * @param request The request
+         * @return The binding result, or null if the argument is not bound from the decoded body
+         */
+        private BindingResult bindRequestBody(ArgumentConversionContext<?> context, DefaultServletHttpRequest<?> request) {
+            final Argument<?> argument = context.getArgument();
+            final Class<?> type = argument.getType();
+            final MediaType mediaType = request.getContentType().orElse(MediaType.APPLICATION_JSON_TYPE);
+            if (Readable.class.isAssignableFrom(type) ||
+                    argument.getAnnotationMetadata().stringValue(Body.class).isPresent() ||
+                    MediaType.APPLICATION_FORM_URLENCODED_TYPE.equals(mediaType) ||
+                    MediaType.MULTIPART_FORM_DATA_TYPE.equals(mediaType)) {
+                return null;
+            }
+            final ServletRequestBody requestBody = request.getRequestBody();
+            if (type.isArray() && type != byte[].class) {
+                final Class<?> componentType = type.getComponentType();
+                if (componentType.isPrimitive()) {
+                    return null;
+                }
+                final Optional<Object[]> array = requestBody.getBody(Argument.listOf(componentType))
+                        .map(list -> list.toArray((Object[]) Array.newInstance(componentType, 0)));
+                return () -> array;
+            }
+            final Optional<?> value = requestBody.getBody(argument);
+            return () -> value;
+        }
     }
 }
@@ -15,7 +15,10 @@
  */
 package io.micronaut.servlet.engine.bind;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.core.convert.ArgumentConversionContext;
 import io.micronaut.core.io.IOUtils;
 import io.micronaut.core.io.Readable;
@@ -29,19 +32,35 @@ import io.micronaut.http.codec.MediaTypeCodec;
 import io.micronaut.http.codec.MediaTypeCodecRegistry;
 import io.micronaut.http.exceptions.HttpStatusException;
 import io.micronaut.http.multipart.CompletedFileUpload;
-import io.micronaut.http.server.exceptions.InternalServerException;
+import io.micronaut.http.multipart.CompletedPart;
+import io.micronaut.http.multipart.PartData;
+import io.micronaut.http.multipart.StreamingFileUpload;
+import io.micronaut.jackson.codec.JsonMediaTypeCodec;
+import io.micronaut.jackson.parser.JacksonProcessor;
+import io.micronaut.servlet.engine.DefaultServletHttpRequest;
+import io.micronaut.servlet.engine.MicronautServletConfiguration;
 import io.micronaut.servlet.engine.ServletCompletedFileUpload;
+import io.micronaut.servlet.engine.multipart.MultipartStream;
 import io.micronaut.servlet.http.ServletExchange;
+import io.reactivex.Flowable;
 
-import javax.servlet.ServletException;
-import javax.servlet.http.HttpServletRequest;
+import javax.servlet.MultipartConfigElement;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
- * A binder capable of binding servlet multipart requests.
+ * A binder capable of binding servlet multipart requests. Arguments of type {@link StreamingFileUpload}, or publishers
+ * of {@link StreamingFileUpload} or {@link PartData}, are bound from a {@link MultipartStream} that reads the parts as
+ * they arrive. Other types are bound from the parts buffered by the container, and other publishers emit the elements
+ * of a JSON array part as they are decoded.
  * @param <T> The argument type
  *
  * @author graemerocher
@@ -49,6 +68,8 @@ import java.util.Optional;
  */
 public class ServletPartBinder<T> implements AnnotatedRequestArgumentBinder<Part, T> {
 
+    private static final int BUFFER_SIZE = 8192;
+
     private final MediaTypeCodecRegistry codecRegistry;
 
     /**
@@ -68,15 +89,19 @@ public class ServletPartBinder<T> implements AnnotatedRequestArgumentBinder<Part
     public BindingResult<T> bind(ArgumentConversionContext<T> context, HttpRequest<?> source) {
         if (source instanceof ServletExchange) {
             ServletExchange<?, ?> exchange = (ServletExchange<?, ?>) source;
-            final HttpServletRequest nativeRequest = (HttpServletRequest) exchange.getRequest().getNativeRequest();
             final Argument<T> argument = context.getArgument();
-            final String partName = context.getAnnotationMetadata().stringValue(Part.class).orElse(argument.getName());
-            final javax.servlet.http.Part part;
-            try {
-                part = nativeRequest.getPart(partName);
-            } catch (IOException | ServletException e) {
-                throw new InternalServerException("Error reading part [" + partName + "]: " + e.getMessage(), e);
+            final Optional<String> explicitName = context.getAnnotationMetadata().stringValue(Part.class);
+            final String partName = explicitName.orElse(argument.getName());
+            if (isStreamingArgument(argument)) {
+                return bindStreamingPart(argument, partName, exchange);
+            }
+            final ServletPartIndex index = ServletPartIndex.of(exchange);
+            final Object uploads = bindUploads(argument, explicitName.orElse(null), index);
+            if (uploads != null) {
+                //noinspection unchecked
+                return () -> Optional.of((T) uploads);
             }
+            final javax.servlet.http.Part part = index.get(partName);
             if (part != null) {
                 final Class<T> type = argument.getType();
                 if (javax.servlet.http.Part.class.isAssignableFrom(type)) {
@@ -109,7 +134,10 @@ public class ServletPartBinder<T> implements AnnotatedRequestArgumentBinder<Part
                             return true;
                         }
                     });
+                } else if (Publishers.isConvertibleToPublisher(type)) {
+                    return bindJsonElements(argument, part);
                 } else if (String.class.isAssignableFrom(type)) {
+                    checkInMemorySize(part, exchange);
                     try (BufferedReader reader = newReader(part)) {
                         final String content = IOUtils.readText(reader);
                         return () -> (Optional<T>) Optional.of(content);
@@ -120,16 +148,9 @@ public class ServletPartBinder<T> implements AnnotatedRequestArgumentBinder<Part
                         );
                     }
                 } else if (byte[].class.isAssignableFrom(type)) {
-                    try (InputStream is = part.getInputStream()) {
-                        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-
-                        int nRead;
-                        byte[] data = new byte[16384];
-
-                        while ((nRead = is.read(data, 0, data.length)) != -1) {
-                            buffer.write(data, 0, nRead);
-                        }
-                        final byte[] content = buffer.toByteArray();
+                    checkInMemorySize(part, exchange);
+                    try {
+                        final byte[] content = new ServletCompletedFileUpload(part).getBytes();
                         return () -> (Optional<T>) Optional.of(content);
                     } catch (IOException e) {
                         throw new HttpStatusException(
@@ -140,7 +161,7 @@ public class ServletPartBinder<T> implements AnnotatedRequestArgumentBinder<Part
 
                 } else if (CompletedFileUpload.class.isAssignableFrom(type)) {
                     //noinspection unchecked
-                    return () -> (Optional<T>) Optional.of(new ServletCompletedFileUpload(part));
+                    return () -> (Optional<T>) Optional.of(index.toUpload(part));
                 } else {
                     final MediaType contentType =
                             Optional.ofNullable(part.getContentType()).map(MediaType::new)
@@ -165,6 +186,160 @@ public class ServletPartBinder<T> implements AnnotatedRequestArgumentBinder<Part
         return BindingResult.UNSATISFIED;
     }
 
+    private boolean isStreamingArgument(Argument<T> argument) {
+        final Class<T> type = argument.getType();
+        if (StreamingFileUpload.class.isAssignableFrom(type)) {
+            return true;
+        }
+        if (Publishers.isConvertibleToPublisher(type)) {
+            final Class<?> elementType = argument.getFirstTypeVariable().map(Argument::getType).orElse(null);
+            return elementType == StreamingFileUpload.class || elementType == PartData.class;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private BindingResult<T> bindStreamingPart(Argument<T> argument, String partName, ServletExchange<?, ?> exchange) {
+        if (!(exchange.getRequest() instanceof DefaultServletHttpRequest)) {
+            return BindingResult.UNSATISFIED;
+        }
+        final DefaultServletHttpRequest<?> request = (DefaultServletHttpRequest<?>) exchange.getRequest();
+        final MultipartStream stream = MultipartStream.of(request).orElse(null);
+        if (stream == null) {
+            return BindingResult.UNSATISFIED;
+        }
+        final Class<T> type = argument.getType();
+        if (StreamingFileUpload.class.isAssignableFrom(type)) {
+            final StreamingFileUpload upload = stream.part(partName, request);
+            return () -> Optional.of((T) upload);
+        }
+        final Flowable<StreamingFileUpload> uploads = stream.parts(partName);
+        final Class<?> elementType = argument.getFirstTypeVariable().map(Argument::getType).orElse(null);
+        final Flowable<?> publisher = elementType == PartData.class ? uploads.concatMap(upload -> upload) : uploads;
+        final T converted = type.isInstance(publisher) ? (T) publisher : Publishers.convertPublisher(publisher, type);
+        return () -> Optional.of(converted);
+    }
+
+    /**
+     * Binds a publisher that decodes the elements of a JSON array part one at a time, so that large documents are
+     * not materialized in memory before the route executes.
+     *
+     * @param argument The argument
+     * @param part The part
+     * @return The binding result
+     */
+    @SuppressWarnings("unchecked")
+    private BindingResult<T> bindJsonElements(Argument<T> argument, javax.servlet.http.Part part) {
+        final MediaType contentType = Optional.ofNullable(part.getContentType())
+                .map(MediaType::new)
+                .orElse(MediaType.APPLICATION_JSON_TYPE);
+        final Argument<?> elementArgument = argument.getFirstTypeVariable().orElse(Argument.OBJECT_ARGUMENT);
+        final MediaTypeCodec codec = codecRegistry.findCodec(contentType, elementArgument.getType()).orElse(null);
+        if (!(codec instanceof JsonMediaTypeCodec)) {
+            return BindingResult.UNSATISFIED;
+        }
+        final JsonMediaTypeCodec jsonCodec = (JsonMediaTypeCodec) codec;
+        final ObjectMapper objectMapper = jsonCodec.getObjectMapper();
+        final Flowable<byte[]> content = Flowable.using(
+                part::getInputStream,
+                inputStream -> Flowable.<byte[]>generate(emitter -> {
+                    final byte[] buffer = new byte[BUFFER_SIZE];
+                    final int read = inputStream.read(buffer);
+                    if (read == -1) {
+                        emitter.onComplete();
+                    } else {
+                        emitter.onNext(read == buffer.length ? buffer : Arrays.copyOf(buffer, read));
+                    }
+                }),
+                InputStream::close
+        );
+        final Flowable<Object> elements = Flowable.defer(() -> {
+            final JacksonProcessor jacksonProcessor = new JacksonProcessor(
+                    objectMapper.getFactory(),
+                    true,
+                    objectMapper.getDeserializationConfig()
+            );
+            content.subscribe(jacksonProcessor);
+            return Flowable.fromPublisher(jacksonProcessor)
+                    .map(jsonNode -> jsonCodec.decode(elementArgument, jsonNode));
+        });
+        final Class<T> type = argument.getType();
+        final T converted = type.isInstance(elements) ? (T) elements : Publishers.convertPublisher(elements, type);
+        return () -> Optional.of(converted);
+    }
+
+    /**
+     * Rejects parts that are too large to be copied to the heap.
+     *
+     * @param part The part
+     * @param exchange The exchange
+     */
+    private void checkInMemorySize(javax.servlet.http.Part part, ServletExchange<?, ?> exchange) {
+        if (exchange.getRequest() instanceof DefaultServletHttpRequest) {
+            final long maxSize = ((DefaultServletHttpRequest<?>) exchange.getRequest()).getServletConfiguration()
+                    .map(MicronautServletConfiguration::getMaxInMemoryPartSize)
+                    .orElse(MicronautServletConfiguration.DEFAULT_MAX_IN_MEMORY_PART_SIZE);
+            if (maxSize > -1 && part.getSize() > maxSize) {
+                throw new HttpStatusException(
+                        HttpStatus.REQUEST_ENTITY_TOO_LARGE,
+                        "Part [" + part.getName() + "] exceeds the maximum size of " + maxSize + " bytes that can be bound in memory"
+                );
+            }
+        }
+    }
+
+    /**
+     * Binds a map of the uploads by name, or a collection of the uploads, in a single pass over the parts. Maps and
+     * collections of {@link CompletedFileUpload} only contain the parts that are files.
+     *
+     * @param argument The argument
+     * @param name The explicit name of the part, if any, to only bind the parts with that name
+     * @param index The part index
+     * @return The bound map or collection, or null if the argument is not a map or collection of uploads
+     */
+    private @Nullable Object bindUploads(Argument<T> argument, @Nullable String name, ServletPartIndex index) {
+        final Class<T> type = argument.getType();
+        final Argument<?>[] typeParameters = argument.getTypeParameters();
+        final boolean isMap = Map.class.isAssignableFrom(type) && type.isAssignableFrom(LinkedHashMap.class);
+        final boolean isCollection = Collection.class.isAssignableFrom(type) && type.isAssignableFrom(ArrayList.class);
+        if (!isMap && !isCollection) {
+            return null;
+        }
+        final Class<?> uploadType = typeParameters.length > 0 ? typeParameters[typeParameters.length - 1].getType() : null;
+        if (uploadType != CompletedPart.class && uploadType != CompletedFileUpload.class) {
+            return null;
+        }
+        final boolean filesOnly = uploadType == CompletedFileUpload.class;
+        final List<javax.servlet.http.Part> parts = name != null ? index.getAll(name) : index.getAll();
+        if (isMap) {
+            final Map<String, CompletedPart> uploads = new LinkedHashMap<>(parts.size());
+            for (javax.servlet.http.Part part : parts) {
+                if (!filesOnly || part.getSubmittedFileName() != null) {
+                    uploads.putIfAbsent(part.getName(), index.toUpload(part));
+                }
+            }
+            return uploads;
+        }
+        final List<CompletedPart> uploads = new ArrayList<>(parts.size());
+        for (javax.servlet.http.Part part : parts) {
+            if (!filesOnly || part.getSubmittedFileName() != null) {
+                uploads.add(index.toUpload(part));
+            }
+        }
+        return uploads;
+    }
+
+    /**
+     * @param exchange The exchange
+     * @return The multipart configuration the parts of the request were read with, or null if it is unknown
+     */
+    static @Nullable MultipartConfigElement multipartConfig(ServletExchange<?, ?> exchange) {
+        if (exchange.getRequest() instanceof DefaultServletHttpRequest) {
+            return ((DefaultServletHttpRequest<?>) exchange.getRequest()).getMultipartConfigElement().orElse(null);
+        }
+        return null;
+    }
+
     private BufferedReader newReader(javax.servlet.http.Part part) throws IOException {
         final Charset charset = Optional.ofNullable(part.getContentType())
                 .map(MediaType::new)
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.bind;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.exceptions.ContentLengthExceededException;
+import io.micronaut.http.server.exceptions.InternalServerException;
+import io.micronaut.servlet.engine.DefaultServletHttpRequest;
+import io.micronaut.servlet.engine.ServletCompletedFileUpload;
+import io.micronaut.servlet.engine.multipart.SpooledPartReader;
+import io.micronaut.servlet.http.ServletExchange;
+
+import javax.servlet.MultipartConfigElement;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.Part;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the parts of a multipart request by name. Containers implement {@link HttpServletRequest#getPart(String)}
+ * as a scan over all the parts, so the index is built once per request and shared by all the bound arguments
+ * through a request attribute.
+ *
+ * @since 2.2.0
+ */
+final class ServletPartIndex {
+
+    /**
+     * The request attribute the index is stored under.
+     */
+    static final String ATTRIBUTE = "micronaut.servlet.multipart.parts";
+
+    private final Map<String, List<Part>> parts;
+    private final MultipartConfigElement multipartConfig;
+
+    private ServletPartIndex(Collection<Part> parts, @Nullable MultipartConfigElement multipartConfig) {
+        this.parts = new LinkedHashMap<>(parts.size());
+        for (Part part : parts) {
+            this.parts.computeIfAbsent(part.getName(), name -> new ArrayList<>(1)).add(part);
+        }
+        this.multipartConfig = multipartConfig;
+    }
+
+    /**
+     * Finds or builds the part index of the request.
+     *
+     * @param exchange The exchange
+     * @return The index
+     */
+    static ServletPartIndex of(ServletExchange<?, ?> exchange) {
+        final ServletPartIndex existing = exchange.getRequest().getAttribute(ATTRIBUTE, ServletPartIndex.class).orElse(null);
+        if (existing != null) {
+            return existing;
+        }
+        final HttpServletRequest nativeRequest = (HttpServletRequest) exchange.getRequest().getNativeRequest();
+        final MultipartConfigElement multipartConfig = ServletPartBinder.multipartConfig(exchange);
+        final ServletPartIndex index;
+        try {
+            final Collection<Part> parts;
+            if (exchange.getRequest() instanceof DefaultServletHttpRequest &&
+                    ((DefaultServletHttpRequest<?>) exchange.getRequest()).hasRouteMultipartLimits()) {
+                // the container can only apply the limits of the servlet, so the parts are read with those of the route
+                parts = SpooledPartReader.read((DefaultServletHttpRequest<?>) exchange.getRequest(), multipartConfig);
+            } else {
+                try {
+                    parts = nativeRequest.getParts();
+                } catch (IllegalStateException e) {
+                    // containers signal parts exceeding the configured limits this way
+                    throw new ContentLengthExceededException(e.getMessage());
+                }
+            }
+            index = new ServletPartIndex(parts, multipartConfig);
+        } catch (IOException | ServletException e) {
+            throw new InternalServerException("Error reading parts: " + e.getMessage(), e);
+        }
+        exchange.getRequest().setAttribute(ATTRIBUTE, index);
+        return index;
+    }
+
+    /**
+     * @param name The name of the part
+     * @return The first part with the given name or null
+     */
+    @Nullable
+    Part get(String name) {
+        final List<Part> named = parts.get(name);
+        return named != null ? named.get(0) : null;
+    }
+
+    /**
+     * @param name The name of the parts
+     * @return All the parts with the given name
+     */
+    List<Part> getAll(String name) {
+        return parts.getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * @return All the parts, in the order their names first appeared
+     */
+    List<Part> getAll() {
+        final List<Part> all = new ArrayList<>(parts.size());
+        parts.values().forEach(all::addAll);
+        return all;
+    }
+
+    /**
+     * @param part The part
+     * @return The part as a completed upload
+     */
+    ServletCompletedFileUpload toUpload(Part part) {
+        return new ServletCompletedFileUpload(part, multipartConfig);
+    }
+}
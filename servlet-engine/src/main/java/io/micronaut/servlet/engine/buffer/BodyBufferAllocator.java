@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.buffer;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.exceptions.ContentLengthExceededException;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers request bodies into {@link ReplayableBody} instances, keeping bodies up to the configured threshold in
+ * pooled direct memory and writing larger bodies to a temporary file.
+ *
+ * @since 2.2.0
+ */
+@Singleton
+@Requires(property = BodyBufferConfiguration.PREFIX + ".enabled", value = StringUtils.TRUE)
+public class BodyBufferAllocator {
+
+    private static final String TEMP_FILE_PREFIX = "micronaut-body-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final BodyBufferConfiguration configuration;
+    private final BufferPool pool;
+
+    /**
+     * Default constructor.
+     *
+     * @param configuration The buffer configuration
+     */
+    public BodyBufferAllocator(BodyBufferConfiguration configuration) {
+        this.configuration = configuration;
+        this.pool = new BufferPool(configuration.getChunkSize(), configuration.getPoolSize());
+    }
+
+    /**
+     * @return The buffer configuration
+     */
+    public BodyBufferConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Reads the whole of the given stream into a buffer.
+     *
+     * @param inputStream The stream
+     * @return The buffered body
+     * @throws IOException If the stream cannot be read or the body cannot be written to disk
+     * @throws ContentLengthExceededException If the body exceeds the maximum size
+     */
+    public ReplayableBody read(InputStream inputStream) throws IOException {
+        final long maxSize = configuration.getMaxSize();
+        final long threshold = configuration.getThreshold();
+        final List<ByteBuffer> chunks = new ArrayList<>();
+        final byte[] buffer = new byte[configuration.getChunkSize()];
+        Path file = null;
+        FileChannel channel = null;
+        long length = 0;
+        try {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                length += read;
+                if (maxSize > -1 && length > maxSize) {
+                    throw new ContentLengthExceededException("The request body exceeds the maximum buffered size of " + maxSize + " bytes");
+                }
+                if (channel == null && length > threshold) {
+                    file = createTempFile();
+                    channel = FileChannel.open(file, StandardOpenOption.WRITE);
+                    for (ByteBuffer chunk : chunks) {
+                        chunk.flip();
+                        writeFully(channel, chunk);
+                        pool.release(chunk);
+                    }
+                    chunks.clear();
+                }
+                if (channel != null) {
+                    writeFully(channel, ByteBuffer.wrap(buffer, 0, read));
+                } else {
+                    int offset = 0;
+                    while (offset < read) {
+                        ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+                        if (chunk == null || !chunk.hasRemaining()) {
+                            chunk = pool.borrow();
+                            chunks.add(chunk);
+                        }
+                        final int count = Math.min(chunk.remaining(), read - offset);
+                        chunk.put(buffer, offset, count);
+                        offset += count;
+                    }
+                }
+            }
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            chunks.forEach(ByteBuffer::flip);
+            return new ReplayableBody(pool, chunks, file, length);
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            chunks.forEach(pool::release);
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+    }
+
+    private Path createTempFile() throws IOException {
+        final String location = configuration.getLocation();
+        if (location != null) {
+            return Files.createTempFile(Paths.get(location), TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+        }
+        return Files.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
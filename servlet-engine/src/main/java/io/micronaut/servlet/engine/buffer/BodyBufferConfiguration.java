@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.buffer;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.Toggleable;
+
+/**
+ * Configuration for buffering request bodies so that they can be read more than once, for example by a filter
+ * verifying a signature and then by the route.
+ *
+ * @since 2.2.0
+ */
+@ConfigurationProperties(BodyBufferConfiguration.PREFIX)
+public class BodyBufferConfiguration implements Toggleable {
+
+    /**
+     * The prefix used for configuration.
+     */
+    public static final String PREFIX = "micronaut.servlet.body-buffer";
+
+    /**
+     * The default enable value.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final boolean DEFAULT_ENABLED = false;
+
+    /**
+     * The default maximum size of a buffered body, 10MB.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_MAX_SIZE = 10L * 1024 * 1024;
+
+    /**
+     * The default size above which a buffered body is written to disk, 1MB.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_THRESHOLD = 1024 * 1024;
+
+    /**
+     * The default size of the pooled memory chunks.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    /**
+     * The default maximum number of idle chunks that are pooled.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_POOL_SIZE = 256;
+
+    private boolean enabled = DEFAULT_ENABLED;
+    private long maxSize = DEFAULT_MAX_SIZE;
+    private long threshold = DEFAULT_THRESHOLD;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int poolSize = DEFAULT_POOL_SIZE;
+    private String location;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether request bodies can be buffered. Default value ({@value #DEFAULT_ENABLED}).
+     *
+     * @param enabled True if request bodies can be buffered
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The maximum size in bytes of a buffered body
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of a buffered body. Larger bodies are rejected with a {@code 413} response.
+     * Default value ({@value #DEFAULT_MAX_SIZE}).
+     *
+     * @param maxSize The maximum size
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The size in bytes above which a buffered body is written to disk
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sets the size in bytes above which a buffered body is written to disk instead of being kept in memory.
+     * Default value ({@value #DEFAULT_THRESHOLD}).
+     *
+     * @param threshold The threshold
+     */
+    public void setThreshold(long threshold) {
+        this.threshold = Math.max(0, threshold);
+    }
+
+    /**
+     * @return The size in bytes of the pooled memory chunks
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the size in bytes of the direct memory chunks that buffered bodies are kept in. Default value
+     * ({@value #DEFAULT_CHUNK_SIZE}).
+     *
+     * @param chunkSize The chunk size
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * @return The maximum number of idle chunks that are pooled
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Sets the maximum number of idle memory chunks that are kept for later requests. Default value
+     * ({@value #DEFAULT_POOL_SIZE}).
+     *
+     * @param poolSize The pool size
+     */
+    public void setPoolSize(int poolSize) {
+        this.poolSize = Math.max(0, poolSize);
+    }
+
+    /**
+     * @return The directory buffered bodies are written to, or null for the temporary directory
+     */
+    public @Nullable String getLocation() {
+        return location;
+    }
+
+    /**
+     * Sets the directory that bodies larger than the threshold are written to. Defaults to the temporary directory.
+     *
+     * @param location The directory
+     */
+    public void setLocation(@Nullable String location) {
+        this.location = location;
+    }
+}
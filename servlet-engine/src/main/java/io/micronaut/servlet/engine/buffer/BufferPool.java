@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.buffer;
+
+import io.micronaut.core.annotation.Internal;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of direct {@link ByteBuffer} chunks, avoiding the cost of allocating direct memory for every request.
+ *
+ * @since 2.2.0
+ */
+@Internal
+final class BufferPool {
+
+    private final int chunkSize;
+    private final Queue<ByteBuffer> buffers;
+
+    /**
+     * Default constructor.
+     *
+     * @param chunkSize The size of the chunks
+     * @param size The maximum number of idle chunks to keep
+     */
+    BufferPool(int chunkSize, int size) {
+        this.chunkSize = chunkSize;
+        this.buffers = size > 0 ? new ArrayBlockingQueue<>(size) : null;
+    }
+
+    /**
+     * @return A pooled or new chunk, cleared for writing
+     */
+    ByteBuffer borrow() {
+        ByteBuffer buffer = buffers != null ? buffers.poll() : null;
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(chunkSize);
+    }
+
+    /**
+     * Returns a chunk to the pool, dropping it if the pool is full.
+     *
+     * @param buffer The chunk
+     */
+    void release(ByteBuffer buffer) {
+        buffer.clear();
+        if (buffers != null) {
+            buffers.offer(buffer);
+        }
+    }
+}
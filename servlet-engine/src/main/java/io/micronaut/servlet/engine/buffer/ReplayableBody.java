@@ -0,0 +1,285 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.buffer;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.servlet.engine.DefaultServletHttpRequest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A request body that has been buffered so that it can be read any number of times. Small bodies are kept in pooled
+ * direct memory, and larger bodies in a temporary file. The buffer is released once the request completes.
+ *
+ * <p>Once a body is buffered, the request's input stream and body publisher read from the buffer, so a filter can
+ * inspect the body and the route can still bind it.</p>
+ *
+ * <p>Streams opened with {@link #getInputStream()} fail once the buffer has been released. Buffers obtained with
+ * {@link #getByteBuffer()} or {@link #getChunks()} cannot fail that way, so chunks that have been handed out as
+ * buffers are not returned to the pool, and their content stays valid for as long as they are referenced.</p>
+ *
+ * @since 2.2.0
+ */
+public final class ReplayableBody {
+
+    private static final int BYTE_MASK = 0xFF;
+
+    private final BufferPool pool;
+    private final List<ByteBuffer> chunks;
+    private final Path file;
+    private final long length;
+    private volatile boolean released;
+    private boolean exposed;
+
+    /**
+     * Default constructor.
+     *
+     * @param pool   The pool the chunks are returned to
+     * @param chunks The chunks holding the body, ready for reading
+     * @param file   The file holding the body, if it was too large to keep in memory
+     * @param length The length of the body
+     */
+    ReplayableBody(BufferPool pool, List<ByteBuffer> chunks, @Nullable Path file, long length) {
+        this.pool = pool;
+        this.chunks = chunks;
+        this.file = file;
+        this.length = length;
+    }
+
+    /**
+     * Buffers the body of the given request, if buffering is enabled with {@code micronaut.servlet.body-buffer.enabled}.
+     * The body is read the first time, so this must be called before anything else reads the body.
+     *
+     * @param request The request
+     * @return The buffered body, or empty if bodies cannot be buffered or the body has already been read
+     */
+    public static Optional<ReplayableBody> of(HttpRequest<?> request) {
+        if (request instanceof DefaultServletHttpRequest) {
+            return ((DefaultServletHttpRequest<?>) request).getReplayableBody();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return The length of the body in bytes
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return Whether the body is kept in memory rather than in a temporary file
+     */
+    public boolean isInMemory() {
+        return file == null;
+    }
+
+    /**
+     * Opens a new stream reading the body from the start.
+     *
+     * @return The stream
+     * @throws IOException If the body cannot be read
+     */
+    public synchronized InputStream getInputStream() throws IOException {
+        checkNotReleased();
+        if (file != null) {
+            return new ReleaseCheckingInputStream(Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)));
+        }
+        return new ReleaseCheckingInputStream(new ChunkInputStream(new ArrayList<>(chunks).iterator()));
+    }
+
+    /**
+     * Obtains the body as a read-only buffer. A body kept in a temporary file is mapped into memory rather than read.
+     * A body kept in a single chunk is returned without copying. A body spanning several chunks is copied into a new
+     * heap buffer of its length, so use {@link #getChunks()} or {@link #getInputStream()} to avoid the copy.
+     *
+     * @return The buffer
+     * @throws IOException If the body cannot be read
+     */
+    public synchronized ByteBuffer getByteBuffer() throws IOException {
+        checkNotReleased();
+        if (file != null) {
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("The body is too large to be mapped into a single buffer");
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            }
+        }
+        if (chunks.size() == 1) {
+            exposed = true;
+            return chunks.get(0).asReadOnlyBuffer();
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        for (ByteBuffer chunk : chunks) {
+            buffer.put(chunk.duplicate());
+        }
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Obtains the chunks of a body kept in memory as read-only buffers, in order and without copying.
+     *
+     * @return The chunks
+     * @throws IOException If the body is kept in a temporary file, use {@link #getByteBuffer()} instead
+     */
+    public synchronized List<ByteBuffer> getChunks() throws IOException {
+        checkNotReleased();
+        if (file != null) {
+            throw new IOException("The body is kept in a temporary file rather than in memory chunks");
+        }
+        exposed = true;
+        final List<ByteBuffer> views = new ArrayList<>(chunks.size());
+        for (ByteBuffer chunk : chunks) {
+            views.add(chunk.asReadOnlyBuffer());
+        }
+        return Collections.unmodifiableList(views);
+    }
+
+    /**
+     * Returns the memory chunks to the pool, unless they have been handed out as buffers, and deletes the temporary
+     * file.
+     */
+    synchronized void release() {
+        if (!released) {
+            released = true;
+            if (!exposed) {
+                chunks.forEach(pool::release);
+            }
+            chunks.clear();
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    file.toFile().deleteOnExit();
+                }
+            }
+        }
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("The buffered body has been released because the request completed");
+        }
+    }
+
+    /**
+     * Fails reads once the buffer has been released, since the memory it read from may have been reused. Reads are
+     * synchronized with {@link #release()} so that a chunk is not returned to the pool in the middle of a read.
+     */
+    private final class ReleaseCheckingInputStream extends FilterInputStream {
+
+        ReleaseCheckingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            synchronized (ReplayableBody.this) {
+                checkReadable();
+                return super.read();
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            synchronized (ReplayableBody.this) {
+                checkReadable();
+                return super.read(b, off, len);
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            synchronized (ReplayableBody.this) {
+                checkReadable();
+                return super.skip(n);
+            }
+        }
+
+        @Override
+        public int available() throws IOException {
+            synchronized (ReplayableBody.this) {
+                checkReadable();
+                return super.available();
+            }
+        }
+
+        private void checkReadable() throws IOException {
+            if (released) {
+                throw new IOException("The buffered body has been released because the request completed");
+            }
+        }
+    }
+
+    /**
+     * Reads the chunks of a body kept in memory.
+     */
+    private static final class ChunkInputStream extends InputStream {
+
+        private final Iterator<ByteBuffer> chunks;
+        private ByteBuffer current;
+
+        ChunkInputStream(Iterator<ByteBuffer> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public int read() {
+            return next() ? current.get() & BYTE_MASK : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!next()) {
+                return -1;
+            }
+            final int count = Math.min(len, current.remaining());
+            current.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return current != null ? current.remaining() : 0;
+        }
+
+        private boolean next() {
+            while ((current == null || !current.hasRemaining()) && chunks.hasNext()) {
+                current = chunks.next().duplicate();
+            }
+            return current != null && current.hasRemaining();
+        }
+    }
+}
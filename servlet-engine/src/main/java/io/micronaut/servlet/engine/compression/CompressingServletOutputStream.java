@@ -0,0 +1,282 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.compression;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link ServletOutputStream} that compresses the response once the configured threshold is reached. Output is
+ * buffered until then, so responses that end up smaller than the threshold, or whose content type is not
+ * compressible, are written unchanged.
+ *
+ * <p>In non-blocking mode, once a {@link WriteListener} is set, compressed data is only written to the underlying
+ * stream while it is ready. Data that cannot be written yet is kept until the container calls
+ * {@link WriteListener#onWritePossible()}, and {@link #isReady()} returns false until then. The same applies to the
+ * output buffered below the threshold of a response that is then written unchanged: it is written before any later
+ * output.</p>
+ *
+ * @since 2.2.0
+ */
+@Internal
+public final class CompressingServletOutputStream extends ServletOutputStream {
+
+    private final HttpServletResponse response;
+    private final ServletOutputStream target;
+    private final ContentEncoder encoder;
+    private final ServletCompressionConfiguration configuration;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private OutputStream encoded;
+    private boolean passThrough;
+    private boolean closed;
+    private boolean nonBlocking;
+    private Runnable onFinished;
+
+    /**
+     * Default constructor.
+     *
+     * @param response The servlet response
+     * @param target The servlet output stream
+     * @param encoder The encoder to use
+     * @param configuration The compression configuration
+     * @param streaming Whether the response is streamed, in which case the decision to compress is made immediately
+     * @throws IOException If the encoder could not be created
+     */
+    CompressingServletOutputStream(
+            HttpServletResponse response,
+            ServletOutputStream target,
+            ContentEncoder encoder,
+            ServletCompressionConfiguration configuration,
+            boolean streaming) throws IOException {
+        this.response = response;
+        this.target = target;
+        this.encoder = encoder;
+        this.configuration = configuration;
+        if (streaming) {
+            begin();
+        }
+    }
+
+    @Override
+    public synchronized boolean isReady() {
+        if (encoded == null && !passThrough) {
+            // below the threshold the buffer holds uncompressed data that is not pending for the target
+            return target.isReady();
+        }
+        return buffer.size() == 0 && target.isReady();
+    }
+
+    @Override
+    public synchronized void setWriteListener(WriteListener writeListener) {
+        nonBlocking = true;
+        target.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() throws IOException {
+                Runnable finished = null;
+                synchronized (CompressingServletOutputStream.this) {
+                    drain();
+                    if (buffer.size() > 0) {
+                        // the container calls back once the stream is ready again
+                        return;
+                    }
+                    if (closed) {
+                        finished = onFinished;
+                        onFinished = null;
+                    }
+                }
+                if (finished != null) {
+                    finished.run();
+                } else if (!closed) {
+                    writeListener.onWritePossible();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                release();
+                writeListener.onError(t);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        if (passThrough) {
+            drain();
+            if (buffer.size() > 0) {
+                buffer.write(b);
+            } else {
+                target.write(b);
+            }
+        } else if (encoded != null) {
+            encoded.write(b);
+            drain();
+        } else {
+            buffer.write(b);
+            if (buffer.size() >= configuration.getThreshold()) {
+                begin();
+                drain();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (passThrough) {
+            drain();
+            if (buffer.size() > 0) {
+                buffer.write(b, off, len);
+            } else {
+                target.write(b, off, len);
+            }
+        } else if (encoded != null) {
+            encoded.write(b, off, len);
+            drain();
+        } else {
+            buffer.write(b, off, len);
+            if (buffer.size() >= configuration.getThreshold()) {
+                begin();
+                drain();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        if (passThrough || encoded != null) {
+            if (encoded != null) {
+                encoded.flush();
+            }
+            drain();
+            if (buffer.size() == 0 && (!nonBlocking || target.isReady())) {
+                target.flush();
+            }
+        }
+        // while buffering below the threshold flushing is deferred, committing the response now would prevent
+        // compressing it later
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                target.close();
+            }
+        }
+    }
+
+    /**
+     * Writes any buffered or remaining compressed data to the underlying stream without closing it. Used for
+     * asynchronous responses whose stream is closed by the container once the request completes.
+     *
+     * @throws IOException If the data could not be written
+     */
+    public void finish() throws IOException {
+        finish(null);
+    }
+
+    /**
+     * Writes any buffered or remaining compressed data to the underlying stream without closing it, and runs the
+     * given callback once all of it has been written. In non-blocking mode that may happen later, from
+     * {@link WriteListener#onWritePossible()}, when the underlying stream is not ready.
+     *
+     * @param onFinished The callback to run once the data is written, can be null
+     * @throws IOException If the data could not be written
+     */
+    public void finish(@Nullable Runnable onFinished) throws IOException {
+        synchronized (this) {
+            if (!closed) {
+                closed = true;
+                if (encoded != null) {
+                    encoded.close();
+                }
+                drain();
+            }
+            if (buffer.size() > 0) {
+                this.onFinished = onFinished;
+                return;
+            }
+        }
+        if (onFinished != null) {
+            onFinished.run();
+        }
+    }
+
+    /**
+     * Releases the encoder without writing the remaining data. Called once the request completes, so that the
+     * encoder is returned even when the response was aborted before the stream was finished. Has no effect once the
+     * stream has been finished.
+     */
+    public synchronized void release() {
+        if (!closed) {
+            closed = true;
+            onFinished = null;
+            if (encoded != null) {
+                try {
+                    encoded.close();
+                } catch (IOException e) {
+                    // the encoder writes to the in-memory buffer, which is discarded
+                }
+            }
+        }
+        buffer.reset();
+    }
+
+    private void begin() throws IOException {
+        boolean compressible = configuration.isCompressible(response.getContentType());
+        if (compressible) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (compressible && !response.isCommitted() && !response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            response.setContentLengthLong(-1);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoder.getEncoding());
+            byte[] pending = buffer.toByteArray();
+            buffer.reset();
+            encoded = encoder.encode(buffer);
+            if (pending.length > 0) {
+                encoded.write(pending);
+            }
+        } else {
+            passThrough = true;
+        }
+    }
+
+    private void drain() throws IOException {
+        if (buffer.size() > 0 && (!nonBlocking || target.isReady())) {
+            buffer.writeTo(target);
+            buffer.reset();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
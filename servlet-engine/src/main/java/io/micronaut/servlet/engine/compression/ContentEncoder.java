@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.compression;
+
+import io.micronaut.core.order.Ordered;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A content encoder used to compress servlet responses. Additional encodings such as {@code br} can be supported by
+ * registering further beans of this type. When a client accepts several encodings the encoder with the highest
+ * precedence (lowest order) is used.
+ *
+ * <p>The returned stream must write all data received so far to the target when {@link OutputStream#flush()} is
+ * called, and must release any resources it holds when closed.</p>
+ *
+ * @since 2.2.0
+ */
+public interface ContentEncoder extends Ordered {
+
+    /**
+     * @return The value of the {@code Content-Encoding} header produced by this encoder
+     */
+    String getEncoding();
+
+    /**
+     * Wraps the given stream with one that encodes the data written to it.
+     *
+     * @param target The target stream
+     * @return The encoding stream
+     * @throws IOException If the stream could not be created
+     */
+    OutputStream encode(OutputStream target) throws IOException;
+}
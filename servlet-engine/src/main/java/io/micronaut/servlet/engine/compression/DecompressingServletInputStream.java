@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.compression;
+
+import io.micronaut.core.annotation.Internal;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A blocking {@link ServletInputStream} that decompresses the request body using a {@link StreamingInflater}.
+ *
+ * @since 2.2.0
+ */
+@Internal
+public final class DecompressingServletInputStream extends ServletInputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int BYTE_MASK = 0xff;
+
+    private final ServletInputStream source;
+    private final StreamingInflater inflater;
+    private final byte[] readBuffer = new byte[BUFFER_SIZE];
+    private final Deque<byte[]> chunks = new ArrayDeque<>();
+    private byte[] current;
+    private int position;
+    private boolean eof;
+
+    /**
+     * Default constructor.
+     *
+     * @param source The compressed servlet input stream
+     * @param inflater The inflater
+     */
+    public DecompressingServletInputStream(ServletInputStream source, StreamingInflater inflater) {
+        this.source = source;
+        this.inflater = inflater;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current[position++] & BYTE_MASK;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int count = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current != null ? current.length - position : 0;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return eof && chunks.isEmpty() && available() == 0;
+    }
+
+    @Override
+    public boolean isReady() {
+        return available() > 0 || !chunks.isEmpty() || source.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+        throw new IllegalStateException("Compressed request bodies cannot be read with a ReadListener, subscribe to the request body instead");
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.release();
+        source.close();
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        while (current == null || position == current.length) {
+            current = chunks.poll();
+            position = 0;
+            if (current == null) {
+                if (eof) {
+                    return false;
+                }
+                int length = source.read(readBuffer);
+                if (length == -1) {
+                    eof = true;
+                    inflater.finish();
+                } else {
+                    inflater.inflate(readBuffer, 0, length, chunks::add);
+                }
+            }
+        }
+        return true;
+    }
+}
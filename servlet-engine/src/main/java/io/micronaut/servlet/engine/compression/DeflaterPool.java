@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.compression;
+
+import io.micronaut.core.annotation.Internal;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * A bounded pool of {@link Deflater} instances, avoiding the cost of allocating native zlib state for every response.
+ *
+ * @since 2.2.0
+ */
+@Internal
+final class DeflaterPool {
+
+    private final int level;
+    private final boolean nowrap;
+    private final Queue<Deflater> deflaters;
+
+    /**
+     * Default constructor.
+     *
+     * @param level The compression level
+     * @param nowrap Whether to omit the zlib header and checksum
+     * @param size The maximum number of idle deflaters to keep
+     */
+    DeflaterPool(int level, boolean nowrap, int size) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.deflaters = size > 0 ? new ArrayBlockingQueue<>(size) : null;
+    }
+
+    /**
+     * @return A pooled or new deflater
+     */
+    Deflater borrow() {
+        Deflater deflater = deflaters != null ? deflaters.poll() : null;
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    /**
+     * Returns a deflater to the pool, ending it if the pool is full.
+     *
+     * @param deflater The deflater
+     */
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (deflaters == null || !deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.compression;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.util.StringUtils;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link ContentEncoder} that compresses responses using the {@code gzip} format.
+ *
+ * @since 2.2.0
+ */
+@Singleton
+@Requires(property = ServletCompressionConfiguration.PREFIX + ".enabled", value = StringUtils.TRUE)
+public class GzipContentEncoder implements ContentEncoder {
+
+    /**
+     * The order of this encoder.
+     */
+    public static final int ORDER = 0;
+
+    private final DeflaterPool pool;
+
+    /**
+     * Default constructor.
+     *
+     * @param configuration The compression configuration
+     */
+    public GzipContentEncoder(ServletCompressionConfiguration configuration) {
+        this.pool = new DeflaterPool(configuration.getLevel(), true, configuration.getPoolSize());
+    }
+
+    @Override
+    public String getEncoding() {
+        return "gzip";
+    }
+
+    @Override
+    public OutputStream encode(OutputStream target) throws IOException {
+        return new PooledDeflaterOutputStream(target, pool, true);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.compression;
+
+import io.micronaut.core.annotation.Internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * A {@link DeflaterOutputStream} that borrows its deflater from a {@link DeflaterPool}, optionally writing the gzip
+ * framing around the deflated data. Flushing performs a sync flush so partial content reaches the client.
+ *
+ * @since 2.2.0
+ */
+@Internal
+final class PooledDeflaterOutputStream extends DeflaterOutputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_HEADER_LENGTH = 10;
+    private static final int GZIP_TRAILER_LENGTH = 8;
+    private static final int BYTE_MASK = 0xff;
+    private static final int BITS_PER_BYTE = 8;
+    private static final int OS_UNKNOWN = 0xff;
+
+    private final DeflaterPool pool;
+    private final CRC32 crc;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Default constructor.
+     *
+     * @param out The target stream
+     * @param pool The pool to borrow the deflater from
+     * @param gzip Whether to write the gzip header and trailer
+     * @throws IOException If the gzip header could not be written
+     */
+    PooledDeflaterOutputStream(OutputStream out, DeflaterPool pool, boolean gzip) throws IOException {
+        super(out, pool.borrow(), BUFFER_SIZE, true);
+        this.pool = pool;
+        this.crc = gzip ? new CRC32() : null;
+        if (gzip) {
+            byte[] header = new byte[GZIP_HEADER_LENGTH];
+            header[0] = (byte) GZIP_MAGIC;
+            header[1] = (byte) (GZIP_MAGIC >> BITS_PER_BYTE);
+            header[2] = (byte) Deflater.DEFLATED;
+            header[GZIP_HEADER_LENGTH - 1] = (byte) OS_UNKNOWN;
+            out.write(header);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        super.write(b, off, len);
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            super.finish();
+            if (crc != null) {
+                byte[] trailer = new byte[GZIP_TRAILER_LENGTH];
+                writeInt((int) crc.getValue(), trailer, 0);
+                writeInt(def.getTotalIn(), trailer, GZIP_TRAILER_LENGTH / 2);
+                out.write(trailer);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                finish();
+                out.close();
+            } finally {
+                pool.release(def);
+            }
+        }
+    }
+
+    private static void writeInt(int value, byte[] buf, int offset) {
+        for (int i = 0; i < GZIP_TRAILER_LENGTH / 2; i++) {
+            buf[offset + i] = (byte) ((value >> (i * BITS_PER_BYTE)) & BYTE_MASK);
+        }
+    }
+}
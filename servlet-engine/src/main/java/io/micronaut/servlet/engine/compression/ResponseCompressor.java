@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.compression;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.order.OrderUtil;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpStatus;
+
+import javax.inject.Singleton;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Negotiates the content encoding of a response with the client and wraps the servlet output stream with a
+ * compressing stream when compression applies.
+ *
+ * @since 2.2.0
+ */
+@Singleton
+@Requires(property = ServletCompressionConfiguration.PREFIX + ".enabled", value = StringUtils.TRUE)
+@Requires(property = ServletCompressionConfiguration.PREFIX + ".container-managed", notEquals = StringUtils.TRUE)
+public class ResponseCompressor {
+
+    private static final String IDENTITY = "identity";
+    private static final String ANY = "*";
+
+    private final ServletCompressionConfiguration configuration;
+    private final ContentEncoder[] encoders;
+
+    /**
+     * Default constructor.
+     *
+     * @param configuration The compression configuration
+     * @param encoders The available content encoders
+     */
+    public ResponseCompressor(ServletCompressionConfiguration configuration, List<ContentEncoder> encoders) {
+        this.configuration = configuration;
+        List<ContentEncoder> sorted = new ArrayList<>(encoders);
+        OrderUtil.sort(sorted);
+        this.encoders = sorted.toArray(new ContentEncoder[0]);
+    }
+
+    /**
+     * @return The compression configuration
+     */
+    public ServletCompressionConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Selects the encoder to compress the response with, based on the {@code Accept-Encoding} header of the request.
+     *
+     * @param request The servlet request
+     * @param response The servlet response
+     * @return The encoder or null if the response should not be compressed
+     */
+    public @Nullable ContentEncoder selectEncoder(HttpServletRequest request, HttpServletResponse response) {
+        if (encoders.length == 0
+                || HttpMethod.HEAD.name().equals(request.getMethod())
+                || response.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            return null;
+        }
+        int status = response.getStatus();
+        if (status < HttpStatus.OK.getCode()
+                || status == HttpStatus.NO_CONTENT.getCode()
+                || status == HttpStatus.NOT_MODIFIED.getCode()) {
+            return null;
+        }
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        if (headers == null || !headers.hasMoreElements()) {
+            return null;
+        }
+        String acceptEncoding = headers.nextElement();
+        while (headers.hasMoreElements()) {
+            acceptEncoding = acceptEncoding + ',' + headers.nextElement();
+        }
+        ContentEncoder wildcard = null;
+        for (ContentEncoder encoder : encoders) {
+            int accepted = accepts(acceptEncoding, encoder.getEncoding());
+            if (accepted > 0) {
+                return encoder;
+            } else if (accepted < 0 && wildcard == null && accepts(acceptEncoding, ANY) > 0) {
+                wildcard = encoder;
+            }
+        }
+        return wildcard;
+    }
+
+    /**
+     * Wraps the given output stream with one that compresses the response using the given encoder.
+     *
+     * @param response The servlet response
+     * @param outputStream The servlet output stream
+     * @param encoder The encoder
+     * @param streaming Whether the response is streamed, in which case the threshold does not apply
+     * @return The compressing output stream
+     * @throws IOException If the stream could not be created
+     */
+    public CompressingServletOutputStream compress(
+            HttpServletResponse response,
+            ServletOutputStream outputStream,
+            ContentEncoder encoder,
+            boolean streaming) throws IOException {
+        return new CompressingServletOutputStream(response, outputStream, encoder, configuration, streaming);
+    }
+
+    /**
+     * Finds the given coding in an {@code Accept-Encoding} header.
+     *
+     * @param acceptEncoding The header value
+     * @param coding The content coding
+     * @return 1 if accepted, 0 if explicitly refused and -1 if not mentioned
+     */
+    private static int accepts(String acceptEncoding, String coding) {
+        int length = acceptEncoding.length();
+        int start = 0;
+        while (start < length) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end == -1) {
+                end = length;
+            }
+            int paramStart = acceptEncoding.indexOf(';', start);
+            int nameEnd = paramStart == -1 || paramStart > end ? end : paramStart;
+            String name = acceptEncoding.substring(start, nameEnd).trim();
+            if (name.equalsIgnoreCase(coding) && !IDENTITY.equalsIgnoreCase(name)) {
+                return nameEnd < end && isZeroQuality(acceptEncoding.substring(nameEnd + 1, end)) ? 0 : 1;
+            }
+            start = end + 1;
+        }
+        return -1;
+    }
+
+    private static boolean isZeroQuality(String params) {
+        for (String param : params.split(";")) {
+            String p = param.trim();
+            if (p.length() > 1 && (p.charAt(0) == 'q' || p.charAt(0) == 'Q') && p.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(p.substring(2).trim()) <= 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
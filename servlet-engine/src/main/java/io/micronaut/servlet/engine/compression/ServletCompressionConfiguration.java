@@ -0,0 +1,218 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.compression;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.Toggleable;
+import io.micronaut.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Configuration for compressing responses written by the Micronaut servlet.
+ *
+ * @since 2.2.0
+ */
+@ConfigurationProperties(ServletCompressionConfiguration.PREFIX)
+public class ServletCompressionConfiguration implements Toggleable {
+
+    /**
+     * The prefix used for configuration.
+     */
+    public static final String PREFIX = "micronaut.server.compression";
+
+    /**
+     * The default enable value.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final boolean DEFAULT_ENABLED = false;
+
+    /**
+     * The default size in bytes above which responses are compressed.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    /**
+     * The default compression level.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_LEVEL = 6;
+
+    /**
+     * The default maximum number of pooled deflaters per encoding.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_POOL_SIZE = 64;
+
+    /**
+     * The media types that are compressed by default.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final List<String> DEFAULT_MIME_TYPES = Collections.unmodifiableList(Arrays.asList(
+            "text/*",
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_XML,
+            "application/hal+json",
+            "application/x-json-stream",
+            "application/xhtml+xml",
+            "application/atom+xml",
+            "application/rss+xml",
+            "application/javascript",
+            "application/x-ndjson",
+            "application/problem+json",
+            "image/svg+xml"
+    ));
+
+    private boolean enabled = DEFAULT_ENABLED;
+    private int threshold = DEFAULT_THRESHOLD;
+    private int level = DEFAULT_LEVEL;
+    private int poolSize = DEFAULT_POOL_SIZE;
+    private boolean containerManaged;
+    private List<String> mimeTypes = DEFAULT_MIME_TYPES;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether response compression is enabled. Default value ({@value #DEFAULT_ENABLED}).
+     *
+     * @param enabled True if responses should be compressed
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The size in bytes above which responses are compressed
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sets the size in bytes a response body has to reach before it is compressed. Default value ({@value #DEFAULT_THRESHOLD}).
+     *
+     * @param threshold The threshold
+     */
+    public void setThreshold(int threshold) {
+        this.threshold = Math.max(0, threshold);
+    }
+
+    /**
+     * @return The compression level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the compression level, from 1 (fastest) to 9 (smallest). Default value ({@value #DEFAULT_LEVEL}).
+     *
+     * @param level The compression level
+     */
+    public void setLevel(int level) {
+        if (level == Deflater.DEFAULT_COMPRESSION) {
+            this.level = DEFAULT_LEVEL;
+        } else {
+            this.level = Math.min(Deflater.BEST_COMPRESSION, Math.max(Deflater.BEST_SPEED, level));
+        }
+    }
+
+    /**
+     * @return The maximum number of deflaters that are pooled per encoding
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Sets the maximum number of deflaters that are pooled per encoding. Default value ({@value #DEFAULT_POOL_SIZE}).
+     *
+     * @param poolSize The pool size
+     */
+    public void setPoolSize(int poolSize) {
+        this.poolSize = Math.max(0, poolSize);
+    }
+
+    /**
+     * @return Whether compression is delegated to the servlet container
+     */
+    public boolean isContainerManaged() {
+        return containerManaged;
+    }
+
+    /**
+     * Sets whether compression is delegated to the servlet container. When enabled the embedded Jetty, Tomcat and
+     * Undertow servers configure their native compression support from this configuration and the servlet does not
+     * compress responses itself. Default value (false).
+     *
+     * @param containerManaged True if the container compresses responses
+     */
+    public void setContainerManaged(boolean containerManaged) {
+        this.containerManaged = containerManaged;
+    }
+
+    /**
+     * @return The media types that are compressed
+     */
+    public List<String> getMimeTypes() {
+        return mimeTypes;
+    }
+
+    /**
+     * Sets the media types that are compressed. Entries can use a wildcard subtype such as {@code text/*}.
+     *
+     * @param mimeTypes The media types
+     */
+    public void setMimeTypes(List<String> mimeTypes) {
+        if (mimeTypes != null) {
+            this.mimeTypes = Collections.unmodifiableList(new ArrayList<>(mimeTypes));
+        }
+    }
+
+    /**
+     * Checks whether responses of the given content type should be compressed.
+     *
+     * @param contentType The content type, including any parameters
+     * @return True if the content type is compressible
+     */
+    public boolean isCompressible(@Nullable String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int end = contentType.indexOf(';');
+        String name = (end == -1 ? contentType : contentType.substring(0, end)).trim();
+        int slash = name.indexOf('/');
+        for (String mimeType : mimeTypes) {
+            if (mimeType.endsWith("/*")) {
+                if (slash == mimeType.length() - 2 && name.regionMatches(true, 0, mimeType, 0, slash)) {
+                    return true;
+                }
+            } else if (mimeType.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.compression;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.exceptions.ContentLengthExceededException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Incrementally decompresses a {@code gzip} or {@code deflate} encoded request body. Chunks of compressed data are
+ * pushed as they arrive and decompressed data is handed to a consumer, so the inflater can be used from a
+ * non-blocking {@link javax.servlet.ReadListener} as well as to back a blocking stream.
+ *
+ * <p>The decompressed size and the ratio between the decompressed and compressed size are limited to guard against
+ * decompression bombs. Exceeding a limit results in a {@link ContentLengthExceededException}.</p>
+ *
+ * @since 2.2.0
+ */
+@Internal
+public final class StreamingInflater {
+
+    /**
+     * The {@code gzip} encoding.
+     */
+    public static final String GZIP = "gzip";
+
+    /**
+     * The {@code deflate} encoding.
+     */
+    public static final String DEFLATE = "deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_HEADER_LENGTH = 10;
+    private static final int GZIP_TRAILER_LENGTH = 8;
+    private static final int GZIP_FLAGS_OFFSET = 3;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final int ZLIB_CHECK = 31;
+    private static final int NIBBLE_MASK = 0x0f;
+    private static final int BYTE_MASK = 0xff;
+    private static final int BITS_PER_BYTE = 8;
+    private static final long RATIO_CHECK_MIN_SIZE = 64 * 1024;
+
+    private final boolean gzip;
+    private final long maxSize;
+    private final int maxRatio;
+    private final byte[] output = new byte[BUFFER_SIZE];
+    private final byte[] field = new byte[GZIP_HEADER_LENGTH];
+    private final CRC32 crc;
+    private Inflater inflater;
+    private State state;
+    private int fieldCount;
+    private int fieldLength;
+    private int flags;
+    private int skip;
+    private boolean members;
+    private long compressedSize;
+    private long decompressedSize;
+
+    /**
+     * Default constructor.
+     *
+     * @param encoding The content encoding, either {@link #GZIP} or {@link #DEFLATE}
+     * @param maxSize The maximum decompressed size, zero or less for no limit
+     * @param maxRatio The maximum ratio of the decompressed and compressed size, zero or less for no limit
+     */
+    public StreamingInflater(String encoding, long maxSize, int maxRatio) {
+        this.gzip = GZIP.equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding);
+        this.maxSize = maxSize;
+        this.maxRatio = maxRatio;
+        this.crc = gzip ? new CRC32() : null;
+        this.inflater = gzip ? new Inflater(true) : null;
+        expect(gzip ? State.GZIP_HEADER : State.ZLIB_HEADER, gzip ? GZIP_HEADER_LENGTH : 2);
+    }
+
+    /**
+     * Returns the supported content encoding of the given header value, if any.
+     *
+     * @param contentEncoding The value of the {@code Content-Encoding} header
+     * @return The encoding or null if the body is not encoded or the encoding is not supported
+     */
+    public static @Nullable String supportedEncoding(@Nullable String contentEncoding) {
+        if (contentEncoding != null) {
+            String encoding = contentEncoding.trim();
+            if (GZIP.equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding) || DEFLATE.equalsIgnoreCase(encoding)) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decompresses the given chunk of compressed data.
+     *
+     * @param bytes The compressed data
+     * @param offset The offset of the data
+     * @param length The length of the data
+     * @param consumer The consumer of decompressed chunks, each chunk is a new array
+     * @throws IOException If the data is not valid
+     */
+    public void inflate(byte[] bytes, int offset, int length, Consumer<byte[]> consumer) throws IOException {
+        compressedSize += length;
+        int off = offset;
+        final int end = offset + length;
+        while (true) {
+            switch (state) {
+                case GZIP_HEADER:
+                    off = fill(bytes, off, end);
+                    if (fieldCount < fieldLength) {
+                        return;
+                    }
+                    if ((readShort(0) != GZIP_MAGIC) || field[2] != Deflater.DEFLATED) {
+                        throw new ZipException("Not in GZIP format");
+                    }
+                    flags = field[GZIP_FLAGS_OFFSET] & BYTE_MASK;
+                    nextHeaderField();
+                    break;
+                case GZIP_EXTRA_LENGTH:
+                    off = fill(bytes, off, end);
+                    if (fieldCount < fieldLength) {
+                        return;
+                    }
+                    skip = readShort(0);
+                    state = State.GZIP_EXTRA;
+                    break;
+                case GZIP_EXTRA:
+                    int skipped = Math.min(skip, end - off);
+                    off += skipped;
+                    skip -= skipped;
+                    if (skip > 0) {
+                        return;
+                    }
+                    nextHeaderField();
+                    break;
+                case GZIP_NAME:
+                case GZIP_COMMENT:
+                    while (off < end && bytes[off] != 0) {
+                        off++;
+                    }
+                    if (off == end) {
+                        return;
+                    }
+                    off++;
+                    nextHeaderField();
+                    break;
+                case GZIP_HEADER_CRC:
+                    off = fill(bytes, off, end);
+                    if (fieldCount < fieldLength) {
+                        return;
+                    }
+                    nextHeaderField();
+                    break;
+                case ZLIB_HEADER:
+                    off = fill(bytes, off, end);
+                    if (fieldCount < fieldLength) {
+                        return;
+                    }
+                    // some clients send raw deflate data instead of the zlib format mandated by RFC 7230
+                    int cmf = field[0] & BYTE_MASK;
+                    boolean zlib = (cmf & NIBBLE_MASK) == Deflater.DEFLATED && ((cmf << BITS_PER_BYTE) | (field[1] & BYTE_MASK)) % ZLIB_CHECK == 0;
+                    inflater = new Inflater(!zlib);
+                    inflater.setInput(field, 0, fieldCount);
+                    state = State.BODY;
+                    break;
+                case BODY:
+                    if (inflater.needsInput()) {
+                        if (off == end) {
+                            return;
+                        }
+                        inflater.setInput(bytes, off, end - off);
+                        off = end;
+                    }
+                    int n;
+                    try {
+                        n = inflater.inflate(output);
+                    } catch (DataFormatException e) {
+                        throw new ZipException(e.getMessage() != null ? e.getMessage() : "Invalid compressed data");
+                    }
+                    if (n > 0) {
+                        emit(n, consumer);
+                    }
+                    if (inflater.finished()) {
+                        off = Math.max(off - inflater.getRemaining(), offset);
+                        if (gzip) {
+                            expect(State.GZIP_TRAILER, GZIP_TRAILER_LENGTH);
+                        } else {
+                            state = State.DONE;
+                        }
+                    } else if (n == 0 && inflater.needsDictionary()) {
+                        throw new ZipException("Compressed data requires a preset dictionary");
+                    }
+                    break;
+                case GZIP_TRAILER:
+                    off = fill(bytes, off, end);
+                    if (fieldCount < fieldLength) {
+                        return;
+                    }
+                    if (readInt(0) != (int) crc.getValue() || readInt(GZIP_TRAILER_LENGTH / 2) != (int) inflater.getBytesWritten()) {
+                        throw new ZipException("Corrupt GZIP trailer");
+                    }
+                    // a gzip body can consist of several members
+                    members = true;
+                    crc.reset();
+                    inflater.reset();
+                    expect(State.GZIP_HEADER, GZIP_HEADER_LENGTH);
+                    break;
+                case DONE:
+                default:
+                    // ignore trailing data
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Verifies that the compressed data was complete and releases the inflater.
+     *
+     * @throws IOException If the compressed data was truncated
+     */
+    public void finish() throws IOException {
+        boolean complete = compressedSize == 0 || state == State.DONE || (members && state == State.GZIP_HEADER && fieldCount == 0);
+        release();
+        if (!complete) {
+            throw new EOFException("Unexpected end of compressed request body");
+        }
+    }
+
+    /**
+     * Releases the native resources of the inflater.
+     */
+    public void release() {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+        state = State.DONE;
+    }
+
+    private void emit(int length, Consumer<byte[]> consumer) {
+        decompressedSize += length;
+        if (maxSize > 0 && decompressedSize > maxSize) {
+            throw new ContentLengthExceededException("The decompressed request body exceeds the maximum allowed size of " + maxSize + " bytes");
+        }
+        if (maxRatio > 0 && decompressedSize > RATIO_CHECK_MIN_SIZE && decompressedSize / Math.max(1, compressedSize) > maxRatio) {
+            throw new ContentLengthExceededException("The decompression ratio of the request body exceeds the maximum allowed ratio of " + maxRatio);
+        }
+        if (crc != null) {
+            crc.update(output, 0, length);
+        }
+        consumer.accept(Arrays.copyOf(output, length));
+    }
+
+    private void nextHeaderField() {
+        if ((flags & FEXTRA) != 0) {
+            flags &= ~FEXTRA;
+            expect(State.GZIP_EXTRA_LENGTH, 2);
+        } else if ((flags & FNAME) != 0) {
+            flags &= ~FNAME;
+            state = State.GZIP_NAME;
+        } else if ((flags & FCOMMENT) != 0) {
+            flags &= ~FCOMMENT;
+            state = State.GZIP_COMMENT;
+        } else if ((flags & FHCRC) != 0) {
+            flags &= ~FHCRC;
+            expect(State.GZIP_HEADER_CRC, 2);
+        } else {
+            state = State.BODY;
+        }
+    }
+
+    private void expect(State state, int length) {
+        this.state = state;
+        this.fieldCount = 0;
+        this.fieldLength = length;
+    }
+
+    private int fill(byte[] bytes, int off, int end) {
+        int count = Math.min(fieldLength - fieldCount, end - off);
+        System.arraycopy(bytes, off, field, fieldCount, count);
+        fieldCount += count;
+        return off + count;
+    }
+
+    private int readShort(int offset) {
+        return (field[offset] & BYTE_MASK) | ((field[offset + 1] & BYTE_MASK) << BITS_PER_BYTE);
+    }
+
+    private int readInt(int offset) {
+        return readShort(offset) | (readShort(offset + 2) << (2 * BITS_PER_BYTE));
+    }
+
+    /**
+     * The states of the decoder.
+     */
+    private enum State {
+        GZIP_HEADER,
+        GZIP_EXTRA_LENGTH,
+        GZIP_EXTRA,
+        GZIP_NAME,
+        GZIP_COMMENT,
+        GZIP_HEADER_CRC,
+        ZLIB_HEADER,
+        BODY,
+        GZIP_TRAILER,
+        DONE
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.multipart;
+
+import io.micronaut.core.annotation.Internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A push based parser for {@code multipart/form-data} bodies. Chunks of the body are passed to {@link #parse(byte[], int, int)}
+ * as they arrive and the parts are reported to a {@link Listener} without buffering more than the headers of a part
+ * and the length of the boundary.
+ *
+ * @since 2.2.0
+ */
+@Internal
+public final class MultipartParser {
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte DASH = '-';
+    private static final byte[] HEADERS_END = {CR, LF, CR, LF};
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private final byte[] delimiter;
+    private final int maxHeaderSize;
+    private final Listener listener;
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int start;
+    private int end;
+    private State state = State.PREAMBLE;
+
+    /**
+     * Default constructor.
+     *
+     * @param boundary The boundary of the body
+     * @param maxHeaderSize The maximum size of the headers of a part
+     * @param listener The listener notified of the parts
+     */
+    public MultipartParser(String boundary, int maxHeaderSize, Listener listener) {
+        final byte[] boundaryBytes = boundary.getBytes(StandardCharsets.ISO_8859_1);
+        this.delimiter = new byte[boundaryBytes.length + 4];
+        this.delimiter[0] = CR;
+        this.delimiter[1] = LF;
+        this.delimiter[2] = DASH;
+        this.delimiter[3] = DASH;
+        System.arraycopy(boundaryBytes, 0, this.delimiter, 4, boundaryBytes.length);
+        this.maxHeaderSize = maxHeaderSize;
+        this.listener = listener;
+        // the first boundary does not have to be preceded by a line break
+        this.buffer[end++] = CR;
+        this.buffer[end++] = LF;
+    }
+
+    /**
+     * Parses the next chunk of the body.
+     *
+     * @param data The data
+     * @param offset The offset of the chunk
+     * @param length The length of the chunk
+     * @throws IOException If the body is malformed
+     */
+    public void parse(byte[] data, int offset, int length) throws IOException {
+        if (state == State.EPILOGUE) {
+            return;
+        }
+        append(data, offset, length);
+        boolean progress = true;
+        while (progress) {
+            switch (state) {
+                case PREAMBLE:
+                case BODY:
+                    progress = parseBody();
+                    break;
+                case DELIMITER_SUFFIX:
+                    progress = parseDelimiterSuffix();
+                    break;
+                case HEADERS:
+                    progress = parseHeaders();
+                    break;
+                default:
+                    progress = false;
+            }
+        }
+    }
+
+    /**
+     * Signals that the body has been read completely.
+     *
+     * @throws IOException If the body ended before the closing boundary
+     */
+    public void complete() throws IOException {
+        if (state != State.EPILOGUE) {
+            throw new IOException("Multipart body ended before the closing boundary");
+        }
+    }
+
+    private boolean parseBody() {
+        final int index = indexOf(delimiter, start, end);
+        if (index != -1) {
+            if (state == State.BODY) {
+                if (index > start) {
+                    listener.onPartData(Arrays.copyOfRange(buffer, start, index));
+                }
+                listener.onPartEnd();
+            }
+            start = index + delimiter.length;
+            state = State.DELIMITER_SUFFIX;
+            return true;
+        }
+        // keep the bytes that could be the start of a delimiter split across chunks
+        final int safeEnd = Math.max(start, end - delimiter.length + 1);
+        if (safeEnd > start) {
+            if (state == State.BODY) {
+                listener.onPartData(Arrays.copyOfRange(buffer, start, safeEnd));
+            }
+            start = safeEnd;
+        }
+        return false;
+    }
+
+    private boolean parseDelimiterSuffix() throws IOException {
+        int position = start;
+        while (position < end && (buffer[position] == ' ' || buffer[position] == '\t')) {
+            position++;
+        }
+        if (end - position < 2) {
+            return false;
+        }
+        if (buffer[position] == DASH && buffer[position + 1] == DASH) {
+            start = end;
+            state = State.EPILOGUE;
+            listener.onEnd();
+            return false;
+        } else if (buffer[position] == CR && buffer[position + 1] == LF) {
+            start = position + 2;
+            state = State.HEADERS;
+            return true;
+        }
+        throw new IOException("Malformed multipart boundary");
+    }
+
+    private boolean parseHeaders() throws IOException {
+        final Map<String, String> headers = new LinkedHashMap<>();
+        final int headersEnd;
+        if (end - start >= 2 && buffer[start] == CR && buffer[start + 1] == LF) {
+            // a part without headers
+            headersEnd = start + 2;
+        } else {
+            final int index = indexOf(HEADERS_END, start, end);
+            if (index == -1) {
+                if (end - start > maxHeaderSize) {
+                    throw new IOException("Multipart headers exceed the maximum size of " + maxHeaderSize + " bytes");
+                }
+                return false;
+            }
+            final String block = new String(buffer, start, index - start, StandardCharsets.UTF_8);
+            for (String line : block.split("\r\n")) {
+                final int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(
+                            line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH),
+                            line.substring(colon + 1).trim()
+                    );
+                }
+            }
+            headersEnd = index + HEADERS_END.length;
+        }
+        start = headersEnd;
+        state = State.BODY;
+        listener.onPartBegin(headers);
+        return true;
+    }
+
+    private int indexOf(byte[] pattern, int from, int to) {
+        final byte first = pattern[0];
+        final int last = to - pattern.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length; j++) {
+                if (buffer[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private void append(byte[] data, int offset, int length) {
+        if (start > 0) {
+            // compact the unprocessed bytes
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if (end + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, end + length));
+        }
+        System.arraycopy(data, offset, buffer, end, length);
+        end += length;
+    }
+
+    /**
+     * The state of the parser.
+     */
+    private enum State {
+        PREAMBLE,
+        DELIMITER_SUFFIX,
+        HEADERS,
+        BODY,
+        EPILOGUE
+    }
+
+    /**
+     * Receives the parts of a multipart body.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the headers of a part have been read.
+         *
+         * @param headers The headers, with lower case names
+         */
+        void onPartBegin(Map<String, String> headers);
+
+        /**
+         * Called with the next chunk of the content of the current part.
+         *
+         * @param data The data, owned by the listener
+         */
+        void onPartData(byte[] data);
+
+        /**
+         * Called when the current part ends.
+         */
+        void onPartEnd();
+
+        /**
+         * Called when the closing boundary has been read.
+         */
+        void onEnd();
+    }
+}
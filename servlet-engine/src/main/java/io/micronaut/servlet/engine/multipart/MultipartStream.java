@@ -0,0 +1,431 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.multipart;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.exceptions.ContentLengthExceededException;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.micronaut.http.multipart.StreamingFileUpload;
+import io.micronaut.servlet.engine.DefaultServletHttpRequest;
+import io.micronaut.servlet.http.ServletHttpRequest;
+import io.reactivex.Flowable;
+import io.reactivex.processors.UnicastProcessor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import javax.servlet.MultipartConfigElement;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Parses a {@code multipart/form-data} request body as it arrives and routes the content of each part to the
+ * {@link StreamingFileUpload} instances bound to the route, instead of letting the container buffer every part
+ * to memory or disk before the route executes.
+ *
+ * <p>One instance is shared by all the arguments bound from the same request. Parts are matched by name in the
+ * order they arrive and parts that no argument asked for are discarded. The body is read the first time any of
+ * the bound parts is consumed.</p>
+ *
+ * <p>The body is requested one chunk at a time, and only while the part being read has demand, so that a slow
+ * consumer holds back the upload instead of it accumulating in memory. Parts that arrive before the last part bound
+ * with {@link #part(String, ServletHttpRequest)} are the exception: they are read ahead so that the route can execute
+ * once the headers of all its parts are known, and their content is spooled to the configured location beyond the file
+ * size threshold until it is consumed.</p>
+ *
+ * @since 2.2.0
+ */
+@Internal
+public final class MultipartStream implements Subscriber<byte[]>, MultipartParser.Listener {
+
+    /**
+     * The request attribute the stream is stored under.
+     */
+    public static final String ATTRIBUTE = "micronaut.servlet.multipart.stream";
+
+    private static final String MULTIPART_FORM_DATA = "multipart/form-data";
+    private static final String CONTENT_DISPOSITION = "content-disposition";
+    private static final int MAX_HEADER_SIZE = 16384;
+
+    private final Publisher<byte[]> body;
+    private final MultipartParser parser;
+    private final long maxFileSize;
+    private final long maxRequestSize;
+    private final int fileSizeThreshold;
+    private final File location;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Map<String, Queue<StreamingPart>> pending = new HashMap<>();
+    private final Map<String, UnicastProcessor<StreamingFileUpload>> channels = new HashMap<>();
+    private final List<StreamingPart> spooled = new ArrayList<>();
+    private final AtomicBoolean reading = new AtomicBoolean();
+    private volatile Subscription subscription;
+    private volatile StreamingPart current;
+    private long received;
+    private volatile boolean terminated;
+
+    /**
+     * Default constructor.
+     *
+     * @param body The request body
+     * @param boundary The multipart boundary
+     * @param config The multipart configuration, can be null
+     */
+    MultipartStream(Publisher<byte[]> body, String boundary, @Nullable MultipartConfigElement config) {
+        this.body = body;
+        this.parser = new MultipartParser(boundary, MAX_HEADER_SIZE, this);
+        this.maxFileSize = config != null ? config.getMaxFileSize() : -1;
+        this.maxRequestSize = config != null ? config.getMaxRequestSize() : -1;
+        this.fileSizeThreshold = config != null ? config.getFileSizeThreshold() : 0;
+        this.location = location(config);
+    }
+
+    /**
+     * @param config The multipart configuration, can be null
+     * @return The configured location, or the temporary directory if none is configured
+     */
+    static File location(@Nullable MultipartConfigElement config) {
+        final String configuredLocation = config != null ? config.getLocation() : null;
+        return new File(
+                configuredLocation != null && !configuredLocation.isEmpty() ? configuredLocation : System.getProperty("java.io.tmpdir")
+        );
+    }
+
+    /**
+     * Finds or creates the multipart stream of the given request.
+     *
+     * @param request The request
+     * @return The stream, or empty if the request is not a multipart form with a boundary
+     */
+    public static Optional<MultipartStream> of(@NonNull DefaultServletHttpRequest<?> request) {
+        final Optional<MultipartStream> existing = request.getAttribute(ATTRIBUTE, MultipartStream.class);
+        if (existing.isPresent()) {
+            return existing;
+        }
+        final String boundary = boundary(request.getNativeRequest().getContentType());
+        if (boundary == null) {
+            return Optional.empty();
+        }
+        final MultipartStream stream = new MultipartStream(
+                request,
+                boundary,
+                request.getMultipartConfigElement().orElse(null)
+        );
+        request.setAttribute(ATTRIBUTE, stream);
+        request.addCompletionListener(stream::cleanup);
+        return Optional.of(stream);
+    }
+
+    /**
+     * Binds the next part with the given name. The part is emitted before it has arrived, so the execution of the
+     * route is delayed until its headers have been read.
+     *
+     * @param name The name of the part
+     * @param request The request the execution of the route is delayed on
+     * @return The part
+     */
+    public StreamingFileUpload part(@NonNull String name, @NonNull ServletHttpRequest<?, ?> request) {
+        final StreamingPart part = new StreamingPart(this, name);
+        synchronized (this) {
+            if (terminated) {
+                part.onError(missingPart(name));
+            } else {
+                pending.computeIfAbsent(name, n -> new ArrayDeque<>()).add(part);
+            }
+        }
+        request.addExecutionCondition(part.begun());
+        return part;
+    }
+
+    /**
+     * Binds all the parts with the given name.
+     *
+     * @param name The name of the parts
+     * @return A publisher emitting the parts as they arrive
+     */
+    public synchronized Flowable<StreamingFileUpload> parts(@NonNull String name) {
+        final UnicastProcessor<StreamingFileUpload> channel = channels.computeIfAbsent(name, n -> UnicastProcessor.create());
+        if (terminated) {
+            channel.onComplete();
+        }
+        return channel.doOnSubscribe(s -> start());
+    }
+
+    /**
+     * Starts reading the request body if it is not being read already.
+     */
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            body.subscribe(this);
+        }
+    }
+
+    /**
+     * @return The directory relative locations passed to {@link StreamingFileUpload#transferTo(String)} resolve against
+     */
+    File getLocation() {
+        return location;
+    }
+
+    /**
+     * @return The size beyond which the content of a part that is read ahead is written to disk
+     */
+    int getFileSizeThreshold() {
+        return fileSizeThreshold;
+    }
+
+    /**
+     * Registers a part whose content is spooled, so that its temporary file is deleted once the request completes.
+     *
+     * @param part The part
+     */
+    synchronized void spooled(StreamingPart part) {
+        spooled.add(part);
+    }
+
+    /**
+     * Requests the next chunk of the body if the parser needs it and no chunk has been requested already. Called
+     * after each chunk and whenever a part receives demand.
+     */
+    void demand() {
+        final Subscription subscription = this.subscription;
+        if (subscription != null && !terminated && needsData() && reading.compareAndSet(false, true)) {
+            subscription.request(1);
+        }
+    }
+
+    private boolean needsData() {
+        final StreamingPart part = current;
+        if (part == null || part.hasDemand() || part.isSpooling()) {
+            return true;
+        }
+        return isReadingAhead();
+    }
+
+    /**
+     * @return Whether the body has to be read regardless of demand because a part bound to the route has not begun yet
+     */
+    private synchronized boolean isReadingAhead() {
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        this.subscription = s;
+        demand();
+    }
+
+    @Override
+    public void onNext(byte[] bytes) {
+        try {
+            parse(bytes);
+        } finally {
+            reading.set(false);
+        }
+        demand();
+    }
+
+    private void parse(byte[] bytes) {
+        if (terminated) {
+            return;
+        }
+        received += bytes.length;
+        try {
+            if (maxRequestSize > -1 && received > maxRequestSize) {
+                throw new ContentLengthExceededException("The multipart request exceeds the maximum allowed size of " + maxRequestSize + " bytes");
+            }
+            parser.parse(bytes, 0, bytes.length);
+        } catch (IOException e) {
+            subscription.cancel();
+            fail(new HttpStatusException(HttpStatus.BAD_REQUEST, "Malformed multipart request: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        fail(t);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            parser.complete();
+        } catch (IOException e) {
+            fail(new HttpStatusException(HttpStatus.BAD_REQUEST, "Malformed multipart request: " + e.getMessage()));
+        }
+    }
+
+    @Override
+    public void onPartBegin(Map<String, String> headers) {
+        final String name = dispositionParameter(headers, "name");
+        StreamingPart part = null;
+        if (name != null) {
+            synchronized (this) {
+                final Queue<StreamingPart> waiting = pending.get(name);
+                if (waiting != null && !waiting.isEmpty()) {
+                    part = waiting.poll();
+                    if (waiting.isEmpty()) {
+                        pending.remove(name);
+                    }
+                    part.onBegin(headers);
+                } else {
+                    final UnicastProcessor<StreamingFileUpload> channel = channels.get(name);
+                    if (channel != null) {
+                        part = new StreamingPart(this, name);
+                        part.onBegin(headers);
+                        channel.onNext(part);
+                    }
+                }
+            }
+        }
+        current = part;
+    }
+
+    @Override
+    public void onPartData(byte[] data) {
+        if (current != null) {
+            final long size;
+            try {
+                size = current.onData(data, isReadingAhead());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (maxFileSize > -1 && size > maxFileSize) {
+                throw new ContentLengthExceededException("The part [" + current.getName() + "] exceeds the maximum allowed size of " + maxFileSize + " bytes");
+            }
+        }
+    }
+
+    @Override
+    public void onPartEnd() {
+        if (current != null) {
+            current.onEnd();
+            current = null;
+        }
+    }
+
+    @Override
+    public synchronized void onEnd() {
+        terminated = true;
+        pending.forEach((name, parts) -> parts.forEach(part -> part.onError(missingPart(name))));
+        pending.clear();
+        channels.values().forEach(UnicastProcessor::onComplete);
+    }
+
+    private synchronized void fail(Throwable error) {
+        if (terminated) {
+            return;
+        }
+        terminated = true;
+        if (current != null) {
+            current.onError(error);
+            current = null;
+        }
+        pending.values().forEach(parts -> parts.forEach(part -> part.onError(error)));
+        pending.clear();
+        channels.values().forEach(channel -> channel.onError(error));
+    }
+
+    private void cleanup() {
+        final List<StreamingPart> parts;
+        synchronized (this) {
+            parts = new ArrayList<>(spooled);
+            spooled.clear();
+        }
+        parts.forEach(StreamingPart::cleanup);
+    }
+
+    private static HttpStatusException missingPart(String name) {
+        return new HttpStatusException(HttpStatus.BAD_REQUEST, "Required part [" + name + "] not present");
+    }
+
+    /**
+     * Reads a parameter of the {@code Content-Disposition} header of a part.
+     *
+     * @param headers The headers of the part
+     * @param parameter The parameter name
+     * @return The value or null if it is not present
+     */
+    static @Nullable String dispositionParameter(Map<String, String> headers, String parameter) {
+        final String disposition = headers.get(CONTENT_DISPOSITION);
+        return disposition != null ? parameter(disposition, parameter) : null;
+    }
+
+    /**
+     * @param contentType The content type of the request
+     * @return The boundary if the request is a multipart form, otherwise null
+     */
+    static @Nullable String boundary(@Nullable String contentType) {
+        if (contentType == null || !contentType.regionMatches(true, 0, MULTIPART_FORM_DATA, 0, MULTIPART_FORM_DATA.length())) {
+            return null;
+        }
+        final String boundary = parameter(contentType, "boundary");
+        return boundary != null && !boundary.isEmpty() ? boundary : null;
+    }
+
+    private static @Nullable String parameter(String header, String parameter) {
+        int index = header.indexOf(';');
+        while (index != -1 && index < header.length()) {
+            int start = index + 1;
+            while (start < header.length() && Character.isWhitespace(header.charAt(start))) {
+                start++;
+            }
+            final int equals = header.indexOf('=', start);
+            if (equals == -1) {
+                return null;
+            }
+            final String key = header.substring(start, equals).trim();
+            String value;
+            int next;
+            if (equals + 1 < header.length() && header.charAt(equals + 1) == '"') {
+                final StringBuilder builder = new StringBuilder();
+                int i = equals + 2;
+                while (i < header.length() && header.charAt(i) != '"') {
+                    char c = header.charAt(i);
+                    if (c == '\\' && i + 1 < header.length()) {
+                        c = header.charAt(++i);
+                    }
+                    builder.append(c);
+                    i++;
+                }
+                value = builder.toString();
+                next = header.indexOf(';', i);
+            } else {
+                next = header.indexOf(';', equals);
+                value = header.substring(equals + 1, next == -1 ? header.length() : next).trim();
+            }
+            if (key.equalsIgnoreCase(parameter)) {
+                return value;
+            }
+            index = next;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.multipart;
+
+import javax.servlet.http.Part;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A {@link Part} read by a {@link SpooledPartReader}. The content is kept in memory until it exceeds the file size
+ * threshold and is then written to a temporary file.
+ *
+ * @since 2.2.0
+ */
+final class SpooledPart implements Part {
+
+    private static final String CONTENT_TYPE = "content-type";
+
+    private final String name;
+    private final Map<String, String> headers;
+    private final File location;
+    private final int threshold;
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private OutputStream fileOutput;
+    private Path file;
+    private boolean temporary;
+    private long size;
+
+    /**
+     * Default constructor.
+     *
+     * @param name The name of the part
+     * @param headers The headers of the part, with lower case names
+     * @param location The directory the content is written to once it exceeds the threshold
+     * @param threshold The file size threshold
+     */
+    SpooledPart(String name, Map<String, String> headers, File location, int threshold) {
+        this.name = name;
+        this.headers = headers;
+        this.location = location;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Appends content to the part.
+     *
+     * @param data The content
+     * @throws IOException If the content cannot be written to disk
+     */
+    void write(byte[] data) throws IOException {
+        size += data.length;
+        if (fileOutput == null && size > threshold) {
+            file = Files.createTempFile(location.toPath(), "MultiPart", ".tmp");
+            temporary = true;
+            fileOutput = Files.newOutputStream(file);
+            memory.writeTo(fileOutput);
+            memory = null;
+        }
+        if (fileOutput != null) {
+            fileOutput.write(data);
+        } else {
+            memory.write(data);
+        }
+    }
+
+    /**
+     * Called once all the content has been appended.
+     *
+     * @throws IOException If the content cannot be written to disk
+     */
+    void close() throws IOException {
+        if (fileOutput != null) {
+            fileOutput.close();
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (file != null) {
+            return Files.newInputStream(file);
+        }
+        return new ByteArrayInputStream(memory.toByteArray());
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.get(CONTENT_TYPE);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getSubmittedFileName() {
+        return MultipartStream.dispositionParameter(headers, "filename");
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void write(String fileName) throws IOException {
+        Path target = new File(fileName).toPath();
+        if (!target.isAbsolute()) {
+            target = location.toPath().resolve(fileName);
+        }
+        if (file != null) {
+            close();
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            file = target;
+            temporary = false;
+        } else {
+            Files.write(target, memory.toByteArray());
+        }
+    }
+
+    @Override
+    public void delete() throws IOException {
+        if (file != null) {
+            close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Deletes the temporary file of the part, if any, once the request has completed. Files the part was moved to
+     * with {@link #write(String)} are kept.
+     */
+    void cleanup() {
+        if (temporary) {
+            try {
+                delete();
+            } catch (IOException e) {
+                // the file will be removed with the temporary directory
+            }
+        }
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase(Locale.ENGLISH));
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        final String value = getHeader(name);
+        return value != null ? Collections.singletonList(value) : Collections.emptyList();
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return headers.keySet();
+    }
+}
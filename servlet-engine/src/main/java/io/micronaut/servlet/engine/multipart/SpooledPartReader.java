@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.multipart;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.http.exceptions.ContentLengthExceededException;
+import io.micronaut.servlet.engine.DefaultServletHttpRequest;
+
+import javax.servlet.MultipartConfigElement;
+import javax.servlet.http.Part;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the parts of a multipart request with the given limits instead of those the container was configured with.
+ * Parts are kept in memory up to the file size threshold of the configuration and written to its location beyond
+ * that. Temporary files are deleted once the request completes.
+ *
+ * @since 2.2.0
+ */
+@Internal
+public final class SpooledPartReader implements MultipartParser.Listener {
+
+    private static final int MAX_HEADER_SIZE = 16384;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final MultipartConfigElement config;
+    private final File location;
+    private final List<SpooledPart> parts = new ArrayList<>();
+    private SpooledPart current;
+    private long received;
+
+    private SpooledPartReader(MultipartConfigElement config) {
+        this.config = config;
+        this.location = MultipartStream.location(config);
+    }
+
+    /**
+     * Reads the parts of the request. This blocks until the whole body has been read.
+     *
+     * @param request The request
+     * @param config The multipart configuration to apply
+     * @return The parts, or an empty list if the request is not a multipart form
+     * @throws IOException If the body cannot be read or is malformed
+     */
+    public static List<Part> read(@NonNull DefaultServletHttpRequest<?> request,
+                                  @NonNull MultipartConfigElement config) throws IOException {
+        final String boundary = MultipartStream.boundary(request.getNativeRequest().getContentType());
+        if (boundary == null) {
+            return Collections.emptyList();
+        }
+        final SpooledPartReader reader = new SpooledPartReader(config);
+        request.addCompletionListener(reader::cleanup);
+        final MultipartParser parser = new MultipartParser(boundary, MAX_HEADER_SIZE, reader);
+        try (InputStream inputStream = request.getInputStream()) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                reader.received += length;
+                if (config.getMaxRequestSize() > -1 && reader.received > config.getMaxRequestSize()) {
+                    throw new ContentLengthExceededException(
+                            "The multipart request exceeds the maximum allowed size of " + config.getMaxRequestSize() + " bytes"
+                    );
+                }
+                parser.parse(buffer, 0, length);
+            }
+            parser.complete();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new ArrayList<>(reader.parts);
+    }
+
+    @Override
+    public void onPartBegin(Map<String, String> headers) {
+        final String name = MultipartStream.dispositionParameter(headers, "name");
+        current = new SpooledPart(
+                name != null ? name : "",
+                headers,
+                location,
+                config.getFileSizeThreshold()
+        );
+        parts.add(current);
+    }
+
+    @Override
+    public void onPartData(byte[] data) {
+        if (config.getMaxFileSize() > -1 && current.getSize() + data.length > config.getMaxFileSize()) {
+            throw new ContentLengthExceededException(
+                    "The part [" + current.getName() + "] exceeds the maximum allowed size of " + config.getMaxFileSize() + " bytes"
+            );
+        }
+        try {
+            current.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void onPartEnd() {
+        try {
+            current.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        current = null;
+    }
+
+    @Override
+    public void onEnd() {
+        // no-op
+    }
+
+    private void cleanup() {
+        for (SpooledPart part : parts) {
+            part.cleanup();
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.multipart;
+
+import io.micronaut.http.MediaType;
+import io.micronaut.http.multipart.PartData;
+import io.micronaut.http.multipart.StreamingFileUpload;
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.processors.UnicastProcessor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link StreamingFileUpload} whose content is emitted while the request body is being parsed by a
+ * {@link MultipartStream}. Parts are only handed to the route once their headers have been read, so the metadata
+ * methods never wait. The content is read from the body as the subscriber requests it, and at most one chunk of the
+ * body beyond the requested amount is buffered.
+ *
+ * <p>A part that is read ahead without demand, because a later part bound to the route has not begun yet, is written
+ * to a {@link SpooledPart} instead, and replayed from it as the subscriber requests the content.</p>
+ *
+ * @since 2.2.0
+ */
+final class StreamingPart implements StreamingFileUpload {
+
+    private static final String CONTENT_TYPE = "content-type";
+    private static final String CONTENT_LENGTH = "content-length";
+    private static final int REPLAY_CHUNK_SIZE = 8192;
+
+    private final MultipartStream stream;
+    private final String name;
+    private final CompletableFuture<Map<String, String>> headers = new CompletableFuture<>();
+    private final UnicastProcessor<PartData> data = UnicastProcessor.create();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+    private volatile MediaType contentType;
+    private volatile boolean complete;
+    private volatile SpooledPart spool;
+    private InputStream replay;
+    private boolean replaying;
+    private boolean replayed;
+
+    /**
+     * Default constructor.
+     *
+     * @param stream The stream the part belongs to
+     * @param name The name of the part
+     */
+    StreamingPart(MultipartStream stream, String name) {
+        this.stream = stream;
+        this.name = name;
+    }
+
+    @Override
+    public Optional<MediaType> getContentType() {
+        headers();
+        return Optional.ofNullable(contentType);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getFilename() {
+        return MultipartStream.dispositionParameter(headers(), "filename");
+    }
+
+    @Override
+    public long getSize() {
+        return size.get();
+    }
+
+    @Override
+    public long getDefinedSize() {
+        final String length = headers().get(CONTENT_LENGTH);
+        if (length != null) {
+            try {
+                return Long.parseLong(length);
+            } catch (NumberFormatException e) {
+                // fall through to the size read so far
+            }
+        }
+        return size.get();
+    }
+
+    @Override
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public Publisher<Boolean> transferTo(String location) {
+        return transferTo(new File(stream.getLocation(), location));
+    }
+
+    @Override
+    public Publisher<Boolean> transferTo(File destination) {
+        return Flowable.using(
+                () -> FileChannel.open(
+                        destination.toPath(),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE
+                ),
+                channel -> Flowable.fromPublisher(this)
+                        .doOnNext(partData -> {
+                            final ByteBuffer buffer = partData.getByteBuffer();
+                            while (buffer.hasRemaining()) {
+                                channel.write(buffer);
+                            }
+                        })
+                        .ignoreElements()
+                        .toSingleDefault(true)
+                        .toFlowable(),
+                FileChannel::close
+        );
+    }
+
+    @Override
+    public Publisher<Boolean> delete() {
+        if (subscribed.get()) {
+            return Flowable.just(true);
+        }
+        return Flowable.fromPublisher(this)
+                .ignoreElements()
+                .toSingleDefault(true)
+                .toFlowable();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super PartData> s) {
+        subscribed.set(true);
+        data.doOnNext(partData -> requested.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1))
+                .doOnRequest(n -> {
+                    requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+                    if (spool != null) {
+                        replay();
+                    } else {
+                        stream.start();
+                        stream.demand();
+                    }
+                })
+                .subscribe(s);
+    }
+
+    /**
+     * @return Whether the subscriber has requested more content than it has received
+     */
+    boolean hasDemand() {
+        return requested.get() > 0;
+    }
+
+    /**
+     * @return Whether the content is being written to disk because it was read ahead without demand
+     */
+    boolean isSpooling() {
+        return spool != null && !complete;
+    }
+
+    /**
+     * @return A publisher that completes once the headers of the part have been read, which starts reading the body
+     */
+    Publisher<Object> begun() {
+        return Completable.create(emitter -> {
+            headers.whenComplete((partHeaders, error) -> {
+                if (error != null) {
+                    emitter.onError(error);
+                } else {
+                    emitter.onComplete();
+                }
+            });
+            stream.start();
+        }).toFlowable();
+    }
+
+    /**
+     * Called when the headers of the part have been read.
+     *
+     * @param partHeaders The headers
+     */
+    void onBegin(Map<String, String> partHeaders) {
+        final String type = partHeaders.get(CONTENT_TYPE);
+        if (type != null) {
+            contentType = new MediaType(type);
+        }
+        headers.complete(partHeaders);
+    }
+
+    /**
+     * Called with the next chunk of the content.
+     *
+     * @param bytes The chunk
+     * @param readAhead Whether the body is being read regardless of the demand for this part
+     * @return The size read so far
+     * @throws IOException If the content cannot be spooled to disk
+     */
+    long onData(byte[] bytes, boolean readAhead) throws IOException {
+        final long total = size.addAndGet(bytes.length);
+        if (spool == null && readAhead && !hasDemand()) {
+            spool = new SpooledPart(name, headers.join(), stream.getLocation(), stream.getFileSizeThreshold());
+            stream.spooled(this);
+        }
+        if (spool != null) {
+            spool.write(bytes);
+        } else {
+            data.onNext(new StreamingPartData(bytes, contentType));
+        }
+        return total;
+    }
+
+    /**
+     * Called when the content has been read completely.
+     */
+    void onEnd() {
+        final SpooledPart spool = this.spool;
+        if (spool != null) {
+            try {
+                spool.close();
+            } catch (IOException e) {
+                onError(e);
+                return;
+            }
+            complete = true;
+            replay();
+        } else {
+            complete = true;
+            data.onComplete();
+        }
+    }
+
+    /**
+     * Called when the part cannot be read.
+     *
+     * @param error The error
+     */
+    void onError(Throwable error) {
+        headers.completeExceptionally(error);
+        if (!complete) {
+            complete = true;
+            synchronized (this) {
+                replayed = true;
+            }
+            data.onError(error);
+        }
+    }
+
+    /**
+     * Deletes the spooled content, if any, once the request has completed.
+     */
+    synchronized void cleanup() {
+        replayed = true;
+        closeReplay();
+        if (spool != null) {
+            spool.cleanup();
+        }
+    }
+
+    /**
+     * Emits as much of the spooled content as has been requested, once all of it has been spooled.
+     */
+    private synchronized void replay() {
+        if (replaying || replayed || !complete) {
+            return;
+        }
+        replaying = true;
+        try {
+            if (replay == null) {
+                replay = spool.getInputStream();
+            }
+            while (hasDemand()) {
+                final byte[] chunk = new byte[REPLAY_CHUNK_SIZE];
+                final int length = replay.read(chunk);
+                if (length == -1) {
+                    replayed = true;
+                    closeReplay();
+                    data.onComplete();
+                    return;
+                }
+                data.onNext(new StreamingPartData(length == chunk.length ? chunk : Arrays.copyOf(chunk, length), contentType));
+            }
+        } catch (IOException e) {
+            replayed = true;
+            closeReplay();
+            data.onError(e);
+        } finally {
+            replaying = false;
+        }
+    }
+
+    private void closeReplay() {
+        if (replay != null) {
+            try {
+                replay.close();
+            } catch (IOException e) {
+                // the spooled content is deleted with the request
+            }
+            replay = null;
+        }
+    }
+
+    private Map<String, String> headers() {
+        if (!headers.isDone()) {
+            throw new IllegalStateException("The headers of part [" + name + "] have not been read yet");
+        }
+        try {
+            return headers.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Error reading part [" + name + "]: " + cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017-2020 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.servlet.engine.multipart;
+
+import io.micronaut.http.MediaType;
+import io.micronaut.http.multipart.PartData;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * A chunk of the content of a streamed part.
+ *
+ * @since 2.2.0
+ */
+final class StreamingPartData implements PartData {
+
+    private final byte[] data;
+    private final MediaType contentType;
+
+    /**
+     * Default constructor.
+     *
+     * @param data The data
+     * @param contentType The content type of the part, can be null
+     */
+    StreamingPartData(byte[] data, MediaType contentType) {
+        this.data = data;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(data);
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return data;
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return ByteBuffer.wrap(data);
+    }
+
+    @Override
+    public Optional<MediaType> getContentType() {
+        return Optional.ofNullable(contentType);
+    }
+}
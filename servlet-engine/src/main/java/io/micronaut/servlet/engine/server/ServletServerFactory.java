@@ -26,6 +26,7 @@ import io.micronaut.http.server.exceptions.HttpServerException;
 import io.micronaut.http.server.exceptions.ServerStartupException;
 import io.micronaut.http.ssl.SslBuilder;
 import io.micronaut.http.ssl.SslConfiguration;
+import io.micronaut.servlet.engine.compression.ServletCompressionConfiguration;
 
 import javax.net.ssl.*;
 import java.security.SecureRandom;
@@ -105,6 +106,18 @@ public abstract class ServletServerFactory extends SslBuilder<SSLContext> {
         return contextPath != null ? contextPath : "/";
     }
 
+    /**
+     * Returns the compression configuration when compression is enabled and delegated to the servlet container,
+     * in which case the server should be configured to compress responses natively.
+     *
+     * @return The compression configuration
+     * @since 2.2.0
+     */
+    protected Optional<ServletCompressionConfiguration> getContainerCompressionConfiguration() {
+        return applicationContext.findBean(ServletCompressionConfiguration.class)
+                .filter(compression -> compression.isEnabled() && compression.isContainerManaged());
+    }
+
     /**
      * @return The server config
      */